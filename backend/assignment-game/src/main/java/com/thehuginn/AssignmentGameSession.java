@@ -0,0 +1,157 @@
+package com.thehuginn;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.thehuginn.common.game.AbstractGameSession;
+import com.thehuginn.common.game.task.AbstractTask;
+import com.thehuginn.common.game.translation.TaskText;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.PubTask;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.smallrye.mutiny.Uni;
+import jakarta.persistence.Entity;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Entity
+public class AssignmentGameSession extends AbstractGameSession {
+
+    public GameType type = GameType.NONE;
+
+    public enum GameType {
+        NONE,
+        PUB_MODE,
+        NEVER_EVER_MODE
+    }
+
+    /**
+     * Ids of the tasks left in the deck in the order they are dealt, {@code 8} bytes per task. The game holds
+     * values only, so a game kept in memory does not keep entities of a closed session.
+     */
+    @JsonIgnore
+    public byte[] deck;
+
+    /**
+     * Ids of the tasks dealt since the game was started, {@code 8} bytes per task, so that a rematch can put
+     * them back into the deck
+     */
+    @JsonIgnore
+    public byte[] dealtTasks;
+
+    public AssignmentGameSession() {
+    }
+
+    public AssignmentGameSession(String gameId, GameType type) {
+        super(gameId);
+        this.type = type;
+    }
+
+    /**
+     * Rough heap footprint used by the in-memory game store.
+     */
+    public long estimatedBytes() {
+        return 128L + 2L * (gameId != null ? gameId.length() : 0) + (deck != null ? deck.length : 0)
+                + (dealtTasks != null ? dealtTasks.length : 0);
+    }
+
+    /**
+     * @return ids of the tasks left in the deck, the current task first
+     */
+    public List<Long> remainingTasks() {
+        return decode(deck);
+    }
+
+    /**
+     * Changes are kept on this instance only, the caller saves the game once the task was generated. The deck is
+     * sampled in a session of its own unless the caller has one.
+     */
+    @Override
+    public Uni<Boolean> start(ResolutionContext.Builder resolutionContext) {
+        this.deck = null;
+        this.dealtTasks = null;
+        if (this.type != GameType.PUB_MODE) {
+            return Uni.createFrom().item(Boolean.FALSE);
+        }
+        return Panache.withSession(PubTask::generateDeck)
+                .map(taskIds -> {
+                    this.deck = encode(taskIds);
+                    return Boolean.TRUE;
+                });
+    }
+
+    /**
+     * Reshuffles the remaining tasks together with the dealt ones.
+     */
+    @Override
+    public Uni<Boolean> rematch(ResolutionContext.Builder resolutionContext) {
+        if (this.type != GameType.PUB_MODE) {
+            return Uni.createFrom().item(Boolean.FALSE);
+        }
+
+        List<Long> taskIds = new ArrayList<>(decode(dealtTasks));
+        taskIds.addAll(decode(deck));
+        if (taskIds.isEmpty()) {
+            return Uni.createFrom().item(Boolean.FALSE);
+        }
+        this.deck = encode(PubTask.reshuffle(taskIds));
+        this.dealtTasks = null;
+        return Uni.createFrom().item(Boolean.TRUE);
+    }
+
+    @Override
+    public Uni<RenderedTask> currentTask(ResolutionContext.Builder resolutionContextBuilder) {
+        return Uni.createFrom().item(this)
+                .map(gameSession -> gameSession.remainingTasks().get(0))
+                .chain(taskId -> translate(taskId, resolutionContextBuilder));
+    }
+
+    @Override
+    public Uni<RenderedTask> nextTask(ResolutionContext.Builder resolutionContextBuilder) {
+        return Uni.createFrom().item(this)
+                .map(gameSession -> {
+                    List<Long> taskIds = gameSession.remainingTasks();
+                    gameSession.deal(taskIds.remove(0));
+                    gameSession.deck = encode(taskIds);
+                    return !taskIds.isEmpty() ? taskIds.get(0) : null;
+                })
+                .onItem().ifNotNull().transformToUni(taskId -> translate(taskId, resolutionContextBuilder));
+    }
+
+    private static Uni<RenderedTask> translate(Long taskId,
+            ResolutionContext.Builder resolutionContextBuilder) {
+        String key = AbstractTask.key(taskId);
+        return TaskText.translate(taskId, resolutionContextBuilder.build())
+                .map(content -> new RenderedTask(Map.of(
+                        "task", key,
+                        key, content)));
+    }
+
+    private void deal(Long taskId) {
+        ByteBuffer buffer = ByteBuffer.allocate((dealtTasks != null ? dealtTasks.length : 0) + Long.BYTES);
+        if (dealtTasks != null) {
+            buffer.put(dealtTasks);
+        }
+        dealtTasks = buffer.putLong(taskId).array();
+    }
+
+    private static byte[] encode(List<Long> taskIds) {
+        ByteBuffer buffer = ByteBuffer.allocate(taskIds.size() * Long.BYTES);
+        taskIds.forEach(buffer::putLong);
+        return buffer.array();
+    }
+
+    private static List<Long> decode(byte[] taskIds) {
+        if (taskIds == null) {
+            return new ArrayList<>();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(taskIds);
+        List<Long> ids = new ArrayList<>(taskIds.length / Long.BYTES);
+        while (buffer.remaining() >= Long.BYTES) {
+            ids.add(buffer.getLong());
+        }
+        return ids;
+    }
+}
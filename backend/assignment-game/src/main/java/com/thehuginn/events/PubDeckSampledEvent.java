@@ -0,0 +1,49 @@
+package com.thehuginn.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a pub deck sampled when a game starts, its duration covers the load of the pub tasks.
+ * <p>
+ * Disabled unless a recording enables it, e.g. {@code -XX:StartFlightRecording:settings=profile}.
+ */
+@Name("com.thehuginn.PubDeckSampled")
+@Label("Pub Deck Sampled")
+@Category({ "Party Game", "Deck" })
+@Description("Pub deck sampled from the pub tasks")
+@StackTrace(false)
+public class PubDeckSampledEvent extends Event {
+
+    @Label("Pub Tasks")
+    @Description("Pub tasks in the database the deck is sampled from")
+    public int available;
+
+    @Label("Deck Size")
+    public int tasks;
+
+    /**
+     * @return the running event, null when it is disabled so nothing is kept across the load
+     */
+    public static PubDeckSampledEvent start() {
+        PubDeckSampledEvent event = new PubDeckSampledEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public void complete(int available, int tasks) {
+        end();
+        if (shouldCommit()) {
+            this.available = available;
+            this.tasks = tasks;
+            commit();
+        }
+    }
+}
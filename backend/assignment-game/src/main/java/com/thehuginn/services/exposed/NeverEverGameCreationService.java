@@ -1,10 +1,10 @@
 package com.thehuginn.services.exposed;
 
-import com.thehuginn.GameSession;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
-import io.quarkus.panache.common.Parameters;
+import com.thehuginn.AssignmentGameSession;
+import com.thehuginn.services.hidden.GameSessionStore;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import org.jboss.resteasy.reactive.RestCookie;
@@ -13,11 +13,19 @@ import org.jboss.resteasy.reactive.RestCookie;
 @RequestScoped
 public class NeverEverGameCreationService {
 
+    @Inject
+    GameSessionStore gameSessionStore;
+
     @POST
-    @WithTransaction
     public Uni<Boolean> setNeverEverMode(@RestCookie String gameId) {
-        return GameSession.update("type = :type where gameId = :gameId ",
-                Parameters.with("type", GameSession.GameType.NEVER_EVER_MODE).and("gameId", gameId))
-                .map(changed -> changed == 1);
+        return gameSessionStore.withStore(() -> gameSessionStore.find(gameId)
+                .chain(gameSession -> {
+                    if (gameSession == null) {
+                        return Uni.createFrom().item(Boolean.FALSE);
+                    }
+                    gameSession.type = AssignmentGameSession.GameType.NEVER_EVER_MODE;
+                    return gameSessionStore.save(gameSession)
+                            .replaceWith(Boolean.TRUE);
+                }));
     }
 }
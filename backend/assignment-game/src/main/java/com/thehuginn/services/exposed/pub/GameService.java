@@ -1,83 +1,112 @@
 package com.thehuginn.services.exposed.pub;
 
-import com.thehuginn.GameSession;
+import com.thehuginn.AssignmentGameSession;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import com.thehuginn.services.hidden.GameSessionStore;
+import io.smallrye.common.annotation.Identifier;
 import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.WebApplicationException;
 
-import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Every operation runs through {@link GameSessionStore#withStore}, a transaction
+ * for games kept in the database, none for games kept in memory.
+ * <p>
+ * Identified as the {@code pub} mode, so that game-service packaged with it dispatches to it in-process.
+ */
 @Path("/pub/game")
-@WithTransaction
+@Identifier("pub")
 public class GameService implements com.thehuginn.common.services.exposed.GameService {
+
+    @Inject
+    GameSessionStore gameSessionStore;
+
     @Override
-    public Uni<GameSession> getGame(String gameId) {
-        return GameSession.<GameSession> findById(gameId);
+    public Uni<AssignmentGameSession> getGame(String gameId) {
+        return gameSessionStore.withStore(() -> gameSessionStore.find(gameId));
     }
 
     @Override
-    @WithTransaction
-    public Uni<GameSession> createGame(String gameId) {
-        GameSession gameSession = new GameSession(gameId, GameSession.GameType.PUB_MODE);
-        return GameSession.deleteById(gameId)
-                .chain(gameSession::persist);
+    public Uni<AssignmentGameSession> createGame(String gameId) {
+        AssignmentGameSession gameSession = new AssignmentGameSession(gameId, AssignmentGameSession.GameType.PUB_MODE);
+        return gameSessionStore.withStore(() -> gameSessionStore.exclusive(gameId, () -> gameSessionStore.delete(gameId)
+                .chain(() -> gameSessionStore.save(gameSession))));
     }
 
     @Override
-    @WithTransaction
     public Uni<Boolean> deleteGame(String gameId) {
-        return GameSession.deleteById(gameId);
+        return gameSessionStore.withStore(() -> gameSessionStore.delete(gameId));
     }
 
     @Override
-    @WithTransaction
-    public Uni<Boolean> startGame(String gameId, ResolutionContext.Builder resolutionContext) {
-        return execute(gameId, gameSession -> gameSession.start(resolutionContext))
+    public Uni<Boolean> startGame(String gameId, Roster roster) {
+        return update(gameId, gameSession -> gameSession.start(roster.resolutionContext(gameId, null)))
                 .onFailure().recoverWithItem(Boolean.FALSE);
     }
 
     @Override
-    @WithTransaction
-    public Uni<Map.Entry<String, Map<String, String>>> currentTask(String gameId, String locale,
-            ResolutionContext.Builder resolutionContext) {
-        if (!resolutionContext.getPlayers().isEmpty()) {
-            resolutionContext = resolutionContext.player(resolutionContext.getPlayers().get(0));
-        }
-        ResolutionContext.Builder finalResolutionContext = resolutionContext;
-        return execute(gameId, gameSession -> gameSession.currentTask(finalResolutionContext))
+    public Uni<Boolean> rematchGame(String gameId, Roster roster) {
+        return update(gameId, gameSession -> gameSession.rematch(roster.resolutionContext(gameId, null)))
+                .onFailure().recoverWithItem(Boolean.FALSE);
+    }
+
+    @Override
+    public Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster) {
+        ResolutionContext.Builder resolutionContext = firstPlayer(roster.resolutionContext(gameId, locale));
+        return execute(gameId, gameSession -> gameSession.currentTask(resolutionContext))
                 .onFailure().recoverWithNull();
     }
 
     @Override
-    @WithTransaction
-    public Uni<Map.Entry<String, Map<String, String>>> nextTask(String gameId, String locale,
-            ResolutionContext.Builder resolutionContext) {
-        if (!resolutionContext.getPlayers().isEmpty()) {
-            resolutionContext = resolutionContext.player(resolutionContext.getPlayers().get(0));
-        }
-        ResolutionContext.Builder finalResolutionContext = resolutionContext;
-        return execute(gameId, gameSession -> gameSession.nextTask(finalResolutionContext))
+    public Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster) {
+        ResolutionContext.Builder resolutionContext = firstPlayer(roster.resolutionContext(gameId, locale));
+        return update(gameId, gameSession -> gameSession.nextTask(resolutionContext))
                 .onFailure().recoverWithNull();
     }
 
+    /**
+     * Nothing to follow, every task is resolved against the players sent along with it.
+     */
+    @Override
+    public Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange) {
+        return Uni.createFrom().item(Boolean.TRUE);
+    }
+
     @Override
     public Uni<Boolean> requiresTeam() {
         return Uni.createFrom().item(Boolean.FALSE);
     }
 
-    private <T> Uni<T> execute(String gameId, Function<GameSession, Uni<T>> callback) {
-        return GameSession.<GameSession> findById(gameId)
+    private static ResolutionContext.Builder firstPlayer(ResolutionContext.Builder resolutionContext) {
+        return !resolutionContext.getPlayers().isEmpty()
+                ? resolutionContext.player(resolutionContext.getPlayers().get(0))
+                : resolutionContext;
+    }
+
+    private <T> Uni<T> update(String gameId, Function<AssignmentGameSession, Uni<T>> callback) {
+        return execute(gameId, gameSession -> callback.apply(gameSession)
+                .call(() -> gameSessionStore.save(gameSession)));
+    }
+
+    /**
+     * The whole operation including the save holds the game, in memory concurrent taps share one instance.
+     */
+    private <T> Uni<T> execute(String gameId, Function<AssignmentGameSession, Uni<T>> callback) {
+        return gameSessionStore.withStore(() -> gameSessionStore.exclusive(gameId, () -> gameSessionStore.find(gameId)
                 .onItem().ifNull().failWith(new WebApplicationException("Unable to find game session"))
                 .chain(gameSession -> {
-                    if (gameSession.type != GameSession.GameType.PUB_MODE) {
+                    if (gameSession.type != AssignmentGameSession.GameType.PUB_MODE) {
                         throw new WebApplicationException(
                                 "Game session %s was started as a different type [%s] not as type of %s".formatted(
-                                        gameSession, gameSession.type, GameSession.GameType.PUB_MODE));
+                                        gameSession, gameSession.type, AssignmentGameSession.GameType.PUB_MODE));
                     }
                     return callback.apply(gameSession);
-                });
+                })));
     }
 }
@@ -0,0 +1,141 @@
+package com.thehuginn.services.hidden;
+
+import com.thehuginn.AssignmentGameSession;
+import com.thehuginn.common.game.state.GameStateStore;
+import com.thehuginn.common.game.state.InMemoryGameStateStore;
+import com.thehuginn.common.game.state.PanacheGameStateStore;
+import com.thehuginn.common.game.state.SingleWriter;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Store of the live games, chosen per deployment by {@code common-game.state.store}: {@code postgres} keeps
+ * every game in the database, {@code memory} runs gameplay entirely in memory, optionally snapshotting
+ * games to the database every {@code common-game.state.memory.snapshot-interval}.
+ */
+@ApplicationScoped
+public class GameSessionStore implements GameStateStore<AssignmentGameSession> {
+
+    public enum Kind {
+        POSTGRES,
+        MEMORY
+    }
+
+    @ConfigProperty(name = "common-game.state.store", defaultValue = "postgres")
+    Kind kind;
+
+    @ConfigProperty(name = "common-game.state.memory.max-size", defaultValue = "64M")
+    MemorySize maxSize;
+
+    @ConfigProperty(name = "common-game.state.memory.idle-timeout", defaultValue = "2h")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "common-game.state.memory.snapshots", defaultValue = "false")
+    boolean snapshots;
+
+    private final SingleWriter writer = new SingleWriter();
+    private GameStateStore<AssignmentGameSession> delegate;
+    private InMemoryGameStateStore<AssignmentGameSession> memory;
+
+    @PostConstruct
+    void init() {
+        PanacheGameStateStore<AssignmentGameSession> postgres = new PanacheGameStateStore<>(AssignmentGameSession.class, null);
+        if (kind == Kind.MEMORY) {
+            memory = new InMemoryGameStateStore<>(AssignmentGameSession::estimatedBytes, maxSize.asLongValue(), idleTimeout,
+                    snapshots ? new OwnTransactions(postgres) : null);
+            delegate = memory;
+        } else {
+            delegate = postgres;
+        }
+        Log.infof("Games are kept in %s store", kind);
+    }
+
+    @Override
+    public Uni<AssignmentGameSession> find(String gameId) {
+        return delegate.find(gameId);
+    }
+
+    @Override
+    public Uni<AssignmentGameSession> save(AssignmentGameSession game) {
+        return delegate.save(game);
+    }
+
+    @Override
+    public Uni<Boolean> delete(String gameId) {
+        return delegate.delete(gameId);
+    }
+
+    /**
+     * Runs an operation of a request on the store. The database store runs it in a transaction, the memory store
+     * without a session, gameplay reading the catalog and writes of snapshots open their own.
+     */
+    public <T> Uni<T> withStore(Supplier<Uni<T>> operation) {
+        return memory != null ? Uni.createFrom().deferred(() -> operation.get()) : Panache.withTransaction(operation);
+    }
+
+    /**
+     * Runs {@code operation} on a game with no other operation of the same game in between. The memory store hands
+     * the same instance of a game to every request, so its operations are serialized per game. The database store
+     * loads an instance per session and leaves concurrent requests to the transactions.
+     */
+    public <T> Uni<T> exclusive(String gameId, Supplier<Uni<T>> operation) {
+        return memory != null ? writer.execute(gameId, operation) : operation.get();
+    }
+
+    @Scheduled(every = "1m")
+    Uni<Void> evictIdle() {
+        if (memory == null) {
+            return Uni.createFrom().voidItem();
+        }
+        return withSnapshots(memory::evictIdle)
+                .invoke(evicted -> Log.debugf("Evicted %d idle games, %d bytes in use", evicted,
+                        Long.valueOf(memory.usedBytes())))
+                .replaceWithVoid();
+    }
+
+    @Scheduled(every = "${common-game.state.memory.snapshot-interval:5m}")
+    Uni<Void> snapshot() {
+        if (memory == null || !snapshots) {
+            return Uni.createFrom().voidItem();
+        }
+        return Panache.withTransaction(memory::snapshot)
+                .invoke(written -> Log.debugf("Snapshot of %d games written", written))
+                .replaceWithVoid();
+    }
+
+    private Uni<Integer> withSnapshots(Supplier<Uni<Integer>> operation) {
+        return snapshots ? Panache.withTransaction(operation) : operation.get();
+    }
+
+    /**
+     * Snapshots of in-memory games are read and written in a transaction of their own, or in the one of
+     * the caller if it has one.
+     */
+    private record OwnTransactions(
+            GameStateStore<AssignmentGameSession> store) implements GameStateStore<AssignmentGameSession> {
+
+        @Override
+        public Uni<AssignmentGameSession> find(String gameId) {
+            return Panache.withSession(() -> store.find(gameId));
+        }
+
+        @Override
+        public Uni<AssignmentGameSession> save(AssignmentGameSession game) {
+            return Panache.withTransaction(() -> store.save(game));
+        }
+
+        @Override
+        public Uni<Boolean> delete(String gameId) {
+            return Panache.withTransaction(() -> store.delete(gameId));
+        }
+    }
+}
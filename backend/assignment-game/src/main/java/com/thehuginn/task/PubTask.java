@@ -3,20 +3,32 @@ package com.thehuginn.task;
 import com.thehuginn.common.game.task.AbstractTask;
 import com.thehuginn.common.game.translation.LocaleTaskText;
 import com.thehuginn.common.game.translation.TaskText;
-import io.quarkus.panache.common.Sort;
+import com.thehuginn.events.PubDeckSampledEvent;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.smallrye.mutiny.Uni;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Entity
-@DiscriminatorValue("1")
+// apart from the tasks of task-game, both modes may share the database of game-service they are packaged into
+@DiscriminatorValue("3")
 public class PubTask extends AbstractTask {
 
+    /**
+     * The first two pub tasks are the rules, the first one opens the deck and the second one is dealt eighth
+     */
+    private static final int RULES = 2;
+    private static final int SECOND_RULE_POSITION = 7;
+    private static final int DEALT_TASKS = 11;
+
     public static Uni<PubTask> createPubTask(
             String task,
             Map<String, String> translations) {
@@ -38,19 +50,54 @@ public class PubTask extends AbstractTask {
                         .discardItems());
     }
 
-    public static Uni<List<? extends AbstractTask>> generateTasks() {
-        return PubTask.<PubTask> listAll(Sort.ascending("id"))
-                .map(pubTasks -> {
-                    if (pubTasks.size() < 13) {
+    /**
+     * Samples a deck, only the ids of the pub tasks are loaded.
+     *
+     * @return ids of the tasks in the order they are dealt
+     */
+    public static Uni<List<Long>> generateDeck() {
+        PubDeckSampledEvent event = PubDeckSampledEvent.start();
+        return Panache.getSession()
+                .chain(session -> session.createQuery("select t.id from PubTask t order by t.id", Long.class)
+                        .getResultList())
+                .map(taskIds -> {
+                    int available = taskIds.size();
+                    if (taskIds.size() < 13) {
                         throw new IllegalStateException("Not enough Pub Tasks in the database");
                     }
-                    List<PubTask> rules = new ArrayList<>(List.of(pubTasks.get(0), pubTasks.get(1)));
-                    pubTasks.removeAll(rules);
+                    List<Long> rules = new ArrayList<>(taskIds.subList(0, RULES));
+                    List<Long> tasks = new ArrayList<>(taskIds.subList(RULES, taskIds.size()));
 
-                    Collections.shuffle(pubTasks);
-                    rules.addAll(pubTasks.subList(0, 11));
-                    Collections.swap(rules, 1, 7);
-                    return rules;
+                    Collections.shuffle(tasks, ThreadLocalRandom.current());
+                    List<Long> deck = arrange(rules, tasks.subList(0, DEALT_TASKS));
+                    if (event != null) {
+                        event.complete(available, deck.size());
+                    }
+                    return deck;
                 });
     }
+
+    /**
+     * Shuffles a deck generated by {@link #generateDeck()} again, its rules keep their positions.
+     *
+     * @param deck ids of every task of the deck in any order, the rules have the lowest ids
+     */
+    public static List<Long> reshuffle(Collection<Long> deck) {
+        List<Long> tasks = new ArrayList<>(deck);
+        if (tasks.size() <= SECOND_RULE_POSITION) {
+            return tasks;
+        }
+        tasks.sort(Comparator.naturalOrder());
+        List<Long> rules = new ArrayList<>(tasks.subList(0, RULES));
+        List<Long> dealt = tasks.subList(RULES, tasks.size());
+        Collections.shuffle(dealt, ThreadLocalRandom.current());
+        return arrange(rules, dealt);
+    }
+
+    private static List<Long> arrange(List<Long> rules, List<Long> dealt) {
+        List<Long> deck = new ArrayList<>(rules);
+        deck.addAll(dealt);
+        Collections.swap(deck, 1, SECOND_RULE_POSITION);
+        return deck;
+    }
 }
@@ -0,0 +1,81 @@
+-- baseline of the assignment-game schema, every later change of an entity gets a migration of its own
+
+create sequence AbstractCategory_SEQ start with 1 increment by 50;
+
+create sequence AbstractTask_SEQ start with 1 increment by 50;
+
+create table AbstractCategory (
+    unimportant integer not null,
+    id bigint not null,
+    primary key (id)
+);
+
+create table AbstractTask (
+    taskType integer not null,
+    id bigint not null,
+    primary key (id)
+);
+
+create table AssignmentGameSession (
+    gameId varchar(255) not null,
+    dealtTasks bytea,
+    deck bytea,
+    type smallint check (type between 0 and 2),
+    primary key (gameId)
+);
+
+create table CategoryText (
+    id bigint not null,
+    locale varchar(255) not null,
+    description varchar(255),
+    name varchar(255),
+    primary key (id, locale)
+);
+
+create table LocaleCategoryText (
+    locale varchar(255) not null,
+    description varchar(255),
+    name varchar(255),
+    categoryText_id bigint not null,
+    categoryText_locale varchar(255) not null,
+    primary key (categoryText_id, categoryText_locale, locale)
+);
+
+create table LocaleTaskText (
+    locale varchar(255) not null,
+    content varchar(255),
+    taskText_locale varchar(255) not null,
+    taskText_id bigint not null,
+    primary key (locale, taskText_locale, taskText_id)
+);
+
+create table TaskText (
+    locale varchar(255) not null,
+    id bigint not null,
+    content varchar(255) unique,
+    primary key (locale, id)
+);
+
+alter table if exists CategoryText
+   add constraint FKjxhy3ur9sufv15syite1qlnhh
+   foreign key (id)
+   references AbstractCategory
+   on delete cascade;
+
+alter table if exists LocaleCategoryText
+   add constraint FK4gnf9pwuvmk5jdu3sf9d5vp31
+   foreign key (categoryText_id, categoryText_locale)
+   references CategoryText
+   on delete cascade;
+
+alter table if exists LocaleTaskText
+   add constraint FK7y6fxncrsukqm7gon980ao3y0
+   foreign key (taskText_locale, taskText_id)
+   references TaskText
+   on delete cascade;
+
+alter table if exists TaskText
+   add constraint FKb36crlquodhjqjf3iviblxgac
+   foreign key (id)
+   references AbstractTask
+   on delete cascade;
@@ -2,6 +2,7 @@ package com.thehuginn;
 
 import com.thehuginn.common.game.AbstractGameSession;
 import com.thehuginn.common.game.task.AbstractTask;
+import com.thehuginn.common.game.translation.TranslationCache;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.test.junit.QuarkusTest;
@@ -27,6 +28,7 @@ public class AbstractTest {
     void setup(UniAsserter asserter) {
         asserter.execute(() -> AbstractGameSession.deleteAll());
         asserter.execute(() -> AbstractTask.delete("id > 0"));
+        asserter.execute(TranslationCache::clear);
         additionalSetup(asserter);
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
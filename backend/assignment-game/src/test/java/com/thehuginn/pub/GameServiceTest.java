@@ -1,10 +1,10 @@
 package com.thehuginn.pub;
 
 import com.thehuginn.AbstractTest;
-import com.thehuginn.GameSession;
+import com.thehuginn.AssignmentGameSession;
+import com.thehuginn.common.services.exposed.Roster;
 import com.thehuginn.task.PubTask;
 import io.quarkus.hibernate.reactive.panache.Panache;
-import io.quarkus.panache.common.Parameters;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.vertx.RunOnVertxContext;
 import io.quarkus.test.vertx.UniAsserter;
@@ -35,7 +35,7 @@ public class GameServiceTest extends AbstractTest {
 
     @Override
     protected void additionalSetup(UniAsserter asserter) {
-        asserter.execute(() -> new GameSession(GAME, GameSession.GameType.PUB_MODE).persistAndFlush());
+        asserter.execute(() -> new AssignmentGameSession(GAME, AssignmentGameSession.GameType.PUB_MODE).persistAndFlush());
         asserter.execute(this::createPubTasks);
     }
 
@@ -45,16 +45,15 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .post("/pub/game")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("gameId", is(GAME),
-                        "type", is(GameSession.GameType.PUB_MODE.toString())));
+                        "type", is(AssignmentGameSession.GameType.PUB_MODE.toString())));
 
-        asserter.assertThat(() -> GameSession.findById(GAME), Assertions::assertNotNull);
+        asserter.assertThat(() -> AssignmentGameSession.findById(GAME), Assertions::assertNotNull);
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
@@ -66,7 +65,7 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -83,7 +82,7 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -93,10 +92,10 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/pub/game/task/current")
+                .put("/pub/game/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((PubTask) asserter.getData("task")).getKey(),
@@ -111,7 +110,7 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -121,17 +120,15 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/task/next")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body(containsString("EN ")));
-        asserter.assertThat(() -> GameSession
-                .<GameSession> find("from GameSession g left join fetch g.tasks where g.id = :id", Parameters.with("id", GAME))
-                .page(0, 1).firstResult(),
-                gameSession -> Assertions.assertEquals(12, gameSession.tasks.size()));
+        asserter.assertThat(() -> AssignmentGameSession.<AssignmentGameSession> findById(GAME),
+                gameSession -> Assertions.assertEquals(12, gameSession.remainingTasks().size()));
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
@@ -142,7 +139,7 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -156,7 +153,7 @@ public class GameServiceTest extends AbstractTest {
                 LinkedHashMap<String, String> response = given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
                         .put("/pub/game/task/next")
@@ -172,17 +169,15 @@ public class GameServiceTest extends AbstractTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/pub/game/task/next")
                     .then()
                     .statusCode(RestResponse.StatusCode.NO_CONTENT);
         });
-        asserter.assertThat(() -> GameSession
-                .<GameSession> find("from GameSession g left join fetch g.tasks where g.id = :id", Parameters.with("id", GAME))
-                .page(0, 1).firstResult(),
-                gameSession -> Assertions.assertEquals(0, gameSession.tasks.size()));
+        asserter.assertThat(() -> AssignmentGameSession.<AssignmentGameSession> findById(GAME),
+                gameSession -> Assertions.assertEquals(0, gameSession.remainingTasks().size()));
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
@@ -193,7 +188,7 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -207,7 +202,7 @@ public class GameServiceTest extends AbstractTest {
                 LinkedHashMap<String, String> response = given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
                         .put("/pub/game/task/next")
@@ -224,27 +219,102 @@ public class GameServiceTest extends AbstractTest {
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
 
+    @Test
+    void testRematchRestoresDealtTasks(UniAsserter asserter) {
+        asserter.execute(() -> PubTask.<PubTask> findById(0L).invoke(pubTask -> asserter.putData("task", pubTask)));
+        asserter.execute(() -> given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", "en").build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when()
+                .put("/pub/game/start")
+                .then()
+                .statusCode(RestResponse.StatusCode.OK)
+                .body(is("true")));
+        asserter.execute(() -> {
+            for (int i = 0; i < 5; i++) {
+                given()
+                        .cookie(new Cookie.Builder("gameId", GAME).build())
+                        .cookie(new Cookie.Builder("locale", "en").build())
+                        .body(new Roster(resolutionContext.getPlayers()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .when()
+                        .put("/pub/game/task/next")
+                        .then()
+                        .statusCode(RestResponse.StatusCode.OK);
+            }
+        });
+        asserter.execute(() -> given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", "en").build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when()
+                .put("/pub/game/rematch")
+                .then()
+                .statusCode(RestResponse.StatusCode.OK)
+                .body(is("true")));
+        asserter.assertThat(
+                () -> AssignmentGameSession.<AssignmentGameSession> findById(GAME),
+                gameSession -> {
+                    Assertions.assertEquals(13, gameSession.remainingTasks().size());
+                    Assertions.assertNull(gameSession.dealtTasks);
+                });
+        asserter.execute(() -> given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", "en").build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when()
+                .put("/pub/game/task/current")
+                .then()
+                .statusCode(RestResponse.StatusCode.OK)
+                .body("data." + ((PubTask) asserter.getData("task")).getKey(),
+                        is(((PubTask) asserter.getData("task")).task.content)));
+        asserter.execute(() -> {
+            Set<String> tasks = new HashSet<>();
+            for (int i = 0; i < 12; i++) {
+                LinkedHashMap<String, String> response = given()
+                        .cookie(new Cookie.Builder("gameId", GAME).build())
+                        .cookie(new Cookie.Builder("locale", "en").build())
+                        .body(new Roster(resolutionContext.getPlayers()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .when()
+                        .put("/pub/game/task/next")
+                        .then()
+                        .statusCode(RestResponse.StatusCode.OK)
+                        .extract()
+                        .path("data");
+                tasks.add(response.get(response.get("task")));
+            }
+
+            Assertions.assertEquals(12, tasks.size());
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
     @Test
     void testRecreatingNewGame(UniAsserter asserter) {
         asserter.execute(() -> PubTask.<PubTask> findById(0L).invoke(pubTask -> asserter.putData("task", pubTask)));
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .post("/pub/game")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("gameId", is(GAME),
-                        "type", is(GameSession.GameType.PUB_MODE.toString())));
+                        "type", is(AssignmentGameSession.GameType.PUB_MODE.toString())));
 
-        //        asserter.assertThat(() -> GameSession.<GameSession>find("from GameSession g left join fetch g.tasks where g.id = :id", Parameters.with("id", GAME)).firstResult(), gameSession -> Assertions.assertEquals(0, gameSession.tasks.size()));
+        //        asserter.assertThat(() -> AssignmentGameSession.<AssignmentGameSession> findById(GAME), gameSession -> Assertions.assertEquals(0, gameSession.remainingTasks().size()));
 
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -252,15 +322,15 @@ public class GameServiceTest extends AbstractTest {
                 .statusCode(RestResponse.StatusCode.OK)
                 .body(is("true")));
 
-        //        asserter.assertThat(() -> GameSession.<GameSession> find("from GameSession g left join fetch g.tasks where g.id = :id", Parameters.with("id", GAME)).firstResult(), gameSession -> Assertions.assertEquals(13, gameSession.tasks.size()));
+        //        asserter.assertThat(() -> AssignmentGameSession.<AssignmentGameSession> findById(GAME), gameSession -> Assertions.assertEquals(13, gameSession.remainingTasks().size()));
 
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/pub/game/task/current")
+                .put("/pub/game/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((PubTask) asserter.getData("task")).getKey(),
@@ -269,24 +339,22 @@ public class GameServiceTest extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .post("/pub/game")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("gameId", is(GAME),
-                        "type", is(GameSession.GameType.PUB_MODE.toString())));
+                        "type", is(AssignmentGameSession.GameType.PUB_MODE.toString())));
 
         asserter.assertThat(
-                () -> GameSession.<GameSession> find("from GameSession g left join fetch g.tasks where g.id = :id",
-                        Parameters.with("id", GAME)).firstResult(),
-                gameSession -> Assertions.assertEquals(0, gameSession.tasks.size()));
+                () -> AssignmentGameSession.<AssignmentGameSession> findById(GAME),
+                gameSession -> Assertions.assertEquals(0, gameSession.remainingTasks().size()));
 
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/pub/game/start")
@@ -0,0 +1,138 @@
+package com.thehuginn.pub;
+
+import com.thehuginn.AbstractTest;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.profiling.SqlProfilerFilter;
+import com.thehuginn.task.PubTask;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.specification.RequestSpecification;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * Every request gets the same instance of a game kept in memory, concurrent taps must still deal every task once.
+ */
+@QuarkusTest
+@RunOnVertxContext
+@TestProfile(MemoryStoreConcurrencyTest.MemoryStore.class)
+public class MemoryStoreConcurrencyTest extends AbstractTest {
+
+    private static final int TAPS = 12;
+
+    public static class MemoryStore implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("common-game.state.store", "memory");
+        }
+    }
+
+    @Override
+    protected void additionalSetup(UniAsserter asserter) {
+        for (int i = 0; i < TAPS; i++) {
+            String content = "EN %d".formatted(i);
+            asserter.execute(() -> PubTask.createPubTask(content, Map.of("sk", "SK " + content)));
+        }
+    }
+
+    @Test
+    void testConcurrentTapsDealEveryTaskOnce(UniAsserter asserter) {
+        asserter.execute(() -> {
+            game().post("/pub/game").then().statusCode(RestResponse.StatusCode.OK);
+            game().put("/pub/game/start").then().statusCode(RestResponse.StatusCode.OK).body(is("true"));
+        });
+
+        asserter.assertThat(() -> Uni.createFrom().item(this::tapConcurrently)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool()),
+                tasks -> Assertions.assertEquals(TAPS, tasks.size(), "a task was dealt twice or a tap failed"));
+        asserter.execute(() -> game().put("/pub/game/task/next")
+                .then()
+                .statusCode(RestResponse.StatusCode.NO_CONTENT));
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    @Test
+    void testCachedTurnsIssueNoStatements(UniAsserter asserter) {
+        asserter.execute(() -> {
+            game().post("/pub/game").then().statusCode(RestResponse.StatusCode.OK);
+            game().put("/pub/game/start").then().statusCode(RestResponse.StatusCode.OK).body(is("true"));
+            game().put("/pub/game/task/current").then().statusCode(RestResponse.StatusCode.OK);
+
+            // neither a transaction nor a session once the game is in memory and its translation is cached
+            game().put("/pub/game/task/current")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK)
+                    .header(SqlProfilerFilter.STATEMENTS_HEADER, nullValue());
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    /**
+     * @return distinct tasks dealt by the taps
+     */
+    private Set<String> tapConcurrently() {
+        ExecutorService devices = Executors.newFixedThreadPool(TAPS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<LinkedHashMap<String, String>>> taps = new ArrayList<>();
+            for (int tap = 0; tap < TAPS; tap++) {
+                taps.add(devices.submit(() -> {
+                    start.await();
+                    return game().put("/pub/game/task/next")
+                            .then()
+                            .statusCode(RestResponse.StatusCode.OK)
+                            .extract()
+                            .<LinkedHashMap<String, String>> path("data");
+                }));
+            }
+            start.countDown();
+
+            Set<String> tasks = new HashSet<>();
+            for (Future<LinkedHashMap<String, String>> tap : taps) {
+                LinkedHashMap<String, String> response = tap.get();
+                tasks.add(response.get(response.get("task")));
+            }
+            return tasks;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            devices.shutdownNow();
+        }
+    }
+
+    private static RequestSpecification game() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", "en").build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+}
@@ -0,0 +1,96 @@
+package com.thehuginn.pub;
+
+import com.thehuginn.AbstractTest;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.profiling.SqlProfilerFilter;
+import com.thehuginn.task.PubTask;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Holds the pub endpoints to a budget of statements and loaded rows, read from the headers of the SQL profiler.
+ * <p>
+ * The pub deck has a constant size, the rules and {@link #PUB_TASKS} tasks, so the budgets may follow it: a start
+ * samples the ids of the pub tasks, a turn loads and updates the row of the game, which holds its deck as task ids.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class StatementBudgetTest extends AbstractTest {
+
+    private static final int PUB_TASKS = 12;
+    private static final int DECK = PUB_TASKS + 1;
+
+    @Override
+    protected void additionalSetup(UniAsserter asserter) {
+        asserter.execute(this::createPubTasks);
+    }
+
+    @Test
+    void testPubGameStaysWithinItsBudget(UniAsserter asserter) {
+        asserter.execute(() -> {
+            assertBudget("POST /pub/game", 4, 1, () -> game().post("/pub/game"));
+            assertBudget("PUT /pub/game/start", DECK + 6, 2 * DECK + 2, () -> game().put("/pub/game/start"));
+            assertBudget("PUT /pub/game/task/current", 3, 2 * DECK + 5, () -> game().put("/pub/game/task/current"));
+            for (int i = 0; i < PUB_TASKS; i++) {
+                assertBudget("PUT /pub/game/task/next", DECK + 8, 2 * DECK + 5, () -> game().put("/pub/game/task/next"));
+            }
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private static void assertBudget(String endpoint, long statements, long rows, Supplier<Response> call) {
+        Response response = call.get();
+        response.then().statusCode(RestResponse.StatusCode.OK);
+        long issued = measured(response, SqlProfilerFilter.STATEMENTS_HEADER);
+        Assertions.assertTrue(issued <= statements,
+                () -> "%s issued %d statements, its budget is %d".formatted(endpoint, issued, statements));
+        long loaded = measured(response, SqlProfilerFilter.ROWS_HEADER);
+        Assertions.assertTrue(loaded <= rows,
+                () -> "%s loaded %d rows, its budget is %d".formatted(endpoint, loaded, rows));
+    }
+
+    /**
+     * The profiler leaves out its headers when the request issued no statement.
+     */
+    private static long measured(Response response, String header) {
+        String value = response.header(header);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static RequestSpecification game() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+
+    private Uni<List<PubTask>> createPubTasks() {
+        List<Uni<PubTask>> pubTasks = new ArrayList<>();
+        for (int i = 0; i < PUB_TASKS; i++) {
+            pubTasks.add(PubTask.createPubTask("EN %d".formatted(i), Map.of("sk", "SK %d".formatted(i))));
+        }
+        //noinspection unchecked
+        return Uni.combine().all().unis(pubTasks).usingConcurrencyOf(1)
+                .combinedWith(objects -> (List<PubTask>) objects);
+    }
+}
@@ -1,6 +1,6 @@
 package com.thehuginn.common.services.exposed;
 
-import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.common.services.exposed.transport.CborMessageBodyHandler;
 import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -11,11 +11,10 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.resteasy.reactive.RestCookie;
-import org.jboss.resteasy.reactive.RestQuery;
 
 @Path("/game")
-@Consumes(MediaType.APPLICATION_JSON)
-@Produces(MediaType.APPLICATION_JSON)
+@Consumes({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
+@Produces({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
 public interface GameService {
 
     @GET
@@ -29,17 +28,29 @@ public interface GameService {
 
     @PUT
     @Path("/start")
-    Uni<Boolean> startGame(@RestCookie String gameId, @RestQuery ResolutionContext.Builder resolutionContext);
+    Uni<Boolean> startGame(@RestCookie String gameId, Roster roster);
 
-    @GET
+    @PUT
+    @Path("/rematch")
+    Uni<Boolean> rematchGame(@RestCookie String gameId, Roster roster);
+
+    /**
+     * A {@code PUT} to carry the roster, the current task is drawn when there is none yet.
+     */
+    @PUT
     @Path("/task/current")
-    Uni<?> currentTask(@RestCookie String gameId, @RestCookie String locale,
-            @RestQuery ResolutionContext.Builder resolutionContext);
+    Uni<RenderedTask> currentTask(@RestCookie String gameId, @RestCookie String locale, Roster roster);
 
     @PUT
     @Path("/task/next")
-    Uni<?> nextTask(@RestCookie String gameId, @RestCookie String locale,
-            @RestQuery ResolutionContext.Builder resolutionContext);
+    Uni<RenderedTask> nextTask(@RestCookie String gameId, @RestCookie String locale, Roster roster);
+
+    /**
+     * Players joined or left the game, a started game follows them without being started anew.
+     */
+    @PUT
+    @Path("/roster")
+    Uni<Boolean> changeRoster(@RestCookie String gameId, RosterChange rosterChange);
 
     @GET
     @Path("/require/team")
@@ -0,0 +1,40 @@
+package com.thehuginn.common.services.exposed;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State of a game in its mode as game-service reads it. Every mode sends fields of its own besides the id of the
+ * game, those are carried over to the frontend as they are.
+ */
+public class GameState {
+
+    public String gameId;
+
+    /**
+     * Type of the game, set by game-service.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String type;
+
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    @JsonAnySetter
+    public void field(String name, Object value) {
+        fields.put(name, value);
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> fields() {
+        return fields;
+    }
+
+    public GameState withType(String type) {
+        this.type = type;
+        return this;
+    }
+}
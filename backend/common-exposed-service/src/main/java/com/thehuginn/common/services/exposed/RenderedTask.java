@@ -0,0 +1,23 @@
+package com.thehuginn.common.services.exposed;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Task resolved for the players of a game.
+ *
+ * @param data key of the task under {@code task}, the text of the task under that key and the values of its tokens
+ * @param type type of the game, set by game-service only
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RenderedTask(Map<String, Object> data, String type) {
+
+    public RenderedTask(Map<String, Object> data) {
+        this(data, null);
+    }
+
+    public RenderedTask withType(String type) {
+        return new RenderedTask(data, type);
+    }
+}
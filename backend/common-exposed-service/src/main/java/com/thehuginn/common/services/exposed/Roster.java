@@ -0,0 +1,25 @@
+package com.thehuginn.common.services.exposed;
+
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Players of a game in their order, sent in the body of every call which resolves tasks.
+ *
+ * @param players players of the game in their order
+ */
+public record Roster(List<String> players) {
+
+    private static final String DEFAULT_LOCALE = "en";
+
+    /**
+     * @param locale locale of the request, {@code en} without one
+     */
+    public ResolutionContext.Builder resolutionContext(String gameId, String locale) {
+        return ResolutionContext.builder(gameId)
+                .locale(locale != null ? locale : DEFAULT_LOCALE)
+                .players(players != null ? new ArrayList<>(players) : new ArrayList<>());
+    }
+}
@@ -0,0 +1,10 @@
+package com.thehuginn.common.services.exposed;
+
+import java.util.List;
+
+/**
+ * @param previous players of the game in their order before the change
+ * @param players players of the game in their order after the change
+ */
+public record RosterChange(List<String> previous, List<String> players) {
+}
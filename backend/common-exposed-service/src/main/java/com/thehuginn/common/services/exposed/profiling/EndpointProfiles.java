@@ -0,0 +1,66 @@
+package com.thehuginn.common.services.exposed.profiling;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Database cost of every endpoint accumulated over its requests.
+ */
+public final class EndpointProfiles {
+
+    private static final Map<String, Accumulator> endpoints = new ConcurrentHashMap<>();
+
+    public record EndpointProfile(String endpoint, long requests, double statements, long maxStatements,
+            double rows, double databaseMillis) {
+    }
+
+    private EndpointProfiles() {
+    }
+
+    public static void record(String endpoint, SqlProfile profile) {
+        endpoints.computeIfAbsent(endpoint, ignored -> new Accumulator()).add(profile);
+    }
+
+    /**
+     * @return endpoints ordered from the most statements per request
+     */
+    public static List<EndpointProfile> worst(int limit) {
+        return endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().profile(entry.getKey()))
+                .sorted(Comparator.comparingDouble(EndpointProfile::statements)
+                        .thenComparingDouble(EndpointProfile::databaseMillis)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public static void clear() {
+        endpoints.clear();
+    }
+
+    private static class Accumulator {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder databaseNanos = new LongAdder();
+
+        void add(SqlProfile profile) {
+            requests.increment();
+            statements.add(profile.statements());
+            maxStatements.accumulate(profile.statements());
+            rows.add(profile.rows());
+            databaseNanos.add(profile.databaseNanos());
+        }
+
+        EndpointProfile profile(String endpoint) {
+            long count = Math.max(1, requests.sum());
+            return new EndpointProfile(endpoint, requests.sum(), (double) statements.sum() / count,
+                    maxStatements.get(), (double) rows.sum() / count, databaseNanos.sum() / 1e6 / count);
+        }
+    }
+}
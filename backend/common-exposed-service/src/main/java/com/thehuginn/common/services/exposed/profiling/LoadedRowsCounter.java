@@ -0,0 +1,20 @@
+package com.thehuginn.common.services.exposed.profiling;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts entities materialized from result sets into the {@link SqlProfile} of the request, which is
+ * the number of rows fetched as far as the application is concerned.
+ */
+public class LoadedRowsCounter implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        SqlProfile profile = SqlProfile.current();
+        if (profile != null) {
+            profile.row();
+        }
+        return false;
+    }
+}
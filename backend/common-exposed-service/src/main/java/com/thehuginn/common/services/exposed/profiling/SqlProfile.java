@@ -0,0 +1,77 @@
+package com.thehuginn.common.services.exposed.profiling;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Database cost of a single request, kept in the local data of its Vert.x context.
+ * <p>
+ * Hibernate Reactive does not report when a statement completes, the database time is therefore measured
+ * from each statement to the next one or to the end of the request. It is an upper bound which includes
+ * processing between statements, close to the real value on the query chains of a turn.
+ */
+public final class SqlProfile {
+
+    private static final String KEY = SqlProfile.class.getName();
+
+    private long statements;
+    private long rows;
+    private long databaseNanos;
+    private long openedAt;
+
+    private SqlProfile() {
+    }
+
+    /**
+     * @return profile of the current request, null outside of a Vert.x context
+     */
+    public static SqlProfile current() {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            return null;
+        }
+        SqlProfile profile = context.getLocal(KEY);
+        if (profile == null) {
+            profile = new SqlProfile();
+            context.putLocal(KEY, profile);
+        }
+        return profile;
+    }
+
+    public synchronized void statement() {
+        long now = System.nanoTime();
+        close(now);
+        openedAt = now;
+        statements++;
+    }
+
+    public synchronized void row() {
+        rows++;
+    }
+
+    /**
+     * Ends the statement still running, when the response is being written.
+     */
+    public synchronized void finish() {
+        close(System.nanoTime());
+    }
+
+    public synchronized long statements() {
+        return statements;
+    }
+
+    public synchronized long rows() {
+        return rows;
+    }
+
+    public synchronized long databaseNanos() {
+        return databaseNanos;
+    }
+
+    private void close(long now) {
+        if (openedAt != 0) {
+            databaseNanos += now - openedAt;
+            openedAt = 0;
+        }
+    }
+}
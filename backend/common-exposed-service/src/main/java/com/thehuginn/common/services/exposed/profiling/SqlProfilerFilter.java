@@ -0,0 +1,41 @@
+package com.thehuginn.common.services.exposed.profiling;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+/**
+ * Exposes the {@link SqlProfile} of every request in response headers and accumulates it
+ * per endpoint for {@link SqlProfilerResource}.
+ */
+public class SqlProfilerFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Db-Statements";
+    public static final String ROWS_HEADER = "X-Db-Rows";
+    public static final String TIME_HEADER = "X-Db-Time";
+
+    @ConfigProperty(name = "common-exposed-service.sql-profiler.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ServerResponseFilter
+    public void profile(ContainerRequestContext requestContext, ContainerResponseContext responseContext,
+            SimpleResourceInfo resourceInfo) {
+        if (!enabled) {
+            return;
+        }
+        SqlProfile profile = SqlProfile.current();
+        if (profile == null) {
+            return;
+        }
+        profile.finish();
+        responseContext.getHeaders().putSingle(STATEMENTS_HEADER, profile.statements());
+        responseContext.getHeaders().putSingle(ROWS_HEADER, profile.rows());
+        responseContext.getHeaders().putSingle(TIME_HEADER, "%.3fms".formatted(profile.databaseNanos() / 1e6));
+        if (resourceInfo != null && resourceInfo.getResourceClass() != null) {
+            EndpointProfiles.record(requestContext.getMethod() + " " + resourceInfo.getResourceClass().getSimpleName()
+                    + "#" + resourceInfo.getMethodName(), profile);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.thehuginn.common.services.exposed.profiling;
+
+import io.quarkus.arc.profile.IfBuildProfile;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestQuery;
+
+import java.util.List;
+
+/**
+ * Dev dashboard of the endpoints with the highest database cost since start or the last reset.
+ */
+@Path("/dev/sql-profile")
+@Produces(MediaType.APPLICATION_JSON)
+@IfBuildProfile("dev")
+public class SqlProfilerResource {
+
+    @GET
+    public List<EndpointProfiles.EndpointProfile> worst(@RestQuery @DefaultValue("20") int limit) {
+        return EndpointProfiles.worst(limit);
+    }
+
+    @DELETE
+    public void reset() {
+        EndpointProfiles.clear();
+    }
+}
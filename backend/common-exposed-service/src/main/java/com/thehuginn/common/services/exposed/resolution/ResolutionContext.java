@@ -3,9 +3,12 @@ package com.thehuginn.common.services.exposed.resolution;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.annotation.Nonnull;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ResolutionContext {
@@ -13,13 +16,20 @@ public class ResolutionContext {
     private final String locale;
     private final String gameId;
     private final String player;
+    private final int playerIndex;
     private final List<String> players;
-    private final List<String> shuffledPlayers;
+    /**
+     * Other players in random order, shuffled lazily up to the highest index asked for, most tasks
+     * never need a random player
+     */
+    private List<String> shuffledPlayers;
+    private int shuffled;
 
     private ResolutionContext(String locale) {
         this.locale = locale;
         gameId = null;
         player = null;
+        playerIndex = -1;
         players = null;
         shuffledPlayers = null;
     }
@@ -28,6 +38,7 @@ public class ResolutionContext {
         shuffledPlayers = null;
         players = null;
         player = null;
+        playerIndex = -1;
         gameId = null;
         locale = null;
     }
@@ -36,20 +47,16 @@ public class ResolutionContext {
             String locale,
             String gameId,
             String player,
+            int playerIndex,
             List<String> players) {
-        if (!players.contains(player)) {
-            if (player != null || !players.isEmpty()) {
-                throw new IllegalArgumentException("Player can not be found between all players.");
-            }
+        if (playerIndex < 0 && (player != null || !players.isEmpty())) {
+            throw new IllegalArgumentException("Player can not be found between all players.");
         }
         this.locale = locale;
         this.gameId = gameId;
         this.player = player;
-        this.players = Collections.unmodifiableList(players);
-        this.shuffledPlayers = players.stream()
-                .filter(player1 -> !player1.equals(player))
-                .collect(Collectors.toList());
-        Collections.shuffle(this.shuffledPlayers);
+        this.playerIndex = playerIndex;
+        this.players = players;
     }
 
     public static Builder builder(String gameId) {
@@ -60,28 +67,42 @@ public class ResolutionContext {
         return new ResolutionContext(locale);
     }
 
+    /**
+     * A builder lives for one request, it indexes the players once and returns the context it built last
+     * until one of its values changes. The list of players must not change after it was passed.
+     */
     public static class Builder {
         private String locale = "en";
         private final String gameId;
         private String player = null;
         private List<String> players = null;
+        private Map<String, Integer> playerIndexes;
+        private ResolutionContext built;
 
         private Builder(@Nonnull String gameId) {
             this.gameId = gameId;
         }
 
         public Builder locale(@Nonnull String locale) {
-            this.locale = locale;
+            if (!locale.equals(this.locale)) {
+                this.locale = locale;
+                built = null;
+            }
             return this;
         }
 
         public Builder player(@Nonnull String player) {
-            this.player = player;
+            if (!player.equals(this.player)) {
+                this.player = player;
+                built = null;
+            }
             return this;
         }
 
         public Builder players(@Nonnull List<String> players) {
-            this.players = players;
+            this.players = Collections.unmodifiableList(players);
+            playerIndexes = null;
+            built = null;
             return this;
         }
 
@@ -90,7 +111,24 @@ public class ResolutionContext {
         }
 
         public ResolutionContext build() {
-            return new ResolutionContext(locale, gameId, player, players);
+            if (built == null) {
+                built = new ResolutionContext(locale, gameId, player, indexOf(player), players);
+            }
+            return built;
+        }
+
+        private int indexOf(String player) {
+            if (player == null || players == null) {
+                return -1;
+            }
+            if (playerIndexes == null) {
+                playerIndexes = new HashMap<>();
+                // the first occurrence wins, as with List#indexOf
+                for (int index = players.size() - 1; index >= 0; index--) {
+                    playerIndexes.put(players.get(index), index);
+                }
+            }
+            return playerIndexes.getOrDefault(player, -1);
         }
     }
 
@@ -106,14 +144,37 @@ public class ResolutionContext {
         return player;
     }
 
+    /**
+     * @return index of {@link #getPlayer()} in {@link #getPlayers()}, -1 without a player
+     */
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
     public List<String> getPlayers() {
         return players;
     }
 
-    public String getRandomPlayer(Integer index) {
+    /**
+     * The same index returns the same player for the whole lifetime of this context.
+     */
+    public synchronized String getRandomPlayer(Integer index) {
+        if (shuffledPlayers == null) {
+            shuffledPlayers = new ArrayList<>(players.size());
+            for (String other : players) {
+                if (!other.equals(player)) {
+                    shuffledPlayers.add(other);
+                }
+            }
+        }
         if (index < 0 || index >= shuffledPlayers.size()) {
             throw new ArrayIndexOutOfBoundsException("Not enough players to resolve this task");
         }
+        // Fisher-Yates, only the positions up to the index are drawn
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (; shuffled <= index; shuffled++) {
+            Collections.swap(shuffledPlayers, shuffled, random.nextInt(shuffled, shuffledPlayers.size()));
+        }
         return shuffledPlayers.get(index);
     }
 }
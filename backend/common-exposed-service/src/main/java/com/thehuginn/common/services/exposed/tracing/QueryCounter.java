@@ -0,0 +1,28 @@
+package com.thehuginn.common.services.exposed.tracing;
+
+import com.thehuginn.common.services.exposed.profiling.SqlProfile;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements of the current request, Hibernate Reactive issues them on the Vert.x context
+ * of the request, so the count lives in its {@link SqlProfile}.
+ */
+public class QueryCounter implements StatementInspector {
+
+    /**
+     * @return statements issued so far on the current context, 0 outside of one
+     */
+    public static long current() {
+        SqlProfile profile = SqlProfile.current();
+        return profile != null ? profile.statements() : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        SqlProfile profile = SqlProfile.current();
+        if (profile != null) {
+            profile.statement();
+        }
+        return sql;
+    }
+}
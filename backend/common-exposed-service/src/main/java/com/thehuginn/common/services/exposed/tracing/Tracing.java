@@ -0,0 +1,76 @@
+package com.thehuginn.common.services.exposed.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.quarkus.arc.Arc;
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans around the reactive hot paths of a game. A span stays current from subscription until the {@link Uni}
+ * terminates, so spans started inside of it are its children, and it records the SQL statements issued
+ * meanwhile as counted by {@link QueryCounter}.
+ */
+public final class Tracing {
+
+    public static final String GAME_ID = "game.id";
+    public static final String DECK_SIZE = "game.deck.size";
+    public static final String STATEMENTS = "db.statements";
+
+    private Tracing() {
+    }
+
+    public static <T> Uni<T> span(String name, String gameId, Supplier<Uni<T>> work) {
+        return Uni.createFrom().deferred(() -> {
+            SpanBuilder builder = tracer().spanBuilder(name);
+            if (gameId != null) {
+                builder.setAttribute(GAME_ID, gameId);
+            }
+            Span span = builder.startSpan();
+            Scope scope = span.makeCurrent();
+            long statements = QueryCounter.current();
+            Uni<T> uni;
+            try {
+                uni = work.get();
+            } catch (RuntimeException e) {
+                end(span, scope, statements, e);
+                throw e;
+            }
+            return uni.onTermination().invoke((item, failure, cancelled) -> end(span, scope, statements, failure));
+        });
+    }
+
+    /**
+     * Records the size of the deck on the current span.
+     */
+    public static void deckSize(long size) {
+        Span.current().setAttribute(DECK_SIZE, size);
+    }
+
+    /**
+     * Records the game on the current span, for spans which are not started by {@link #span}.
+     */
+    public static void gameId(String gameId) {
+        if (gameId != null) {
+            Span.current().setAttribute(GAME_ID, gameId);
+        }
+    }
+
+    private static void end(Span span, Scope scope, long statements, Throwable failure) {
+        span.setAttribute(STATEMENTS, QueryCounter.current() - statements);
+        if (failure != null) {
+            span.recordException(failure);
+            span.setStatus(StatusCode.ERROR);
+        }
+        scope.close();
+        span.end();
+    }
+
+    private static Tracer tracer() {
+        return Arc.container().instance(Tracer.class).get();
+    }
+}
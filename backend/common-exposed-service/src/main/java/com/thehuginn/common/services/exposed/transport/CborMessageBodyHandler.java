@@ -0,0 +1,65 @@
+package com.thehuginn.common.services.exposed.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Binary encoding of the internal game mode API. Uses the application {@link ObjectMapper} configuration,
+ * so every entity serializes to the same tree it would as JSON, only smaller and cheaper to parse.
+ * It is picked by content negotiation, and clients that keep asking for JSON are served as before.
+ */
+@Provider
+@Produces(CborMessageBodyHandler.APPLICATION_CBOR)
+@Consumes(CborMessageBodyHandler.APPLICATION_CBOR)
+public class CborMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+    private final ObjectMapper cborMapper;
+
+    @Inject
+    public CborMessageBodyHandler(ObjectMapper objectMapper) {
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return APPLICATION_CBOR_TYPE.isCompatible(mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        byte[] body = entityStream.readAllBytes();
+        if (body.length == 0) {
+            return null;
+        }
+        return cborMapper.readValue(body, cborMapper.constructType(genericType != null ? genericType : type));
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return APPLICATION_CBOR_TYPE.isCompatible(mediaType);
+    }
+
+    @Override
+    public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        cborMapper.writeValue(entityStream, o);
+    }
+}
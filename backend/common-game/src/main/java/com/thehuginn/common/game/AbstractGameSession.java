@@ -21,6 +21,11 @@ public abstract class AbstractGameSession extends PanacheEntityBase {
 
     public abstract Uni<Boolean> start(ResolutionContext.Builder resolutionContext);
 
+    /**
+     * Plays the game again with its deck reshuffled and every dealt task restored, without generating it anew.
+     */
+    public abstract Uni<Boolean> rematch(ResolutionContext.Builder resolutionContext);
+
     public abstract <T> T currentTask(ResolutionContext.Builder resolutionContextBuilder);
 
     public abstract <T> T nextTask(ResolutionContext.Builder resolutionContextBuilder);
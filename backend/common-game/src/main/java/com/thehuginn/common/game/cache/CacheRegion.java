@@ -0,0 +1,118 @@
+package com.thehuginn.common.game.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bounded least-recently-used region for read-mostly catalog data, shared by all requests of the service.
+ * Values are expected to be immutable, entries expire after {@code ttl} so a missed invalidation
+ * can not keep stale data forever.
+ * <p>
+ * Every invalidation starts a new {@link #generation()}. A value read from the database before an invalidation
+ * is put with {@link #putIfCurrent} and dropped when the invalidation completed meanwhile.
+ */
+public class CacheRegion<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private long hits;
+    private long misses;
+    private long generation;
+
+    public CacheRegion(String name, int maxEntries, Duration ttl) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > CacheRegion.this.maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        if (maxEntries <= 0 || key == null || value == null) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * @param generation {@link #generation()} read before {@code value} was loaded
+     * @return false when an invalidation happened since, the value is not cached then
+     */
+    public synchronized boolean putIfCurrent(K key, V value, long generation) {
+        if (this.generation != generation) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        generation++;
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * @return number of invalidations of the region so far
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return lookups answered from the region since it was created
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return lookups of a missing or expired entry since the region was created
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
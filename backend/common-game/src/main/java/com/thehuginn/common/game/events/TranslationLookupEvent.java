@@ -0,0 +1,99 @@
+package com.thehuginn.common.game.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a translation of a task or a category, its duration covers the database lookup
+ * on a miss.
+ * <p>
+ * Like every event of the game modes it is disabled unless a recording enables it, e.g.
+ * {@code -XX:StartFlightRecording:settings=profile}. A disabled event is allocated and dropped, which the JIT
+ * reduces to a field check.
+ */
+@Name("com.thehuginn.TranslationLookup")
+@Label("Translation Lookup")
+@Category({ "Party Game", "Translation" })
+@Description("Translation of a task or a category and where it was found")
+@StackTrace(false)
+public class TranslationLookupEvent extends Event {
+
+    public enum Kind {
+        TASK,
+        CATEGORY
+    }
+
+    public enum Outcome {
+        /**
+         * template of the catalog snapshot
+         */
+        CATALOG,
+        /**
+         * {@code TranslationCache}
+         */
+        CACHE,
+        /**
+         * translation to the requested locale loaded from the database
+         */
+        DATABASE,
+        /**
+         * the requested locale is missing, the default text is used
+         */
+        FALLBACK
+    }
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Id")
+    public long id;
+
+    @Label("Locale")
+    public String locale;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Begins a lookup which has to wait for the database.
+     *
+     * @return the running event, null when it is disabled so nothing is kept across the lookup
+     */
+    public static TranslationLookupEvent start(Kind kind, Long id, String locale) {
+        TranslationLookupEvent event = new TranslationLookupEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.kind = kind.name();
+        event.id = id != null ? id : -1;
+        event.locale = locale;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits a lookup answered without waiting, from the catalog or the cache.
+     */
+    public static void immediate(Kind kind, Long id, String locale, Outcome outcome) {
+        TranslationLookupEvent event = new TranslationLookupEvent();
+        if (event.isEnabled()) {
+            event.kind = kind.name();
+            event.id = id != null ? id : -1;
+            event.locale = locale;
+            event.outcome = outcome.name();
+            event.commit();
+        }
+    }
+
+    public void complete(Outcome outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome.name();
+            commit();
+        }
+    }
+}
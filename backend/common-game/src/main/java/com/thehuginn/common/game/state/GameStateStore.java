@@ -0,0 +1,20 @@
+package com.thehuginn.common.game.state;
+
+import com.thehuginn.common.game.AbstractGameSession;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Where the live state of games is kept between requests. Gameplay loads a game with {@link #find(String)},
+ * changes it in memory and hands it back with {@link #save(AbstractGameSession)}.
+ */
+public interface GameStateStore<S extends AbstractGameSession> {
+
+    /**
+     * @return the game or null when no game with {@code gameId} exists
+     */
+    Uni<S> find(String gameId);
+
+    Uni<S> save(S game);
+
+    Uni<Boolean> delete(String gameId);
+}
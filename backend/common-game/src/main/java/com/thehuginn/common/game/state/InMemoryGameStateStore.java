@@ -0,0 +1,196 @@
+package com.thehuginn.common.game.state;
+
+import com.thehuginn.common.game.AbstractGameSession;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps games in the heap only. Every game is accounted with its estimated size, once the games exceed
+ * {@code maxBytes} the least recently used ones are evicted, and {@link #evictIdle()} drops games
+ * not used for {@code idleTimeout}.
+ * <p>
+ * With a {@code snapshots} store, changed games are written to it by {@link #snapshot()} and before
+ * they are evicted, and games missing in memory are loaded back from it. Without one, evicted games
+ * are gone, which is acceptable for parties as games are purged after a day anyway.
+ */
+public class InMemoryGameStateStore<S extends AbstractGameSession> implements GameStateStore<S> {
+
+    private final class Entry {
+        private final S game;
+        private long bytes;
+        private volatile long lastAccess;
+        private long version;
+        private long snapshotVersion;
+
+        private Entry(S game) {
+            this.game = game;
+        }
+
+        private synchronized boolean isDirty() {
+            return version != snapshotVersion;
+        }
+    }
+
+    private final Map<String, Entry> games = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final ToLongFunction<S> sizer;
+    private final long maxBytes;
+    private final long idleTimeoutNanos;
+    private final GameStateStore<S> snapshots;
+    private final LongSupplier clock;
+
+    public InMemoryGameStateStore(ToLongFunction<S> sizer, long maxBytes, Duration idleTimeout, GameStateStore<S> snapshots) {
+        this(sizer, maxBytes, idleTimeout, snapshots, System::nanoTime);
+    }
+
+    InMemoryGameStateStore(ToLongFunction<S> sizer, long maxBytes, Duration idleTimeout, GameStateStore<S> snapshots,
+            LongSupplier clock) {
+        this.sizer = sizer;
+        this.maxBytes = maxBytes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.snapshots = snapshots;
+        this.clock = clock;
+    }
+
+    @Override
+    public Uni<S> find(String gameId) {
+        Entry entry = games.get(gameId);
+        if (entry != null) {
+            entry.lastAccess = clock.getAsLong();
+            return Uni.createFrom().item(entry.game);
+        }
+        if (snapshots == null) {
+            return Uni.createFrom().nullItem();
+        }
+        return snapshots.find(gameId)
+                .onItem().ifNotNull().invoke(game -> games.computeIfAbsent(gameId, id -> account(new Entry(game))));
+    }
+
+    @Override
+    public Uni<S> save(S game) {
+        Entry entry = games.compute(game.gameId, (gameId, current) -> {
+            if (current == null || current.game != game) {
+                if (current != null) {
+                    usedBytes.addAndGet(-current.bytes);
+                }
+                current = new Entry(game);
+            }
+            return account(current);
+        });
+        synchronized (entry) {
+            entry.version++;
+        }
+        return writeBack(evictOverBudget(game.gameId)).replaceWith(game);
+    }
+
+    @Override
+    public Uni<Boolean> delete(String gameId) {
+        Entry entry = games.remove(gameId);
+        if (entry != null) {
+            usedBytes.addAndGet(-entry.bytes);
+        }
+        Uni<Boolean> deleted = Uni.createFrom().item(entry != null);
+        if (snapshots == null) {
+            return deleted;
+        }
+        return deleted.chain(inMemory -> snapshots.delete(gameId).map(stored -> inMemory || stored));
+    }
+
+    /**
+     * @return number of games evicted for being idle
+     */
+    public Uni<Integer> evictIdle() {
+        long now = clock.getAsLong();
+        List<Entry> evicted = new ArrayList<>();
+        games.values().removeIf(entry -> {
+            if (now - entry.lastAccess < idleTimeoutNanos) {
+                return false;
+            }
+            usedBytes.addAndGet(-entry.bytes);
+            evicted.add(entry);
+            return true;
+        });
+        return writeBack(evicted).replaceWith(evicted.size());
+    }
+
+    /**
+     * Writes every game changed since the last snapshot to the snapshot store.
+     *
+     * @return number of games written
+     */
+    public Uni<Integer> snapshot() {
+        return writeBack(games.values().stream().filter(Entry::isDirty).toList());
+    }
+
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    private Entry account(Entry entry) {
+        long bytes = sizer.applyAsLong(entry.game);
+        usedBytes.addAndGet(bytes - entry.bytes);
+        entry.bytes = bytes;
+        entry.lastAccess = clock.getAsLong();
+        return entry;
+    }
+
+    private List<Entry> evictOverBudget(String keep) {
+        if (usedBytes.get() <= maxBytes) {
+            return List.of();
+        }
+        List<Entry> evicted = new ArrayList<>();
+        List<Map.Entry<String, Entry>> leastRecentlyUsed = games.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(keep))
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .toList();
+        for (Map.Entry<String, Entry> candidate : leastRecentlyUsed) {
+            if (usedBytes.get() <= maxBytes) {
+                break;
+            }
+            if (games.remove(candidate.getKey(), candidate.getValue())) {
+                usedBytes.addAndGet(-candidate.getValue().bytes);
+                evicted.add(candidate.getValue());
+            }
+        }
+        Log.debugf("Evicted %d games over the memory budget of %d bytes", evicted.size(), maxBytes);
+        return evicted;
+    }
+
+    private Uni<Integer> writeBack(List<Entry> entries) {
+        if (snapshots == null || entries.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+        // sequentially, a reactive session does not allow concurrent operations
+        return Multi.createFrom().iterable(entries)
+                .filter(Entry::isDirty)
+                .onItem().transformToUniAndConcatenate(entry -> {
+                    long version;
+                    synchronized (entry) {
+                        version = entry.version;
+                    }
+                    return snapshots.save(entry.game)
+                            .invoke(() -> {
+                                synchronized (entry) {
+                                    entry.snapshotVersion = Math.max(entry.snapshotVersion, version);
+                                }
+                            });
+                })
+                .collect().asList()
+                .map(List::size);
+    }
+}
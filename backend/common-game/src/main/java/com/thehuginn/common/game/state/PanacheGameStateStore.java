@@ -0,0 +1,58 @@
+package com.thehuginn.common.game.state;
+
+import com.thehuginn.common.game.AbstractGameSession;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Keeps games in the database of the game mode, every operation requires an active session.
+ */
+public class PanacheGameStateStore<S extends AbstractGameSession> implements GameStateStore<S> {
+
+    private final Class<S> type;
+    private final String findQuery;
+
+    /**
+     * @param findQuery query with a {@code gameId} parameter fetching everything gameplay navigates,
+     *        null to load the entity only
+     */
+    public PanacheGameStateStore(Class<S> type, String findQuery) {
+        this.type = type;
+        this.findQuery = findQuery;
+    }
+
+    @Override
+    public Uni<S> find(String gameId) {
+        if (findQuery == null) {
+            return Panache.getSession().chain(session -> session.find(type, gameId));
+        }
+        return Panache.getSession()
+                .chain(session -> session.createQuery(findQuery, type)
+                        .setParameter("gameId", gameId)
+                        .getSingleResultOrNull());
+    }
+
+    /**
+     * Managed games are returned as they are, detached ones, such as snapshots of in-memory games,
+     * are merged and the managed copy is returned.
+     */
+    @Override
+    public Uni<S> save(S game) {
+        return Panache.getSession()
+                .chain(session -> session.contains(game) ? Uni.createFrom().item(game) : session.merge(game));
+    }
+
+    /**
+     * The removal is flushed right away, so a new game with the same id can be saved in the same session.
+     */
+    @Override
+    public Uni<Boolean> delete(String gameId) {
+        return Panache.getSession()
+                .chain(session -> session.find(type, gameId)
+                        .chain(game -> game == null
+                                ? Uni.createFrom().item(Boolean.FALSE)
+                                : session.remove(game)
+                                        .call(session::flush)
+                                        .replaceWith(Boolean.TRUE)));
+    }
+}
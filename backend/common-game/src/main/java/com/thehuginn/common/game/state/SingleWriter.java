@@ -0,0 +1,60 @@
+package com.thehuginn.common.game.state;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single writer per game. Mutations of one game run one after another in the order they were submitted,
+ * mutations of different games do not wait for each other.
+ * <p>
+ * Each game keeps only the completion of its last submitted mutation, the next mutation starts once it
+ * completes, on the Vert.x context of its own request. A cancelled mutation, for example of a disconnected
+ * client, hands the game over only once its predecessor completes.
+ */
+public class SingleWriter {
+
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public <T> Uni<T> execute(String gameId, Supplier<Uni<T>> mutation) {
+        return Uni.createFrom().deferred(() -> {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture<Void> previous = tails.put(gameId, done);
+            Context context = Vertx.currentContext();
+
+            Uni<Void> turn = previous == null
+                    ? Uni.createFrom().voidItem()
+                    : Uni.createFrom().completionStage(previous);
+            if (previous != null && context != null) {
+                turn = turn.emitOn(runnable -> context.runOnContext(ignored -> runnable.run()));
+            }
+            return turn.chain(() -> mutation.get())
+                    .onItemOrFailure().invoke(() -> release(gameId, done))
+                    .onCancellation().invoke(() -> {
+                        // a cancelled mutation may still be waiting, the next one must not overtake its predecessor
+                        if (previous == null) {
+                            release(gameId, done);
+                        } else {
+                            previous.whenComplete((ignored, failure) -> release(gameId, done));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * @return number of games with a running or waiting mutation
+     */
+    public int activeGames() {
+        return tails.size();
+    }
+
+    private void release(String gameId, CompletableFuture<Void> done) {
+        tails.remove(gameId, done);
+        done.complete(null);
+    }
+}
@@ -44,6 +44,10 @@ public class AbstractTask extends PanacheEntity {
 
     @JsonIgnore
     public String getKey() {
+        return key(id);
+    }
+
+    public static String key(Long id) {
         return "task_" + id;
     }
 }
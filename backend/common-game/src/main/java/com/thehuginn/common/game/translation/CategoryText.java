@@ -2,6 +2,7 @@ package com.thehuginn.common.game.translation;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.thehuginn.common.game.category.AbstractCategory;
+import com.thehuginn.common.game.events.TranslationLookupEvent;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
@@ -75,10 +76,34 @@ public class CategoryText extends PanacheEntityBase implements TranslatableCateg
     }
 
     public Uni<CategoryDto> translate(ResolutionContext context) {
+        TranslationCache.Key key = new TranslationCache.Key(category.id, context.getLocale());
+        TranslationCache.CategoryTranslation cached = TranslationCache.categories().get(key);
+        if (cached != null) {
+            TranslationLookupEvent.immediate(TranslationLookupEvent.Kind.CATEGORY, category.id, context.getLocale(),
+                    TranslationLookupEvent.Outcome.CACHE);
+            return Uni.createFrom().item(new CategoryDto(category.id, cached.name(), cached.description()));
+        }
+
+        long generation = TranslationCache.categories().generation();
+        TranslationLookupEvent lookup = TranslationLookupEvent.start(TranslationLookupEvent.Kind.CATEGORY, category.id,
+                context.getLocale());
         return LocaleCategoryText
                 .findById(new LocaleCategoryText.LocaleCategoryTextPK(this, context.getLocale()))
                 .replaceIfNullWith(this)
                 .map(translatable -> (TranslatableCategory) translatable)
+                .invoke(translatableCategory -> {
+                    if (lookup != null) {
+                        lookup.complete(translatableCategory == this
+                                ? TranslationLookupEvent.Outcome.FALLBACK
+                                : TranslationLookupEvent.Outcome.DATABASE);
+                    }
+                })
+                .invoke(translatableCategory -> {
+                    if (category.id != null) {
+                        TranslationCache.categories().putIfCurrent(key, new TranslationCache.CategoryTranslation(
+                                translatableCategory.getName(), translatableCategory.getDescription()), generation);
+                    }
+                })
                 .map(translatableCategory -> new CategoryDto(category.id, translatableCategory.getName(),
                         translatableCategory.getDescription()));
     }
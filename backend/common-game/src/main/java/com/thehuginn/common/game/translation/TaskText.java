@@ -2,8 +2,11 @@ package com.thehuginn.common.game.translation;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.common.game.events.TranslationLookupEvent;
 import com.thehuginn.common.game.task.AbstractTask;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.common.services.exposed.tracing.Tracing;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
 import io.smallrye.mutiny.Uni;
 import jakarta.persistence.Column;
@@ -82,12 +85,58 @@ public class TaskText extends PanacheEntityBase implements Translatable {
     }
 
     public Map.Entry<String, Uni<String>> translate(ResolutionContext context) {
-        Uni<? extends Translatable> localeTextUni = LocaleTaskText
-                .findById(new LocaleTaskText.LocaleTaskTextPK(this, context.getLocale()))
+        return translate(context, TranslationCache.tasks().generation());
+    }
+
+    /**
+     * Content of the task {@code taskId} in the locale of {@code context} without its entity at hand. The translation
+     * cache answers most lookups, a miss reads the text in a session of its own unless the caller has one.
+     */
+    public static Uni<String> translate(Long taskId, ResolutionContext context) {
+        String cached = TranslationCache.tasks().get(new TranslationCache.Key(taskId, context.getLocale()));
+        if (cached != null) {
+            TranslationLookupEvent.immediate(TranslationLookupEvent.Kind.TASK, taskId, context.getLocale(),
+                    TranslationLookupEvent.Outcome.CACHE);
+            return Uni.createFrom().item(cached);
+        }
+        long generation = TranslationCache.tasks().generation();
+        return Panache.withSession(() -> TaskText.<TaskText> find("task.id", taskId).firstResult()
+                .onItem().ifNotNull().transformToUni(taskText -> taskText.translate(context, generation).getValue()));
+    }
+
+    /**
+     * @param generation generation of the task translations read before this text was loaded, the translation is
+     *        cached only if no invalidation happened since
+     */
+    public Map.Entry<String, Uni<String>> translate(ResolutionContext context, long generation) {
+        TranslationCache.Key key = new TranslationCache.Key(task.id, context.getLocale());
+        String cached = TranslationCache.tasks().get(key);
+        if (cached != null) {
+            TranslationLookupEvent.immediate(TranslationLookupEvent.Kind.TASK, task.id, context.getLocale(),
+                    TranslationLookupEvent.Outcome.CACHE);
+            return Map.entry(task.getKey(), Uni.createFrom().item(cached));
+        }
+
+        TranslationLookupEvent lookup = TranslationLookupEvent.start(TranslationLookupEvent.Kind.TASK, task.id,
+                context.getLocale());
+        Uni<? extends Translatable> localeTextUni = Tracing.span("TaskText.translate", context.getGameId(),
+                () -> LocaleTaskText.findById(new LocaleTaskText.LocaleTaskTextPK(this, context.getLocale())))
                 .replaceIfNullWith(this)
                 // we will receive either LocaleTaskText or a fallback of TaskText, both are Translatable
-                .map(panacheEntityBase -> (Translatable) panacheEntityBase);
-        return Map.entry(task.getKey(), localeTextUni.map(translatable -> translatable.getContent().get(CONTENT_TAG)));
+                .map(panacheEntityBase -> (Translatable) panacheEntityBase)
+                .invoke(translatable -> {
+                    if (lookup != null) {
+                        lookup.complete(translatable == this
+                                ? TranslationLookupEvent.Outcome.FALLBACK
+                                : TranslationLookupEvent.Outcome.DATABASE);
+                    }
+                });
+        return Map.entry(task.getKey(), localeTextUni.map(translatable -> translatable.getContent().get(CONTENT_TAG))
+                .invoke(content -> {
+                    if (task.id != null) {
+                        TranslationCache.tasks().putIfCurrent(key, content, generation);
+                    }
+                }));
     }
 
     @Override
@@ -0,0 +1,58 @@
+package com.thehuginn.common.game.translation;
+
+import com.thehuginn.common.game.cache.CacheRegion;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.time.Duration;
+
+/**
+ * Caches resolved translations of tasks and categories, which are read on nearly every gameplay request
+ * but change only through the admin endpoints. Those endpoints have to invalidate what they write.
+ * <p>
+ * Sized by {@code common-game.translation-cache.<region>.max-entries} and {@code ttl},
+ * where region is {@code task} or {@code category}.
+ */
+public final class TranslationCache {
+
+    public record Key(Long id, String locale) {
+    }
+
+    public record CategoryTranslation(String name, String description) {
+    }
+
+    private static final CacheRegion<Key, String> TASKS = region("task", 4096);
+    private static final CacheRegion<Key, CategoryTranslation> CATEGORIES = region("category", 512);
+
+    private TranslationCache() {
+    }
+
+    public static CacheRegion<Key, String> tasks() {
+        return TASKS;
+    }
+
+    public static CacheRegion<Key, CategoryTranslation> categories() {
+        return CATEGORIES;
+    }
+
+    public static void invalidateTask(Long taskId) {
+        TASKS.invalidateIf(key -> key.id().equals(taskId));
+    }
+
+    public static void invalidateCategory(Long categoryId) {
+        CATEGORIES.invalidateIf(key -> key.id().equals(categoryId));
+    }
+
+    public static void clear() {
+        TASKS.clear();
+        CATEGORIES.clear();
+    }
+
+    private static <V> CacheRegion<Key, V> region(String name, int defaultMaxEntries) {
+        Config config = ConfigProvider.getConfig();
+        String prefix = "common-game.translation-cache.%s.".formatted(name);
+        return new CacheRegion<>(name,
+                config.getOptionalValue(prefix + "max-entries", Integer.class).orElse(defaultMaxEntries),
+                config.getOptionalValue(prefix + "ttl", Duration.class).orElse(Duration.ofHours(1)));
+    }
+}
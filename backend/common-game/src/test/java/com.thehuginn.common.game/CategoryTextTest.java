@@ -3,6 +3,7 @@ package com.thehuginn.common.game;
 import com.thehuginn.common.game.category.AbstractCategory;
 import com.thehuginn.common.game.translation.CategoryText;
 import com.thehuginn.common.game.translation.LocaleCategoryText;
+import com.thehuginn.common.game.translation.TranslationCache;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.test.junit.QuarkusTest;
@@ -21,6 +22,7 @@ public class CategoryTextTest {
     @AfterEach
     @RunOnVertxContext
     public void setup(UniAsserter asserter) {
+        asserter.execute(TranslationCache::clear);
         asserter.execute(() -> CategoryText.deleteAll());
         asserter.execute(() -> AbstractCategory.deleteAll());
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
@@ -3,6 +3,7 @@ package com.thehuginn.common.game;
 import com.thehuginn.common.game.task.AbstractTask;
 import com.thehuginn.common.game.translation.LocaleTaskText;
 import com.thehuginn.common.game.translation.TaskText;
+import com.thehuginn.common.game.translation.TranslationCache;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.test.junit.QuarkusTest;
@@ -21,6 +22,7 @@ public class TaskTextTest {
     @AfterEach
     @RunOnVertxContext
     public void setup(UniAsserter asserter) {
+        asserter.execute(TranslationCache::clear);
         asserter.execute(() -> TaskText.deleteAll());
         asserter.execute(() -> AbstractTask.deleteAll());
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
@@ -68,4 +70,36 @@ public class TaskTextTest {
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
+
+    @Test
+    void testTranslationIsCachedUntilInvalidated(UniAsserter asserter) {
+        AbstractTask task = new AbstractTask();
+        TaskText taskText = new TaskText();
+        taskText.task = task;
+        taskText.content = "test";
+        task.task = taskText;
+        LocaleTaskText localeTaskText = new LocaleTaskText(taskText, "sk", "Slovensky test");
+        asserter.execute(() -> task.persistAndFlush());
+        asserter.execute(() -> localeTaskText.persistAndFlush());
+
+        ResolutionContext resolutionContext = ResolutionContext.locale("sk");
+        asserter.assertThat(
+                () -> TaskText.<TaskText> findAll().firstResult()
+                        .chain(taskText1 -> taskText1.translate(resolutionContext).getValue()),
+                content -> Assertions.assertEquals("Slovensky test", content));
+
+        asserter.execute(() -> Panache.withTransaction(() -> LocaleTaskText.update("content = 'Zmeneny test'")));
+        asserter.assertThat(
+                () -> TaskText.<TaskText> findAll().firstResult()
+                        .chain(taskText1 -> taskText1.translate(resolutionContext).getValue()),
+                content -> Assertions.assertEquals("Slovensky test", content));
+
+        asserter.execute(() -> TranslationCache.invalidateTask(task.id));
+        asserter.assertThat(
+                () -> TaskText.<TaskText> findAll().firstResult()
+                        .chain(taskText1 -> taskText1.translate(resolutionContext).getValue()),
+                content -> Assertions.assertEquals("Zmeneny test", content));
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
 }
@@ -0,0 +1,38 @@
+package com.thehuginn.common.game.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class CacheRegionTest {
+
+    private final CacheRegion<String, String> region = new CacheRegion<>("test", 16, Duration.ofMinutes(1));
+
+    @Test
+    void testPutIfCurrentKeepsValueOfCurrentGeneration() {
+        long generation = region.generation();
+
+        Assertions.assertTrue(region.putIfCurrent("key", "value", generation));
+        Assertions.assertEquals("value", region.get("key"));
+    }
+
+    @Test
+    void testPutIfCurrentDropsValueLoadedBeforeInvalidation() {
+        long generation = region.generation();
+        // an edit invalidates the key while the old value is still being loaded
+        region.invalidate("key");
+
+        Assertions.assertFalse(region.putIfCurrent("key", "stale", generation));
+        Assertions.assertNull(region.get("key"));
+    }
+
+    @Test
+    void testPutIfCurrentDropsValueLoadedBeforeClear() {
+        long generation = region.generation();
+        region.clear();
+
+        Assertions.assertFalse(region.putIfCurrent("key", "stale", generation));
+        Assertions.assertNull(region.get("key"));
+    }
+}
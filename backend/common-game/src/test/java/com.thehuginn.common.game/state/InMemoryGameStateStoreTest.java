@@ -0,0 +1,157 @@
+package com.thehuginn.common.game.state;
+
+import com.thehuginn.common.game.AbstractGameSession;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InMemoryGameStateStoreTest {
+
+    static class Game extends AbstractGameSession {
+
+        long bytes = 100;
+
+        Game(String gameId) {
+            super(gameId);
+        }
+
+        @Override
+        public Uni<Boolean> start(ResolutionContext.Builder resolutionContext) {
+            return Uni.createFrom().item(Boolean.TRUE);
+        }
+
+        @Override
+        public Uni<Boolean> rematch(ResolutionContext.Builder resolutionContext) {
+            return Uni.createFrom().item(Boolean.TRUE);
+        }
+
+        @Override
+        public <T> T currentTask(ResolutionContext.Builder resolutionContextBuilder) {
+            return null;
+        }
+
+        @Override
+        public <T> T nextTask(ResolutionContext.Builder resolutionContextBuilder) {
+            return null;
+        }
+    }
+
+    static class MapStore implements GameStateStore<Game> {
+
+        final Map<String, Game> games = new HashMap<>();
+        int saves = 0;
+
+        @Override
+        public Uni<Game> find(String gameId) {
+            return Uni.createFrom().item(games.get(gameId));
+        }
+
+        @Override
+        public Uni<Game> save(Game game) {
+            saves++;
+            games.put(game.gameId, game);
+            return Uni.createFrom().item(game);
+        }
+
+        @Override
+        public Uni<Boolean> delete(String gameId) {
+            return Uni.createFrom().item(games.remove(gameId) != null);
+        }
+    }
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private InMemoryGameStateStore<Game> store(long maxBytes, MapStore snapshots) {
+        return new InMemoryGameStateStore<>(game -> game.bytes, maxBytes, Duration.ofNanos(1000), snapshots, clock::get);
+    }
+
+    @Test
+    void testGamesAreAccounted() {
+        InMemoryGameStateStore<Game> store = store(10_000, null);
+        Game game = new Game("game");
+        store.save(game).await().indefinitely();
+        store.save(new Game("other")).await().indefinitely();
+        Assertions.assertEquals(200, store.usedBytes());
+
+        game.bytes = 300;
+        store.save(game).await().indefinitely();
+        Assertions.assertEquals(400, store.usedBytes());
+        Assertions.assertSame(game, store.find("game").await().indefinitely());
+
+        Assertions.assertTrue(store.delete("game").await().indefinitely());
+        Assertions.assertFalse(store.delete("game").await().indefinitely());
+        Assertions.assertEquals(100, store.usedBytes());
+        Assertions.assertNull(store.find("game").await().indefinitely());
+    }
+
+    @Test
+    void testLeastRecentlyUsedGamesAreEvictedOverBudget() {
+        InMemoryGameStateStore<Game> store = store(250, null);
+        store.save(new Game("first")).await().indefinitely();
+        clock.addAndGet(10);
+        store.save(new Game("second")).await().indefinitely();
+        clock.addAndGet(10);
+        store.find("first").await().indefinitely();
+        clock.addAndGet(10);
+        store.save(new Game("third")).await().indefinitely();
+
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertEquals(200, store.usedBytes());
+        Assertions.assertNull(store.find("second").await().indefinitely());
+        Assertions.assertNotNull(store.find("first").await().indefinitely());
+        Assertions.assertNotNull(store.find("third").await().indefinitely());
+    }
+
+    @Test
+    void testIdleGamesAreEvicted() {
+        InMemoryGameStateStore<Game> store = store(10_000, null);
+        store.save(new Game("idle")).await().indefinitely();
+        clock.addAndGet(600);
+        store.save(new Game("active")).await().indefinitely();
+        clock.addAndGet(600);
+
+        Assertions.assertEquals(1, store.evictIdle().await().indefinitely());
+        Assertions.assertNull(store.find("idle").await().indefinitely());
+        Assertions.assertNotNull(store.find("active").await().indefinitely());
+        Assertions.assertEquals(100, store.usedBytes());
+    }
+
+    @Test
+    void testSnapshotsWriteChangedGamesOnly() {
+        MapStore snapshots = new MapStore();
+        InMemoryGameStateStore<Game> store = store(10_000, snapshots);
+        Game game = new Game("game");
+        store.save(game).await().indefinitely();
+        store.save(new Game("other")).await().indefinitely();
+
+        Assertions.assertEquals(2, store.snapshot().await().indefinitely());
+        Assertions.assertEquals(0, store.snapshot().await().indefinitely());
+
+        store.save(game).await().indefinitely();
+        Assertions.assertEquals(1, store.snapshot().await().indefinitely());
+        Assertions.assertEquals(3, snapshots.saves);
+    }
+
+    @Test
+    void testEvictedGamesAreRestoredFromSnapshots() {
+        MapStore snapshots = new MapStore();
+        InMemoryGameStateStore<Game> store = store(10_000, snapshots);
+        Game game = new Game("game");
+        store.save(game).await().indefinitely();
+        clock.addAndGet(2000);
+
+        Assertions.assertEquals(1, store.evictIdle().await().indefinitely());
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertSame(game, snapshots.games.get("game"));
+
+        Assertions.assertSame(game, store.find("game").await().indefinitely());
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertEquals(0, store.snapshot().await().indefinitely());
+    }
+}
@@ -0,0 +1,215 @@
+package com.thehuginn.cache;
+
+import com.thehuginn.entities.Game;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.panache.common.Parameters;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link GameSnapshot}s. Type and roster of a game change only through
+ * {@code ModeService#createGameMode} and {@code PlayerService}, which write the new snapshot
+ * through this cache once their change is committed, see {@link #writeThrough}, so proxying a request to a game
+ * mode does not have to load the game together with its team from the database.
+ * <p>
+ * Snapshots arrive after their transaction completed, not in the order the transactions committed. A snapshot is
+ * therefore cached only if no other write of the game overlapped its own and, for loaded snapshots, no write
+ * completed while it was loaded. Otherwise the entry is dropped and the next request loads the game.
+ * <p>
+ * The cache is local to a replica, it only sees the writes of its own replica. Requests of a game reach several
+ * replicas only when they are not routed by game, then each replica may serve a snapshot up to
+ * {@code game-service.cache.ttl} old.
+ * <p>
+ * Entries are evicted in least-recently-used order once {@code game-service.cache.max-entries}
+ * is reached and expire {@code game-service.cache.ttl} after they were loaded.
+ */
+@ApplicationScoped
+public class GameCache {
+
+    @ConfigProperty(name = "game-service.cache.max-entries", defaultValue = "1024")
+    int maxEntries;
+
+    @ConfigProperty(name = "game-service.cache.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    /**
+     * {@link Game#lastAccess} drives purging of old games, it is therefore still refreshed
+     * on cache hits, but at most once per this interval
+     */
+    @ConfigProperty(name = "game-service.cache.touch-interval", defaultValue = "1m")
+    Duration touchInterval;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Writes of games in flight, guarded like {@link #entries}
+     */
+    private final Map<String, Writes> writes = new HashMap<>();
+
+    /**
+     * Number of completed writes, guarded like {@link #entries}
+     */
+    private long generation;
+
+    private long writeSequence;
+
+    private static final class Writes {
+        private int inFlight;
+        private long lastStarted;
+        private boolean overlapped;
+    }
+
+    private static final class Entry {
+        private final GameSnapshot snapshot;
+        private final long expiresAt;
+        private long touchedAt;
+
+        private Entry(GameSnapshot snapshot, long now, long ttl) {
+            this.snapshot = snapshot;
+            this.expiresAt = now + ttl;
+            this.touchedAt = now;
+        }
+    }
+
+    /**
+     * @return snapshot of the game or null item if no such game exists
+     */
+    public Uni<GameSnapshot> find(String gameId) {
+        long now = System.nanoTime();
+        Entry entry = getEntry(gameId, now);
+        if (entry == null) {
+            return Uni.createFrom().deferred(() -> {
+                long loadedAt = generation();
+                return Panache.withTransaction(() -> Game.<Game> findByIdUpdateTimestamp(gameId))
+                        .onItem().ifNotNull().transform(game -> putIfCurrent(game, loadedAt));
+            });
+        }
+
+        if (now - entry.touchedAt < touchInterval.toNanos()) {
+            return Uni.createFrom().item(entry.snapshot);
+        }
+        entry.touchedAt = now;
+        return Panache.withTransaction(() -> Game.update("lastAccess = :now where gameId = :gameId",
+                Parameters.with("now", LocalDateTime.now()).and("gameId", gameId)))
+                .replaceWith(entry.snapshot);
+    }
+
+    /**
+     * Runs {@code write}, a transaction changing the type or team of the game, and writes the game it committed
+     * through the cache. The game is only cached if no other write of it overlapped this one, a failed write or one
+     * without a game drops the entry.
+     *
+     * @param committed the committed game of the result of {@code write}
+     */
+    public <T> Uni<T> writeThrough(String gameId, Supplier<Uni<T>> write, Function<T, Game> committed) {
+        return Uni.createFrom().deferred(() -> {
+            long sequence = startWrite(gameId);
+            return write.get()
+                    .onItemOrFailure().invoke((result, failure) -> finishWrite(gameId, sequence,
+                            failure == null && result != null ? committed.apply(result) : null))
+                    .onCancellation().invoke(() -> finishWrite(gameId, sequence, null));
+        });
+    }
+
+    /**
+     * Caches the state of the game unconditionally
+     */
+    GameSnapshot put(Game game) {
+        GameSnapshot snapshot = new GameSnapshot(game);
+        synchronized (entries) {
+            entries.put(game.gameId, new Entry(snapshot, System.nanoTime(), ttl.toNanos()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Caches a loaded game unless a write of it is in flight or any write completed since {@code generation}
+     */
+    GameSnapshot putIfCurrent(Game game, long generation) {
+        GameSnapshot snapshot = new GameSnapshot(game);
+        synchronized (entries) {
+            if (this.generation == generation && !writes.containsKey(game.gameId)) {
+                entries.put(game.gameId, new Entry(snapshot, System.nanoTime(), ttl.toNanos()));
+            }
+        }
+        return snapshot;
+    }
+
+    long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    long startWrite(String gameId) {
+        synchronized (entries) {
+            Writes inFlight = writes.computeIfAbsent(gameId, ignored -> new Writes());
+            inFlight.overlapped |= inFlight.inFlight > 0;
+            inFlight.inFlight++;
+            inFlight.lastStarted = ++writeSequence;
+            return inFlight.lastStarted;
+        }
+    }
+
+    /**
+     * @param game the committed game, null if the write failed
+     */
+    void finishWrite(String gameId, long sequence, Game game) {
+        synchronized (entries) {
+            generation++;
+            Writes inFlight = writes.get(gameId);
+            boolean alone = !inFlight.overlapped && inFlight.lastStarted == sequence;
+            if (--inFlight.inFlight == 0) {
+                writes.remove(gameId);
+            }
+            if (game != null && alone) {
+                entries.put(gameId, new Entry(new GameSnapshot(game), System.nanoTime(), ttl.toNanos()));
+            } else {
+                entries.remove(gameId);
+            }
+        }
+    }
+
+    public void invalidate(String gameId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(gameId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    GameSnapshot getIfPresent(String gameId) {
+        Entry entry = getEntry(gameId, System.nanoTime());
+        return entry != null ? entry.snapshot : null;
+    }
+
+    private Entry getEntry(String gameId, long now) {
+        synchronized (entries) {
+            Entry entry = entries.get(gameId);
+            if (entry != null && now - entry.expiresAt >= 0) {
+                entries.remove(gameId);
+                return null;
+            }
+            return entry;
+        }
+    }
+}
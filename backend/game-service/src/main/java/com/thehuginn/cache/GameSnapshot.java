@@ -0,0 +1,31 @@
+package com.thehuginn.cache;
+
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.entities.Game;
+
+import java.util.List;
+
+/**
+ * Immutable view of the parts of {@link Game} which are needed to proxy
+ * requests to game modes, i.e. the type of the game and its roster.
+ */
+public final class GameSnapshot {
+
+    public final String gameId;
+
+    public final Game.Type type;
+
+    public final List<String> players;
+
+    GameSnapshot(Game game) {
+        this.gameId = game.gameId;
+        this.type = game.type;
+        this.players = game.team.stream()
+                .map(player -> player.name)
+                .toList();
+    }
+
+    public Roster roster() {
+        return new Roster(players);
+    }
+}
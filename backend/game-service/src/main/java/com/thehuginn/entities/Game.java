@@ -1,12 +1,15 @@
 package com.thehuginn.entities;
 
+import com.thehuginn.common.services.exposed.Roster;
 import io.quarkus.hibernate.reactive.panache.PanacheEntityBase;
 import io.smallrye.mutiny.Uni;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,6 +17,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@Table(indexes = @Index(name = "game_lastaccess_idx", columnList = "lastAccess"))
 public class Game extends PanacheEntityBase {
 
     public enum State {
@@ -75,7 +79,9 @@ public class Game extends PanacheEntityBase {
         return team.removeIf(player -> Objects.equals(player.id, playerId));
     }
 
-    public GameContext gameContext() {
-        return new GameContext(this);
+    public Roster roster() {
+        return new Roster(team.stream()
+                .map(player -> player.name)
+                .toList());
     }
 }
@@ -0,0 +1,31 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Game mode as seen by game-service, regardless of whether the mode is called over REST
+ * or dispatched in-process. Mirrors {@link GameRestClient} on purpose, but without any
+ * JAX-RS annotations so that implementations are never picked up as endpoints.
+ */
+public interface GameModeClient {
+
+    Uni<GameState> getGame(String gameId);
+
+    Uni<GameState> createGame(String gameId);
+
+    Uni<Boolean> deleteGame(String gameId);
+
+    Uni<Boolean> startGame(String gameId, Roster roster);
+
+    Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster);
+
+    Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster);
+
+    Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange);
+
+    Uni<Boolean> requiresTeam();
+}
@@ -0,0 +1,177 @@
+package com.thehuginn.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thehuginn.common.services.exposed.GameService;
+import com.thehuginn.entities.Game;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.Identifier;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses for each game mode whether it is reached over REST or dispatched in-process.
+ * <p>
+ * With {@code game-service.mode.<mode>.dispatch=local} the mode has to be packaged into game-service
+ * and its implementation of {@link GameService} exposed as a bean with {@code @Identifier("<mode>")}.
+ * The pub mode is packaged by building game-service with {@code -Pcolocate-pub}, its games are then kept
+ * in the database of game-service.
+ * <p>
+ * Either way every mode is wrapped by {@link GuardedGameModeClient}, configured through
+ * {@code game-service.mode.<mode>.max-concurrent-calls}, {@code timeout}, {@code start-timeout}
+ * and {@code hedge-delay}.
+ * <p>
+ * A remote mode running as several instances lists them in {@code game-service.mode.<mode>.members}
+ * or in the file {@code game-service.mode.<mode>.members-file}, one url per line, which is re-read
+ * every {@code game-service.mode.members-refresh}. Requests of a game are then routed to a single
+ * instance by {@link RoutedGameModeClient}.
+ */
+@ApplicationScoped
+public class GameModeClients {
+
+    public enum Dispatch {
+        REMOTE,
+        LOCAL
+    }
+
+    @RestClient
+    GameRestClientTask taskRestClient;
+
+    @RestClient
+    GameRestClientPub pubRestClient;
+
+    @Inject
+    @Any
+    Instance<GameService> localGameServices;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "game-service.mode.task.dispatch", defaultValue = "remote")
+    Dispatch taskDispatch;
+
+    @ConfigProperty(name = "game-service.mode.pub.dispatch", defaultValue = "remote")
+    Dispatch pubDispatch;
+
+    private GameModeClient taskClient;
+
+    private GameModeClient pubClient;
+
+    private final Map<String, RoutedGameModeClient> routedClients = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        taskClient = guarded("task",
+                taskDispatch == Dispatch.LOCAL ? local("task") : remote("task", "task-api", taskRestClient));
+        pubClient = guarded("pub",
+                pubDispatch == Dispatch.LOCAL ? local("pub") : remote("pub", "pub-api", pubRestClient));
+    }
+
+    @Scheduled(every = "${game-service.mode.members-refresh:30s}")
+    void refreshMembers() {
+        routedClients.forEach((mode, client) -> members(mode).ifPresent(client::updateMembers));
+    }
+
+    /**
+     * Resolves the clients on startup, so that a missing local game mode fails fast
+     */
+    void onStart(@Observes StartupEvent event) {
+        Log.infof("Game modes are dispatched as task [%s] and pub [%s]", taskDispatch, pubDispatch);
+    }
+
+    /**
+     * @return client of the given game mode or null for {@link Game.Type#NONE}
+     */
+    public GameModeClient forType(Game.Type type) {
+        return switch (type) {
+            case TASK -> taskClient;
+            case PUB -> pubClient;
+            case NONE -> null;
+        };
+    }
+
+    private GameModeClient guarded(String mode, GameModeClient client) {
+        String prefix = "game-service.mode.%s.".formatted(mode);
+        return new GuardedGameModeClient(mode, client,
+                config.getOptionalValue(prefix + "max-concurrent-calls", Integer.class).orElse(64),
+                config.getOptionalValue(prefix + "timeout", Duration.class).orElse(Duration.ofSeconds(5)),
+                config.getOptionalValue(prefix + "start-timeout", Duration.class).orElse(Duration.ofSeconds(30)),
+                config.getOptionalValue(prefix + "hedge-delay", Duration.class).orElse(Duration.ZERO));
+    }
+
+    private GameModeClient remote(String mode, String configKey, GameRestClient restClient) {
+        Optional<List<String>> members = members(mode);
+        if (members.isEmpty()) {
+            return new RemoteGameModeClient(restClient);
+        }
+
+        String clientPrefix = "quarkus.rest-client.%s.".formatted(configKey);
+        long connectTimeout = config.getOptionalValue(clientPrefix + "connect-timeout", Long.class).orElse(2000L);
+        long readTimeout = config.getOptionalValue(clientPrefix + "read-timeout", Long.class).orElse(30000L);
+        RoutedGameModeClient routedClient = new RoutedGameModeClient(mode, uri -> RestClientBuilder.newBuilder()
+                .baseUri(uri)
+                .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                .build(GameRestClient.class),
+                config.getOptionalValue("game-service.mode.%s.virtual-nodes".formatted(mode), Integer.class).orElse(128));
+        routedClient.updateMembers(members.get());
+        routedClients.put(mode, routedClient);
+        return routedClient;
+    }
+
+    /**
+     * @return instances of the mode, empty when the mode is reached through its rest client url only
+     */
+    private Optional<List<String>> members(String mode) {
+        String prefix = "game-service.mode.%s.".formatted(mode);
+        Optional<Path> membersFile = config.getOptionalValue(prefix + "members-file", Path.class);
+        if (membersFile.isPresent()) {
+            try {
+                List<String> members = new ArrayList<>();
+                for (String line : Files.readAllLines(membersFile.get())) {
+                    if (!line.isBlank() && !line.trim().startsWith("#")) {
+                        members.add(line.trim());
+                    }
+                }
+                return Optional.of(members);
+            } catch (IOException e) {
+                Log.errorf(e, "Unable to read instances of game mode [%s] from %s", mode, membersFile.get());
+                return Optional.empty();
+            }
+        }
+        return config.getOptionalValues(prefix + "members", String.class);
+    }
+
+    private GameModeClient local(String mode) {
+        Instance<GameService> gameService = localGameServices.select(Identifier.Literal.of(mode));
+        if (!gameService.isResolvable()) {
+            throw new IllegalStateException(
+                    "Game mode [%s] is configured to be dispatched locally, but it is not packaged with game-service"
+                            .formatted(mode));
+        }
+        return new LocalGameModeClient(gameService.get(), objectMapper);
+    }
+}
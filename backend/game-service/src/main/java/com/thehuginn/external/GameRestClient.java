@@ -1,7 +1,9 @@
 package com.thehuginn.external;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.thehuginn.entities.GameContext;
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
 import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -11,34 +13,39 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.jboss.resteasy.reactive.RestCookie;
-import org.jboss.resteasy.reactive.RestQuery;
 
 @Path("/game")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
+@RegisterProvider(ModeTransportFilter.class)
 public interface GameRestClient {
 
     @GET
-    Uni<JsonNode> getGame(@RestCookie String gameId);
+    Uni<GameState> getGame(@RestCookie String gameId);
 
     @POST
-    Uni<JsonNode> createGame(@RestCookie String gameId);
+    Uni<GameState> createGame(@RestCookie String gameId);
 
     @DELETE
     Uni<Boolean> deleteGame(@RestCookie String gameId);
 
     @PUT
     @Path("/start")
-    Uni<Boolean> startGame(@RestCookie String gameId, @RestQuery GameContext resolutionContext);
+    Uni<Boolean> startGame(@RestCookie String gameId, Roster roster);
 
-    @GET
+    @PUT
     @Path("/task/current")
-    Uni<JsonNode> currentTask(@RestCookie String gameId, @RestCookie String locale, @RestQuery GameContext resolutionContext);
+    Uni<RenderedTask> currentTask(@RestCookie String gameId, @RestCookie String locale, Roster roster);
 
     @PUT
     @Path("/task/next")
-    Uni<JsonNode> nextTask(@RestCookie String gameId, @RestCookie String locale, @RestQuery GameContext resolutionContext);
+    Uni<RenderedTask> nextTask(@RestCookie String gameId, @RestCookie String locale, Roster roster);
+
+    @PUT
+    @Path("/roster")
+    Uni<Boolean> changeRoster(@RestCookie String gameId, RosterChange rosterChange);
 
     @GET
     @Path("/require/team")
@@ -0,0 +1,119 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import io.smallrye.mutiny.CompositeException;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Isolates one game mode from the others. Each mode gets its own bulkhead capping the calls in
+ * flight, every call has a deadline, and side-effect free reads ({@code getGame} and {@code requiresTeam})
+ * are hedged: when no answer arrives within the hedge delay, a second call is issued and whichever answers
+ * first wins. {@code currentTask} is not hedged, the first call of a game deals its first task.
+ */
+public class GuardedGameModeClient implements GameModeClient {
+
+    private final String mode;
+    private final GameModeClient delegate;
+    private final Semaphore bulkhead;
+    private final Duration timeout;
+    private final Duration startTimeout;
+    private final Duration hedgeDelay;
+
+    public GuardedGameModeClient(String mode, GameModeClient delegate, int maxConcurrentCalls, Duration timeout,
+            Duration startTimeout, Duration hedgeDelay) {
+        this.mode = mode;
+        this.delegate = delegate;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.timeout = timeout;
+        this.startTimeout = startTimeout;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    @Override
+    public Uni<GameState> getGame(String gameId) {
+        return hedged(() -> delegate.getGame(gameId));
+    }
+
+    @Override
+    public Uni<GameState> createGame(String gameId) {
+        return guarded(() -> delegate.createGame(gameId), timeout);
+    }
+
+    @Override
+    public Uni<Boolean> deleteGame(String gameId) {
+        return guarded(() -> delegate.deleteGame(gameId), timeout);
+    }
+
+    @Override
+    public Uni<Boolean> startGame(String gameId, Roster roster) {
+        return guarded(() -> delegate.startGame(gameId, roster), startTimeout);
+    }
+
+    @Override
+    public Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster) {
+        return guarded(() -> delegate.currentTask(gameId, locale, roster), timeout);
+    }
+
+    @Override
+    public Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster) {
+        return guarded(() -> delegate.nextTask(gameId, locale, roster), timeout);
+    }
+
+    @Override
+    public Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange) {
+        return guarded(() -> delegate.changeRoster(gameId, rosterChange), timeout);
+    }
+
+    @Override
+    public Uni<Boolean> requiresTeam() {
+        return hedged(delegate::requiresTeam);
+    }
+
+    int availablePermits() {
+        return bulkhead.availablePermits();
+    }
+
+    private <T> Uni<T> hedged(Supplier<Uni<T>> call) {
+        if (hedgeDelay.isZero() || hedgeDelay.isNegative() || hedgeDelay.compareTo(timeout) >= 0) {
+            return guarded(call, timeout);
+        }
+
+        Uni<T> hedge = Uni.createFrom().voidItem()
+                .onItem().delayIt().by(hedgeDelay)
+                .chain(() -> guarded(call, timeout.minus(hedgeDelay)));
+        return Uni.join().first(guarded(call, timeout), hedge).withItem()
+                .onFailure(CompositeException.class)
+                .transform(failure -> ((CompositeException) failure).getCauses().get(0));
+    }
+
+    private <T> Uni<T> guarded(Supplier<Uni<T>> call, Duration deadline) {
+        return Uni.createFrom().deferred(() -> {
+            if (!bulkhead.tryAcquire()) {
+                return Uni.createFrom().failure(new WebApplicationException(
+                        "Too many concurrent calls to game mode [%s]".formatted(mode),
+                        RestResponse.StatusCode.SERVICE_UNAVAILABLE));
+            }
+            // a hedged call is cancelled by Uni.join() even after it answered, its permit is returned once
+            AtomicBoolean released = new AtomicBoolean();
+            return Uni.createFrom().deferred(() -> call.get())
+                    .ifNoItem().after(deadline).failWith(() -> new WebApplicationException(
+                            "Game mode [%s] did not answer within %s".formatted(mode, deadline),
+                            RestResponse.StatusCode.GATEWAY_TIMEOUT))
+                    .onTermination().invoke(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            bulkhead.release();
+                        }
+                    });
+        });
+    }
+}
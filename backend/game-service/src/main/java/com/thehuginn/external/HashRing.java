@@ -0,0 +1,80 @@
+package com.thehuginn.external;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring of named members, each placed on the ring as {@code virtualNodes} points.
+ * A key belongs to the first point clockwise from its hash, so adding or removing a member only moves
+ * the keys of that member's points.
+ * <p>
+ * The ring is replaced as a whole on {@link #update(Map)}, routing never blocks.
+ */
+public final class HashRing<T> {
+
+    private final int virtualNodes;
+    private volatile NavigableMap<Long, Map.Entry<String, T>> ring = Collections.emptyNavigableMap();
+
+    public HashRing(int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("At least one virtual node per member is required");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    public synchronized void update(Map<String, T> members) {
+        NavigableMap<Long, Map.Entry<String, T>> updated = new TreeMap<>();
+        members.forEach((name, member) -> {
+            for (int node = 0; node < virtualNodes; node++) {
+                // on the rare collision the lexicographically smaller member keeps the point
+                updated.merge(hash(name + "#" + node), Map.entry(name, member),
+                        (current, candidate) -> current.getKey().compareTo(candidate.getKey()) <= 0 ? current : candidate);
+            }
+        });
+        ring = Collections.unmodifiableNavigableMap(updated);
+    }
+
+    /**
+     * @return member owning {@code key} or null for an empty ring
+     */
+    public T route(String key) {
+        Map.Entry<String, T> owner = owner(key);
+        return owner != null ? owner.getValue() : null;
+    }
+
+    /**
+     * @return name of the member owning {@code key} or null for an empty ring
+     */
+    public String memberOf(String key) {
+        Map.Entry<String, T> owner = owner(key);
+        return owner != null ? owner.getKey() : null;
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    private Map.Entry<String, T> owner(String key) {
+        NavigableMap<Long, Map.Entry<String, T>> current = ring;
+        if (current.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, Map.Entry<String, T>> point = current.ceilingEntry(hash(key));
+        return (point != null ? point : current.firstEntry()).getValue();
+    }
+
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is required to be supported by every JVM", e);
+        }
+    }
+}
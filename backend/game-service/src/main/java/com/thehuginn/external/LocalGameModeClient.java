@@ -0,0 +1,68 @@
+package com.thehuginn.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thehuginn.common.services.exposed.GameService;
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Dispatches calls to a game mode packaged into the same application. Tasks and rosters are handed over
+ * as they are, the state of a game is converted without being written out and parsed back.
+ */
+public class LocalGameModeClient implements GameModeClient {
+
+    private final GameService gameService;
+    private final ObjectMapper objectMapper;
+
+    public LocalGameModeClient(GameService gameService, ObjectMapper objectMapper) {
+        this.gameService = gameService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Uni<GameState> getGame(String gameId) {
+        return gameService.getGame(gameId).map(this::toGameState);
+    }
+
+    @Override
+    public Uni<GameState> createGame(String gameId) {
+        return gameService.createGame(gameId).map(this::toGameState);
+    }
+
+    @Override
+    public Uni<Boolean> deleteGame(String gameId) {
+        return gameService.deleteGame(gameId);
+    }
+
+    @Override
+    public Uni<Boolean> startGame(String gameId, Roster roster) {
+        return gameService.startGame(gameId, roster);
+    }
+
+    @Override
+    public Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster) {
+        return gameService.currentTask(gameId, locale, roster);
+    }
+
+    @Override
+    public Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster) {
+        return gameService.nextTask(gameId, locale, roster);
+    }
+
+    @Override
+    public Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange) {
+        return gameService.changeRoster(gameId, rosterChange);
+    }
+
+    @Override
+    public Uni<Boolean> requiresTeam() {
+        return gameService.requiresTeam();
+    }
+
+    private GameState toGameState(Object value) {
+        return value != null ? objectMapper.convertValue(value, GameState.class) : null;
+    }
+}
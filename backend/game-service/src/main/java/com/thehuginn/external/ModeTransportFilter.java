@@ -0,0 +1,46 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.transport.CborMessageBodyHandler;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * Selects the encoding of the calls to the game modes, configured by {@code game-service.mode.transport}.
+ * With {@code cbor} request bodies are sent in CBOR and the modes answer in CBOR, which is decoded straight
+ * into the same typed messages the proxy would get from JSON, so the REST contract towards the frontend
+ * does not change.
+ */
+public class ModeTransportFilter implements ClientRequestFilter {
+
+    public enum Transport {
+        JSON,
+        CBOR
+    }
+
+    private final Transport transport;
+
+    public ModeTransportFilter() {
+        this(ConfigProvider.getConfig()
+                .getOptionalValue("game-service.mode.transport", Transport.class)
+                .orElse(Transport.JSON));
+    }
+
+    ModeTransportFilter(Transport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (transport == Transport.CBOR) {
+            requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT,
+                    CborMessageBodyHandler.APPLICATION_CBOR + ", " + MediaType.APPLICATION_JSON + ";q=0.5");
+            if (requestContext.hasEntity()) {
+                requestContext.setEntity(requestContext.getEntity(), requestContext.getEntityAnnotations(),
+                        CborMessageBodyHandler.APPLICATION_CBOR_TYPE);
+            }
+        }
+    }
+}
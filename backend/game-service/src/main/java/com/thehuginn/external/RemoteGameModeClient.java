@@ -0,0 +1,56 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import io.smallrye.mutiny.Uni;
+
+public class RemoteGameModeClient implements GameModeClient {
+
+    private final GameRestClient restClient;
+
+    public RemoteGameModeClient(GameRestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    @Override
+    public Uni<GameState> getGame(String gameId) {
+        return restClient.getGame(gameId);
+    }
+
+    @Override
+    public Uni<GameState> createGame(String gameId) {
+        return restClient.createGame(gameId);
+    }
+
+    @Override
+    public Uni<Boolean> deleteGame(String gameId) {
+        return restClient.deleteGame(gameId);
+    }
+
+    @Override
+    public Uni<Boolean> startGame(String gameId, Roster roster) {
+        return restClient.startGame(gameId, roster);
+    }
+
+    @Override
+    public Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster) {
+        return restClient.currentTask(gameId, locale, roster);
+    }
+
+    @Override
+    public Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster) {
+        return restClient.nextTask(gameId, locale, roster);
+    }
+
+    @Override
+    public Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange) {
+        return restClient.changeRoster(gameId, rosterChange);
+    }
+
+    @Override
+    public Uni<Boolean> requiresTeam() {
+        return restClient.requiresTeam();
+    }
+}
@@ -0,0 +1,132 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sends every request of a game to the same instance of a game mode, so instances may keep per-game
+ * state in memory. Instances are members of a {@link HashRing} keyed by gameId.
+ */
+public class RoutedGameModeClient implements GameModeClient {
+
+    private final String mode;
+    private final Function<URI, GameRestClient> clientFactory;
+    private final HashRing<GameRestClient> ring;
+    private volatile Map<String, GameRestClient> members = Map.of();
+
+    public RoutedGameModeClient(String mode, Function<URI, GameRestClient> clientFactory, int virtualNodes) {
+        this.mode = mode;
+        this.clientFactory = clientFactory;
+        this.ring = new HashRing<>(virtualNodes);
+    }
+
+    /**
+     * Replaces the instances of the game mode, clients of instances which remain are reused.
+     *
+     * @param urls base urls of the instances
+     */
+    public synchronized void updateMembers(Collection<String> urls) {
+        Map<String, GameRestClient> current = members;
+        Map<String, GameRestClient> updated = new LinkedHashMap<>();
+        for (String url : urls) {
+            String member = url.trim();
+            if (!member.isEmpty()) {
+                GameRestClient client = current.get(member);
+                updated.put(member, client != null ? client : clientFactory.apply(URI.create(member)));
+            }
+        }
+        if (updated.keySet().equals(current.keySet())) {
+            return;
+        }
+
+        ring.update(updated);
+        members = updated;
+        Map<String, GameRestClient> removed = new HashMap<>(current);
+        removed.keySet().removeAll(updated.keySet());
+        removed.values().forEach(RoutedGameModeClient::close);
+        Log.infof("Game mode [%s] is routed to %s", mode, updated.keySet());
+    }
+
+    public Collection<String> members() {
+        return members.keySet();
+    }
+
+    public String memberOf(String gameId) {
+        return ring.memberOf(gameId);
+    }
+
+    @Override
+    public Uni<GameState> getGame(String gameId) {
+        return Uni.createFrom().deferred(() -> route(gameId).getGame(gameId));
+    }
+
+    @Override
+    public Uni<GameState> createGame(String gameId) {
+        return Uni.createFrom().deferred(() -> route(gameId).createGame(gameId));
+    }
+
+    @Override
+    public Uni<Boolean> deleteGame(String gameId) {
+        return Uni.createFrom().deferred(() -> route(gameId).deleteGame(gameId));
+    }
+
+    @Override
+    public Uni<Boolean> startGame(String gameId, Roster roster) {
+        return Uni.createFrom().deferred(() -> route(gameId).startGame(gameId, roster));
+    }
+
+    @Override
+    public Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster) {
+        return Uni.createFrom().deferred(() -> route(gameId).currentTask(gameId, locale, roster));
+    }
+
+    @Override
+    public Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster) {
+        return Uni.createFrom().deferred(() -> route(gameId).nextTask(gameId, locale, roster));
+    }
+
+    @Override
+    public Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange) {
+        return Uni.createFrom().deferred(() -> route(gameId).changeRoster(gameId, rosterChange));
+    }
+
+    /**
+     * Not bound to a game, answered by any instance.
+     */
+    @Override
+    public Uni<Boolean> requiresTeam() {
+        return Uni.createFrom().deferred(() -> route(mode).requiresTeam());
+    }
+
+    private GameRestClient route(String gameId) {
+        GameRestClient client = ring.route(gameId);
+        if (client == null) {
+            throw new WebApplicationException("No instance of game mode %s is available".formatted(mode),
+                    Response.Status.SERVICE_UNAVAILABLE);
+        }
+        return client;
+    }
+
+    private static void close(GameRestClient client) {
+        if (client instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                Log.debugf(e, "Unable to close client of a removed instance");
+            }
+        }
+    }
+}
@@ -1,29 +1,37 @@
 package com.thehuginn.periodic;
 
+import com.thehuginn.cache.GameCache;
 import com.thehuginn.entities.Game;
-import com.thehuginn.external.GameRestClientPub;
-import com.thehuginn.external.GameRestClientTask;
+import com.thehuginn.external.GameModeClients;
 import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
 import io.quarkus.logging.Log;
 import io.quarkus.panache.common.Parameters;
 import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class GamePurgeScheduler {
 
-    @RestClient
-    GameRestClientTask restClientTask;
+    @Inject
+    GameModeClients gameModeClients;
 
-    @RestClient
-    GameRestClientPub restClientPub;
+    @Inject
+    GameCache gameCache;
+
+    /**
+     * Calls to the game modes in flight while purging, kept well below the bulkhead of a mode so that running
+     * games keep their permits
+     */
+    @ConfigProperty(name = "game-service.purge.concurrency", defaultValue = "8")
+    int purgeConcurrency;
 
     @WithTransaction
     @Scheduled(every = "1h")
@@ -37,22 +45,32 @@ public class GamePurgeScheduler {
                 }).replaceWithVoid();
         return Game.<Game> find(query, queryParameters)
                 .list().onItem().transformToUni(games -> {
-                    List<Uni<Boolean>> deletionCallbacks = games.stream().<Uni<Boolean>> map(game -> switch (game.type) {
-                        case TASK -> restClientTask.deleteGame(game.gameId);
-                        case PUB -> restClientPub.deleteGame(game.gameId);
-                        case NONE -> {
-                            Log.errorf("Unable to determine game type for game %s", game.gameId);
-                            yield Uni.createFrom().item(Boolean.FALSE);
-                        }
-                    }).collect(Collectors.toList());
-
-                    if (deletionCallbacks.isEmpty()) {
-                        return Uni.createFrom().voidItem();
-                    }
-                    return Uni.combine().all().unis(deletionCallbacks).discardItems();
-                }).call(deleteGames::get)
-                .invoke(deletedEntries -> {
-                    Log.infof("Deleted %s number of games");
-                });
+                    games.forEach(game -> gameCache.invalidate(game.gameId));
+                    return Multi.createFrom().iterable(games)
+                            .onItem().transformToUni(this::deleteModeGame).merge(purgeConcurrency)
+                            .filter(Boolean.TRUE::equals)
+                            .collect().with(Collectors.counting());
+                })
+                .invoke(deletedEntries -> Log.infof("Game modes deleted their games [%d]", deletedEntries))
+                .call(deleteGames::get)
+                .replaceWithVoid();
+    }
+
+    /**
+     * A game its mode fails to delete is purged here all the same, one failing mode must not keep every other
+     * stale game alive.
+     */
+    private Uni<Boolean> deleteModeGame(Game game) {
+        return switch (game.type) {
+            case TASK, PUB -> gameModeClients.forType(game.type).deleteGame(game.gameId)
+                    .onFailure().recoverWithItem(failure -> {
+                        Log.warnf(failure, "Game mode [%s] was unable to delete game %s", game.type, game.gameId);
+                        return Boolean.FALSE;
+                    });
+            case NONE -> {
+                Log.errorf("Unable to determine game type for game %s", game.gameId);
+                yield Uni.createFrom().item(Boolean.FALSE);
+            }
+        };
     }
 }
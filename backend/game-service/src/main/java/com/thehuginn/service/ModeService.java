@@ -1,13 +1,16 @@
 package com.thehuginn.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.thehuginn.cache.GameCache;
+import com.thehuginn.cache.GameSnapshot;
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.tracing.Tracing;
 import com.thehuginn.entities.Game;
-import com.thehuginn.external.GameRestClientPub;
-import com.thehuginn.external.GameRestClientTask;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import com.thehuginn.external.GameModeClients;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
@@ -17,10 +20,10 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.RestCookie;
 import org.jboss.resteasy.reactive.RestPath;
 
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 @Path("/mode")
@@ -29,94 +32,102 @@ import java.util.function.Function;
 @RequestScoped
 public class ModeService {
 
-    @RestClient
-    GameRestClientTask taskRestClient;
+    @Inject
+    GameModeClients gameModeClients;
 
-    @RestClient
-    GameRestClientPub pubRestClient;
+    @Inject
+    GameCache gameCache;
 
     @GET
     @Path("/exists")
-    public Uni<JsonNode> getGame(@RestCookie String gameId) {
-        return callbackUni(gameId, game -> switch (game.type) {
-            case TASK -> taskRestClient.getGame(gameId);
-            case PUB -> pubRestClient.getGame(gameId);
+    public Uni<GameState> getGame(@RestCookie String gameId) {
+        return callbackUni("ModeService.getGame", gameId, game -> switch (game.type) {
+            case TASK, PUB -> gameModeClients.forType(game.type).getGame(gameId);
             case NONE -> Uni.createFrom().nullItem();
-        });
+        }, GameState::withType);
     }
 
     @DELETE
     @Path("/delete")
     public Uni<Boolean> deleteGameMode(@RestCookie String gameId) {
-        return Game.<Game> findByIdUpdateTimestamp(gameId)
+        return gameCache.find(gameId)
                 .onItem().ifNotNull().transformToUni(game -> switch (game.type) {
-                    case TASK -> taskRestClient.deleteGame(gameId);
-                    case PUB -> pubRestClient.deleteGame(gameId);
+                    case TASK, PUB -> gameModeClients.forType(game.type).deleteGame(gameId);
                     case NONE -> Uni.createFrom().nullItem();
                 });
     }
 
+    /**
+     * The snapshot of the game is written through the cache once the type is committed, a mode failing to create
+     * its game rolls the type back before it reaches the cache.
+     */
     @POST
     @Path("/create/{type}")
-    @WithTransaction
-    public Uni<JsonNode> createGameMode(@RestCookie String gameId, @RestPath Game.Type type) {
-        return callbackUni(gameId, game -> {
-            game.type = type;
-            return game.<Game> persist()
-                    .<JsonNode> chain(game1 -> switch (game1.type) {
-                        case TASK -> taskRestClient.createGame(gameId);
-                        case PUB -> pubRestClient.createGame(gameId);
-                        case NONE -> Uni.createFrom().nullItem();
-                    });
-        });
+    public Uni<GameState> createGameMode(@RestCookie String gameId, @RestPath Game.Type type) {
+        return gameCache.writeThrough(gameId, () -> Panache.withTransaction(() -> Game.<Game> findByIdUpdateTimestamp(gameId)
+                .onItem().ifNotNull().transformToUni(game -> {
+                    game.type = type;
+                    return game.<Game> persist()
+                            .<GameState> chain(game1 -> switch (game1.type) {
+                                case TASK, PUB -> gameModeClients.forType(game1.type).createGame(gameId);
+                                case NONE -> Uni.createFrom().nullItem();
+                            })
+                            .onItem().ifNotNull().transform(gameState -> gameState.withType(type.toString()))
+                            .map(gameState -> new ModeCreated(game, gameState));
+                })), ModeCreated::game)
+                .onItem().ifNotNull().transform(ModeCreated::mode);
+    }
+
+    private record ModeCreated(Game game, GameState mode) {
     }
 
     @PUT
     @Path("/start")
     public Uni<Boolean> startGame(@RestCookie String gameId) {
-        return Game.<Game> findByIdUpdateTimestamp(gameId)
+        return Tracing.span("ModeService.startGame", gameId, () -> gameCache.find(gameId)
                 .onItem().ifNotNull().transformToUni(game1 -> switch (game1.type) {
-                    case TASK -> taskRestClient.startGame(gameId, game1.gameContext());
-                    case PUB -> pubRestClient.startGame(gameId, game1.gameContext());
+                    case TASK, PUB -> gameModeClients.forType(game1.type).startGame(gameId, game1.roster());
                     case NONE -> Uni.createFrom().item(Boolean.FALSE);
                 })
-                .onItem().ifNull().continueWith(Boolean.FALSE);
+                .onItem().ifNull().continueWith(Boolean.FALSE));
     }
 
     @GET
     @Path("/current")
-    public Uni<JsonNode> currentTask(@RestCookie String gameId, @RestCookie @DefaultValue("en") String locale) {
-        return callbackUni(gameId, game1 -> switch (game1.type) {
-            case TASK -> taskRestClient.currentTask(gameId, locale, game1.gameContext());
-            case PUB -> pubRestClient.currentTask(gameId, locale, game1.gameContext());
+    public Uni<RenderedTask> currentTask(@RestCookie String gameId, @RestCookie @DefaultValue("en") String locale) {
+        return callbackUni("ModeService.currentTask", gameId, game1 -> switch (game1.type) {
+            case TASK, PUB -> gameModeClients.forType(game1.type).currentTask(gameId, locale, game1.roster());
             case NONE -> Uni.createFrom().nullItem();
-        });
+        }, RenderedTask::withType);
     }
 
     @PUT
     @Path("/next")
-    public Uni<JsonNode> nextTask(@RestCookie String gameId, @RestCookie @DefaultValue("en") String locale) {
-        return callbackUni(gameId, game1 -> switch (game1.type) {
-            case TASK -> taskRestClient.nextTask(gameId, locale, game1.gameContext());
-            case PUB -> pubRestClient.nextTask(gameId, locale, game1.gameContext());
+    public Uni<RenderedTask> nextTask(@RestCookie String gameId, @RestCookie @DefaultValue("en") String locale) {
+        return callbackUni("ModeService.nextTask", gameId, game1 -> switch (game1.type) {
+            case TASK, PUB -> gameModeClients.forType(game1.type).nextTask(gameId, locale, game1.roster());
             case NONE -> Uni.createFrom().nullItem();
-        });
+        }, RenderedTask::withType);
     }
 
     @GET
     @Path("/require/team")
     public Uni<Boolean> requiresTeam(@RestCookie String gameId) {
-        return Game.<Game> findByIdUpdateTimestamp(gameId)
+        return gameCache.find(gameId)
                 .onItem().ifNotNull().transformToUni(game1 -> switch (game1.type) {
-                    case TASK -> taskRestClient.requiresTeam();
-                    case PUB -> pubRestClient.requiresTeam();
+                    case TASK, PUB -> gameModeClients.forType(game1.type).requiresTeam();
                     case NONE -> Uni.createFrom().nullItem();
                 });
     }
 
-    private Uni<JsonNode> callbackUni(String gameId, Function<Game, Uni<JsonNode>> callback) {
-        return Game.findByIdUpdateTimestamp(gameId)
+    /**
+     * The span covers the lookup of the game and the call of its mode, whose client span is its child. The answer
+     * of the mode is handed to the frontend with the type of the game.
+     */
+    private <T> Uni<T> callbackUni(String spanName, String gameId, Function<GameSnapshot, Uni<T>> callback,
+            BiFunction<T, String, T> withType) {
+        return Tracing.span(spanName, gameId, () -> gameCache.find(gameId)
                 .onItem().ifNotNull().transformToUni(game -> callback.apply(game)
-                        .invoke(jsonNode -> ((ObjectNode) jsonNode).put("type", game.type.toString())));
+                        .onItem().ifNotNull().transform(answer -> withType.apply(answer, game.type.toString()))));
     }
 }
@@ -1,9 +1,14 @@
 package com.thehuginn.service;
 
+import com.thehuginn.cache.GameCache;
+import com.thehuginn.common.services.exposed.RosterChange;
 import com.thehuginn.entities.Game;
 import com.thehuginn.entities.Player;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import com.thehuginn.external.GameModeClients;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
@@ -15,6 +20,12 @@ import java.util.List;
 @Path("/")
 public class PlayerService {
 
+    @Inject
+    GameCache gameCache;
+
+    @Inject
+    GameModeClients gameModeClients;
+
     @GET
     @Path("/team")
     public Uni<List<Player>> getTeam(@RestCookie String gameId) {
@@ -29,21 +40,51 @@ public class PlayerService {
 
     @POST
     @Path("/player")
-    @WithTransaction
     public Uni<Player> addPlayer(@RestCookie String gameId, Player newPlayer) {
-        return Game.<Game> findById(gameId)
+        return gameCache.writeThrough(gameId, () -> Panache.withTransaction(() -> Game.<Game> findById(gameId)
                 .onItem()
                 .ifNotNull()
-                .transform(game -> game.addPlayer(newPlayer));
+                .transform(game -> {
+                    List<String> previous = game.roster().players();
+                    return new TeamChange<>(game, previous, game.addPlayer(newPlayer));
+                })), TeamChange::game)
+                .onItem()
+                .ifNotNull()
+                .transformToUni(this::committed);
     }
 
     @DELETE
     @Path("/player")
-    @WithTransaction
     public Uni<Boolean> removePlayer(@RestCookie String gameId, Long playerId) {
-        return Game.<Game> findById(gameId)
+        return gameCache.writeThrough(gameId, () -> Panache.withTransaction(() -> Game.<Game> findById(gameId)
                 .onItem()
-                .transform(game -> game.removePlayer(playerId));
+                .transform(game -> {
+                    List<String> previous = game.roster().players();
+                    return new TeamChange<>(game, previous, game.removePlayer(playerId));
+                })), TeamChange::game)
+                .onItem()
+                .transformToUni(this::committed);
+    }
+
+    /**
+     * The changed team was written through the cache once it was committed, a rolled back change never reaches it.
+     * The game mode follows the team afterwards, a mode failing to do so keeps playing with its previous deck.
+     */
+    private <T> Uni<T> committed(TeamChange<T> change) {
+        Game game = change.game();
+        List<String> players = game.roster().players();
+        if (players.equals(change.previous()) || game.type == null || game.type == Game.Type.NONE) {
+            return Uni.createFrom().item(change.result());
+        }
+
+        return gameModeClients.forType(game.type)
+                .changeRoster(game.gameId, new RosterChange(change.previous(), players))
+                .onFailure().invoke(failure -> Log.warnf(failure, "Game mode [%s] of game %s did not follow its team",
+                        game.type, game.gameId))
+                .onFailure().recoverWithNull()
+                .replaceWith(change.result());
+    }
 
+    private record TeamChange<T>(Game game, List<String> previous, T result) {
     }
 }
@@ -0,0 +1,35 @@
+-- baseline of the game-service schema, every later change of an entity gets a migration of its own
+
+create sequence Player_SEQ start with 1 increment by 50;
+
+create table Game (
+    gameId varchar(255) not null,
+    lastAccess timestamp(6),
+    state smallint check (state between 0 and 6),
+    type smallint check (type between 0 and 2),
+    primary key (gameId)
+);
+
+create table Game_Player (
+    Game_gameId varchar(255) not null,
+    team_id bigint not null unique
+);
+
+create table Player (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create index game_lastaccess_idx
+   on Game (lastAccess);
+
+alter table if exists Game_Player
+   add constraint FKkf6kao3jn7in21xu6dm2sp3md
+   foreign key (team_id)
+   references Player;
+
+alter table if exists Game_Player
+   add constraint FKgefbsflah4ry625eryut6ly6h
+   foreign key (Game_gameId)
+   references Game;
@@ -1,20 +1,29 @@
 package com.thehuginn;
 
+import com.thehuginn.common.services.exposed.RosterChange;
 import com.thehuginn.entities.Player;
+import com.thehuginn.external.GameRestClientTask;
 import com.thehuginn.service.GameService;
 import com.thehuginn.service.PlayerService;
 import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.vertx.RunOnVertxContext;
 import io.quarkus.test.vertx.UniAsserter;
 import io.restassured.http.ContentType;
 import io.restassured.http.Cookie;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
@@ -31,12 +40,18 @@ public class TestPlayerService extends AbstractTest {
     @Inject
     PlayerService playerService;
 
+    @InjectMock
+    @RestClient
+    GameRestClientTask gameRestClientTask;
+
     @BeforeEach
     @AfterEach
     @RunOnVertxContext
     void setup(UniAsserter asserter) {
         super.setup(asserter);
         asserter.execute(() -> gameService.createGame(ID));
+        Mockito.when(gameRestClientTask.changeRoster(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.TRUE));
     }
 
     @Test
@@ -52,6 +67,8 @@ public class TestPlayerService extends AbstractTest {
                     .statusCode(RestResponse.StatusCode.OK)
                     .body("name", is("Player"));
         });
+        asserter.execute(() -> Mockito.verify(gameRestClientTask)
+                .changeRoster(ID, new RosterChange(List.of(), List.of("Player"))));
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
@@ -73,6 +90,9 @@ public class TestPlayerService extends AbstractTest {
                     .then()
                     .statusCode(RestResponse.StatusCode.NO_CONTENT);
         });
+        // the team did not change, the game mode is told once
+        asserter.execute(() -> Mockito.verify(gameRestClientTask, Mockito.times(1))
+                .changeRoster(ArgumentMatchers.anyString(), ArgumentMatchers.any()));
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
@@ -98,6 +118,8 @@ public class TestPlayerService extends AbstractTest {
         });
 
         asserter.assertThat(() -> playerService.getTeam(ID), players -> Assertions.assertTrue(players.isEmpty()));
+        asserter.execute(() -> Mockito.verify(gameRestClientTask)
+                .changeRoster(ID, new RosterChange(List.of("Player"), List.of())));
 
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
@@ -0,0 +1,43 @@
+package com.thehuginn;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+import java.util.Map;
+
+/**
+ * Boots like prod, the migrations create the schema of an empty database and hibernate validates it against the
+ * entities, so an entity changed without a migration fails here. The pub mode packaged with {@code -Pcolocate-pub}
+ * brings entities these migrations do not cover.
+ */
+@QuarkusTest
+@TestProfile(TestSchemaMigrations.Migrated.class)
+@DisabledIf("com.thehuginn.external.TestColocatedPubMode#pubModePackaged")
+public class TestSchemaMigrations {
+
+    public static class Migrated implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.hibernate-orm.database.generation", "validate",
+                    "quarkus.hibernate-orm.sql-load-script", "no-file",
+                    "quarkus.flyway.clean-at-start", "true",
+                    "quarkus.flyway.migrate-at-start", "true");
+        }
+    }
+
+    @Inject
+    Flyway flyway;
+
+    @Test
+    void testMigrationsApply() {
+        Assertions.assertEquals(1, flyway.info().applied().length);
+        Assertions.assertEquals(0, flyway.info().pending().length);
+    }
+}
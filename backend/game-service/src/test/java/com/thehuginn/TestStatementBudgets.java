@@ -0,0 +1,121 @@
+package com.thehuginn;
+
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.profiling.SqlProfilerFilter;
+import com.thehuginn.external.GameRestClientTask;
+import com.thehuginn.service.GameService;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.ContentType;
+import io.restassured.http.Cookie;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Holds the team and {@code /mode/*} endpoints to a budget of statements and loaded rows, read from the headers
+ * of the SQL profiler. The task mode is mocked, a turn may cost at most the touch of the game in the database.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class TestStatementBudgets extends AbstractTest {
+
+    private static final String ID = "foo";
+    private static final int PLAYER_COUNT = 6;
+    private static final int TURNS = 10;
+
+    @Inject
+    GameService gameService;
+
+    @InjectMock
+    @RestClient
+    GameRestClientTask gameRestClientTask;
+
+    @BeforeEach
+    void setup(UniAsserter asserter) {
+        super.setup(asserter);
+        asserter.execute(() -> gameService.createGame(ID));
+        Mockito.when(gameRestClientTask.createGame(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new GameState()));
+        Mockito.when(gameRestClientTask.getGame(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new GameState()));
+        Mockito.when(gameRestClientTask.startGame(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.TRUE));
+        Mockito.when(gameRestClientTask.currentTask(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new RenderedTask(Map.of())));
+        Mockito.when(gameRestClientTask.changeRoster(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.TRUE));
+        Mockito.when(gameRestClientTask.nextTask(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new RenderedTask(Map.of())));
+    }
+
+    @Test
+    void testGameStaysWithinItsBudget(UniAsserter asserter) {
+        asserter.execute(() -> {
+            for (int i = 0; i < PLAYER_COUNT; i++) {
+                String body = "{\"name\": \"Player %d\"}".formatted(i);
+                assertBudget("POST /player", 5, PLAYER_COUNT + 2, () -> game()
+                        .contentType(ContentType.JSON)
+                        .body(body)
+                        .post("/player"));
+            }
+            assertBudget("GET /team", 2, PLAYER_COUNT + 1, () -> game()
+                    .accept(ContentType.JSON)
+                    .get("/team"));
+            assertBudget("POST /mode/create", 4, PLAYER_COUNT + 1, () -> game().post("/mode/create/TASK"));
+
+            assertBudget("PUT /mode/start", 1, 0, () -> game().put("/mode/start"));
+            for (int i = 0; i < TURNS; i++) {
+                assertBudget("GET /mode/current", 1, 0, () -> game().get("/mode/current"));
+                assertBudget("PUT /mode/next", 1, 0, () -> game().put("/mode/next"));
+                assertBudget("GET /mode/exists", 1, 0, () -> game().get("/mode/exists"));
+            }
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private static void assertBudget(String endpoint, long statements, long rows, Supplier<Response> call) {
+        Response response = call.get();
+        Assertions.assertTrue(response.statusCode() < 300,
+                () -> "%s answered %d".formatted(endpoint, response.statusCode()));
+        long issued = measured(response, SqlProfilerFilter.STATEMENTS_HEADER);
+        Assertions.assertTrue(issued <= statements,
+                () -> "%s issued %d statements, its budget is %d".formatted(endpoint, issued, statements));
+        long loaded = measured(response, SqlProfilerFilter.ROWS_HEADER);
+        Assertions.assertTrue(loaded <= rows,
+                () -> "%s loaded %d rows, its budget is %d".formatted(endpoint, loaded, rows));
+    }
+
+    /**
+     * The profiler leaves out its headers when the request issued no statement.
+     */
+    private static long measured(Response response, String header) {
+        String value = response.header(header);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static RequestSpecification game() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", ID).build())
+                .when();
+    }
+}
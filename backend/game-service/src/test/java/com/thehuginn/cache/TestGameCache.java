@@ -0,0 +1,139 @@
+package com.thehuginn.cache;
+
+import com.thehuginn.entities.Game;
+import com.thehuginn.entities.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+public class TestGameCache {
+
+    private GameCache gameCache;
+
+    @BeforeEach
+    void setup() {
+        gameCache = new GameCache();
+        gameCache.maxEntries = 2;
+        gameCache.ttl = Duration.ofMinutes(10);
+        gameCache.touchInterval = Duration.ofMinutes(1);
+    }
+
+    @Test
+    void testSnapshotIsImmutable() {
+        Game game = createGame("foo", "Player1", "Player2");
+        gameCache.put(game);
+        game.team.clear();
+        game.type = Game.Type.PUB;
+
+        GameSnapshot snapshot = gameCache.getIfPresent("foo");
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(Game.Type.TASK, snapshot.type);
+        Assertions.assertEquals(List.of("Player1", "Player2"), snapshot.players);
+        Assertions.assertEquals(List.of("Player1", "Player2"), snapshot.roster().players());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.players.add("Player3"));
+    }
+
+    @Test
+    void testWriteThrough() {
+        Game game = createGame("foo", "Player1");
+        gameCache.put(game);
+        game.addPlayer(createPlayer("Player2"));
+        gameCache.put(game);
+
+        Assertions.assertEquals(List.of("Player1", "Player2"), gameCache.getIfPresent("foo").players);
+        gameCache.invalidate("foo");
+        Assertions.assertNull(gameCache.getIfPresent("foo"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        gameCache.put(createGame("foo"));
+        gameCache.put(createGame("bar"));
+        Assertions.assertNotNull(gameCache.getIfPresent("foo"));
+        gameCache.put(createGame("baz"));
+
+        Assertions.assertEquals(2, gameCache.size());
+        Assertions.assertNotNull(gameCache.getIfPresent("foo"));
+        Assertions.assertNull(gameCache.getIfPresent("bar"));
+        Assertions.assertNotNull(gameCache.getIfPresent("baz"));
+    }
+
+    @Test
+    void testExpiration() {
+        gameCache.ttl = Duration.ZERO;
+        gameCache.put(createGame("foo"));
+
+        Assertions.assertNull(gameCache.getIfPresent("foo"));
+        Assertions.assertEquals(0, gameCache.size());
+    }
+
+    @Test
+    void testWriteAloneIsWrittenThrough() {
+        long write = gameCache.startWrite("foo");
+        gameCache.finishWrite("foo", write, createGame("foo", "Player1"));
+
+        Assertions.assertEquals(List.of("Player1"), gameCache.getIfPresent("foo").players);
+    }
+
+    @Test
+    void testOverlappingWritesDropTheEntry() {
+        gameCache.put(createGame("foo"));
+        long first = gameCache.startWrite("foo");
+        long second = gameCache.startWrite("foo");
+
+        // the snapshot of the later commit arrives first, neither of them may stay cached
+        gameCache.finishWrite("foo", second, createGame("foo", "Player1", "Player2"));
+        gameCache.finishWrite("foo", first, createGame("foo", "Player1"));
+        Assertions.assertNull(gameCache.getIfPresent("foo"));
+
+        long next = gameCache.startWrite("foo");
+        gameCache.finishWrite("foo", next, createGame("foo", "Player1", "Player2"));
+        Assertions.assertEquals(List.of("Player1", "Player2"), gameCache.getIfPresent("foo").players);
+    }
+
+    @Test
+    void testFailedWriteDropsTheEntry() {
+        gameCache.put(createGame("foo", "Player1"));
+        long write = gameCache.startWrite("foo");
+        gameCache.finishWrite("foo", write, null);
+
+        Assertions.assertNull(gameCache.getIfPresent("foo"));
+    }
+
+    @Test
+    void testLoadOlderThanWriteIsNotCached() {
+        long loadedAt = gameCache.generation();
+        long write = gameCache.startWrite("foo");
+        gameCache.finishWrite("foo", write, createGame("foo", "Player1", "Player2"));
+
+        // loaded before the write committed, the written snapshot stays
+        gameCache.putIfCurrent(createGame("foo", "Player1"), loadedAt);
+        Assertions.assertEquals(List.of("Player1", "Player2"), gameCache.getIfPresent("foo").players);
+    }
+
+    @Test
+    void testLoadDuringWriteIsNotCached() {
+        long loadedAt = gameCache.generation();
+        gameCache.startWrite("foo");
+
+        gameCache.putIfCurrent(createGame("foo", "Player1"), loadedAt);
+        Assertions.assertNull(gameCache.getIfPresent("foo"));
+    }
+
+    private static Game createGame(String gameId, String... players) {
+        Game game = new Game(gameId);
+        for (String player : players) {
+            game.addPlayer(createPlayer(player));
+        }
+        return game;
+    }
+
+    private static Player createPlayer(String name) {
+        Player player = new Player();
+        player.name = name;
+        return player;
+    }
+}
@@ -0,0 +1,141 @@
+package com.thehuginn.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import com.thehuginn.common.services.exposed.transport.CborMessageBodyHandler;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a game mode which speaks CBOR only and checks that a game, a task, the roster and a roster change make the
+ * round trip through {@link GameRestClient} with the CBOR transport, in both directions.
+ */
+@QuarkusTest
+public class TestCborModeClient {
+
+    private static final String GAME = "foo";
+    private static final List<String> PLAYERS = List.of("Player1", "Player2");
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Inject
+    Vertx vertx;
+
+    private HttpServer server;
+    private GameRestClient client;
+    private final Map<String, JsonNode> receivedBodies = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void startMode() throws Exception {
+        server = vertx.createHttpServer()
+                .requestHandler(request -> request.body().onSuccess(body -> {
+                    try {
+                        answer(request, body);
+                    } catch (IOException e) {
+                        request.response().setStatusCode(500).end();
+                    }
+                }))
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        client = RestClientBuilder.newBuilder()
+                .baseUri(URI.create("http://localhost:" + server.actualPort()))
+                .register(new ModeTransportFilter(ModeTransportFilter.Transport.CBOR))
+                .build(GameRestClient.class);
+    }
+
+    @AfterEach
+    void stopMode() throws Exception {
+        server.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testGameAndTaskRoundTrip() {
+        Assertions.assertEquals(game(), objectMapper.valueToTree(client.getGame(GAME).await().atMost(TIMEOUT)));
+        Assertions.assertEquals(task(), objectMapper.valueToTree(
+                client.nextTask(GAME, "en", new Roster(PLAYERS)).await().atMost(TIMEOUT)));
+    }
+
+    @Test
+    void testRequestBodyIsCbor() {
+        RosterChange rosterChange = new RosterChange(PLAYERS.subList(0, 1), PLAYERS);
+
+        Assertions.assertTrue(client.changeRoster(GAME, rosterChange).await().atMost(TIMEOUT));
+        Assertions.assertEquals(objectMapper.valueToTree(rosterChange), receivedBodies.get("/game/roster"));
+        client.nextTask(GAME, "en", new Roster(PLAYERS)).await().atMost(TIMEOUT);
+        Assertions.assertEquals(objectMapper.valueToTree(new Roster(PLAYERS)), receivedBodies.get("/game/task/next"));
+    }
+
+    /**
+     * Refuses anything but CBOR, so a call falling back to JSON fails instead of passing unnoticed.
+     */
+    private void answer(HttpServerRequest request, Buffer body) throws IOException {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.startsWith(CborMessageBodyHandler.APPLICATION_CBOR)) {
+            request.response().setStatusCode(406).end();
+            return;
+        }
+        if (body.length() > 0) {
+            String contentType = request.getHeader(HttpHeaders.CONTENT_TYPE);
+            if (contentType == null || !contentType.startsWith(CborMessageBodyHandler.APPLICATION_CBOR)) {
+                request.response().setStatusCode(415).end();
+                return;
+            }
+            receivedBodies.put(request.path(), cborMapper.readTree(body.getBytes()));
+        }
+
+        JsonNode response = switch (request.path()) {
+            case "/game" -> game();
+            case "/game/task/next" -> task();
+            case "/game/roster" -> BooleanNode.TRUE;
+            default -> null;
+        };
+        if (response == null) {
+            request.response().setStatusCode(404).end();
+            return;
+        }
+        request.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, CborMessageBodyHandler.APPLICATION_CBOR)
+                .end(Buffer.buffer(cborMapper.writeValueAsBytes(response)));
+    }
+
+    private ObjectNode game() {
+        ObjectNode game = objectMapper.createObjectNode();
+        game.put("gameId", GAME);
+        game.put("currentPlayer", PLAYERS.get(0));
+        game.putArray("categories").addObject().put("id", 1).put("name", "Category");
+        return game;
+    }
+
+    private ObjectNode task() {
+        ObjectNode task = objectMapper.createObjectNode();
+        task.putObject("data")
+                .put("task", "task_42")
+                .put("task_42", "Player1 drinks twice");
+        return task;
+    }
+}
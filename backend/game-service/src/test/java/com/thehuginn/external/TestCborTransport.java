@@ -0,0 +1,65 @@
+package com.thehuginn.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.thehuginn.common.services.exposed.transport.CborMessageBodyHandler;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+
+public class TestCborTransport {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CborMessageBodyHandler handler = new CborMessageBodyHandler(objectMapper);
+
+    @Test
+    void testTreeRoundTrip() throws IOException {
+        ObjectNode task = objectMapper.createObjectNode();
+        task.put("id", 42);
+        task.put("task", "Player1 drinks twice");
+        task.putArray("players").add("Player1").add("Player2");
+
+        byte[] cbor = write(task);
+        JsonNode read = read(cbor, JsonNode.class);
+
+        Assertions.assertEquals(task, read);
+        Assertions.assertTrue(cbor.length < objectMapper.writeValueAsBytes(task).length);
+    }
+
+    @Test
+    void testBooleanRoundTrip() throws IOException {
+        Assertions.assertEquals(Boolean.TRUE, read(write(Boolean.TRUE), Boolean.class));
+    }
+
+    @Test
+    void testEmptyBodyIsNull() throws IOException {
+        Assertions.assertNull(read(new byte[0], JsonNode.class));
+    }
+
+    @Test
+    void testOnlyCborIsHandled() {
+        Assertions.assertTrue(handler.isReadable(JsonNode.class, JsonNode.class, new Annotation[0],
+                CborMessageBodyHandler.APPLICATION_CBOR_TYPE));
+        Assertions.assertFalse(handler.isWriteable(JsonNode.class, JsonNode.class, new Annotation[0],
+                MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    private byte[] write(Object value) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        handler.writeTo(value, value.getClass(), value.getClass(), new Annotation[0],
+                CborMessageBodyHandler.APPLICATION_CBOR_TYPE, null, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(byte[] body, Class<T> type) throws IOException {
+        return (T) handler.readFrom((Class<Object>) type, type, new Annotation[0],
+                CborMessageBodyHandler.APPLICATION_CBOR_TYPE, null, new ByteArrayInputStream(body));
+    }
+}
@@ -0,0 +1,68 @@
+package com.thehuginn.external;
+
+import com.thehuginn.entities.Game;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.mockito.Mockito;
+
+import java.util.Map;
+
+/**
+ * Runs only when game-service is built with {@code -Pcolocate-pub}. The pub mode packaged into game-service
+ * is dispatched in-process and keeps its games in the database of game-service.
+ */
+@QuarkusTest
+@RunOnVertxContext
+@TestProfile(TestColocatedPubMode.LocalPubDispatch.class)
+@EnabledIf("pubModePackaged")
+public class TestColocatedPubMode {
+
+    private static final String GAME = "foo";
+
+    public static class LocalPubDispatch implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("game-service.mode.pub.dispatch", "local");
+        }
+    }
+
+    static boolean pubModePackaged() {
+        try {
+            Class.forName("com.thehuginn.AssignmentGameSession");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Inject
+    GameModeClients gameModeClients;
+
+    @InjectMock
+    @RestClient
+    GameRestClientPub gameRestClientPub;
+
+    @Test
+    void testPubModeRunsInProcess(UniAsserter asserter) {
+        GameModeClient pubMode = gameModeClients.forType(Game.Type.PUB);
+
+        asserter.assertThat(() -> pubMode.createGame(GAME), game -> {
+            Assertions.assertEquals(GAME, game.gameId);
+            Assertions.assertEquals("PUB_MODE", game.type);
+        });
+        asserter.assertThat(() -> pubMode.getGame(GAME), game -> Assertions.assertEquals(GAME, game.gameId));
+        asserter.assertEquals(() -> pubMode.requiresTeam(), Boolean.FALSE);
+        asserter.assertEquals(() -> pubMode.deleteGame(GAME), Boolean.TRUE);
+        asserter.execute(() -> Mockito.verifyNoInteractions(gameRestClientPub));
+    }
+}
@@ -0,0 +1,105 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameState;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs several local instances of a game mode, each answering with its own name, and checks that
+ * requests of a game are routed to a single instance.
+ */
+@QuarkusTest
+public class TestGameModeRouting {
+
+    private static final int INSTANCES = 3;
+    private static final int GAMES = 200;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Inject
+    Vertx vertx;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<String> urls = new ArrayList<>();
+    private RoutedGameModeClient client;
+
+    @BeforeEach
+    void startInstances() throws Exception {
+        for (int instance = 0; instance < INSTANCES; instance++) {
+            String name = "instance-" + instance;
+            HttpServer server = vertx.createHttpServer()
+                    .requestHandler(request -> request.response()
+                            .putHeader("Content-Type", "application/json")
+                            .end(new JsonObject()
+                                    .put("instance", name)
+                                    .put("gameId", request.getCookie("gameId").getValue())
+                                    .encode()))
+                    .listen(0)
+                    .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+            servers.add(server);
+            urls.add("http://localhost:" + server.actualPort());
+        }
+        client = new RoutedGameModeClient("task", uri -> RestClientBuilder.newBuilder()
+                .baseUri(uri)
+                .build(GameRestClient.class), 128);
+        client.updateMembers(urls);
+    }
+
+    @AfterEach
+    void stopInstances() throws Exception {
+        for (HttpServer server : servers) {
+            server.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testGameIsServedBySingleInstance() {
+        Map<String, String> instances = new HashMap<>();
+        for (int round = 0; round < 3; round++) {
+            for (int game = 0; game < GAMES; game++) {
+                String gameId = "game-" + game;
+                GameState response = client.getGame(gameId).await().atMost(TIMEOUT);
+                Assertions.assertEquals(gameId, response.gameId);
+                String previous = instances.put(gameId, (String) response.fields().get("instance"));
+                if (previous != null) {
+                    Assertions.assertEquals(previous, response.fields().get("instance"));
+                }
+            }
+        }
+        Assertions.assertEquals(INSTANCES, instances.values().stream().distinct().count());
+    }
+
+    @Test
+    void testRemovingInstanceMovesOnlyItsGames() {
+        Map<String, String> before = new HashMap<>();
+        for (int game = 0; game < GAMES; game++) {
+            before.put("game-" + game, client.memberOf("game-" + game));
+        }
+
+        String removed = urls.get(1);
+        client.updateMembers(List.of(urls.get(0), urls.get(2)));
+
+        for (int game = 0; game < GAMES; game++) {
+            String gameId = "game-" + game;
+            GameState response = client.getGame(gameId).await().atMost(TIMEOUT);
+            Assertions.assertNotEquals("instance-1", response.fields().get("instance"));
+            if (!before.get(gameId).equals(removed)) {
+                Assertions.assertEquals(before.get(gameId), client.memberOf(gameId));
+            }
+        }
+    }
+}
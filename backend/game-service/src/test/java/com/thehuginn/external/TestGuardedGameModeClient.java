@@ -0,0 +1,138 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestGuardedGameModeClient {
+
+    @Test
+    void testBulkheadRejectsWhenFull() {
+        GuardedGameModeClient client = new GuardedGameModeClient("task", new StubClient(Uni.createFrom().nothing()),
+                1, Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ZERO);
+        client.nextTask("foo", "en", null).subscribe().with(ignored -> {
+        }, ignored -> {
+        });
+
+        WebApplicationException exception = Assertions.assertThrows(WebApplicationException.class,
+                () -> client.nextTask("bar", "en", null).await().indefinitely());
+        Assertions.assertEquals(RestResponse.StatusCode.SERVICE_UNAVAILABLE, exception.getResponse().getStatus());
+    }
+
+    @Test
+    void testDeadlineReleasesPermit() {
+        GuardedGameModeClient client = new GuardedGameModeClient("task", new StubClient(Uni.createFrom().nothing()),
+                1, Duration.ofMillis(50), Duration.ofMillis(50), Duration.ZERO);
+
+        WebApplicationException exception = Assertions.assertThrows(WebApplicationException.class,
+                () -> client.nextTask("foo", "en", null).await().indefinitely());
+        Assertions.assertEquals(RestResponse.StatusCode.GATEWAY_TIMEOUT, exception.getResponse().getStatus());
+        Assertions.assertEquals(1, client.availablePermits());
+    }
+
+    @Test
+    void testHedgeAnswersWhenPrimaryHangs() {
+        StubClient stub = new StubClient(Uni.createFrom().nothing(), Uni.createFrom().item(gameState("hedged")));
+        GuardedGameModeClient client = new GuardedGameModeClient("task", stub,
+                2, Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofMillis(50));
+
+        GameState result = client.getGame("foo").await().atMost(Duration.ofSeconds(1));
+        Assertions.assertEquals("hedged", result.gameId);
+        Assertions.assertEquals(2, stub.calls.get());
+        Assertions.assertEquals(2, client.availablePermits());
+    }
+
+    @Test
+    void testNoHedgeWhenPrimaryIsFast() {
+        StubClient stub = new StubClient(Uni.createFrom().item(gameState("primary")));
+        GuardedGameModeClient client = new GuardedGameModeClient("task", stub,
+                2, Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofMillis(200));
+
+        Assertions.assertEquals("primary", client.getGame("foo").await().indefinitely().gameId);
+        Assertions.assertEquals(1, stub.calls.get());
+    }
+
+    @Test
+    void testCurrentTaskIsNotHedged() {
+        StubClient stub = new StubClient(Uni.createFrom().nothing(), Uni.createFrom().item(gameState("hedged")));
+        GuardedGameModeClient client = new GuardedGameModeClient("task", stub,
+                2, Duration.ofMillis(200), Duration.ofMillis(200), Duration.ofMillis(50));
+
+        // the first current task of a game deals it, a second call could deal another one
+        WebApplicationException exception = Assertions.assertThrows(WebApplicationException.class,
+                () -> client.currentTask("foo", "en", null).await().atMost(Duration.ofSeconds(1)));
+        Assertions.assertEquals(RestResponse.StatusCode.GATEWAY_TIMEOUT, exception.getResponse().getStatus());
+        Assertions.assertEquals(1, stub.calls.get());
+    }
+
+    private static GameState gameState(String gameId) {
+        GameState gameState = new GameState();
+        gameState.gameId = gameId;
+        return gameState;
+    }
+
+    private static class StubClient implements GameModeClient {
+
+        private final Uni<GameState>[] answers;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @SafeVarargs
+        StubClient(Uni<GameState>... answers) {
+            this.answers = answers;
+        }
+
+        private Uni<GameState> answer() {
+            return answers[Math.min(calls.getAndIncrement(), answers.length - 1)];
+        }
+
+        @Override
+        public Uni<GameState> getGame(String gameId) {
+            return answer();
+        }
+
+        @Override
+        public Uni<GameState> createGame(String gameId) {
+            return answer();
+        }
+
+        @Override
+        public Uni<Boolean> deleteGame(String gameId) {
+            return answer().replaceWith(true);
+        }
+
+        @Override
+        public Uni<Boolean> startGame(String gameId, Roster roster) {
+            return answer().replaceWith(true);
+        }
+
+        @Override
+        public Uni<RenderedTask> currentTask(String gameId, String locale, Roster roster) {
+            return answer().map(gameState -> new RenderedTask(Map.of("task", gameState.gameId)));
+        }
+
+        @Override
+        public Uni<RenderedTask> nextTask(String gameId, String locale, Roster roster) {
+            return answer().map(gameState -> new RenderedTask(Map.of("task", gameState.gameId)));
+        }
+
+        @Override
+        public Uni<Boolean> changeRoster(String gameId, RosterChange rosterChange) {
+            return answer().replaceWith(true);
+        }
+
+        @Override
+        public Uni<Boolean> requiresTeam() {
+            return answer().replaceWith(true);
+        }
+    }
+}
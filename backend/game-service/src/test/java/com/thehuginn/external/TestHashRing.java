@@ -0,0 +1,101 @@
+package com.thehuginn.external;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestHashRing {
+
+    private static final int GAMES = 10_000;
+
+    @Test
+    void testEmptyRing() {
+        HashRing<String> ring = new HashRing<>(16);
+        Assertions.assertTrue(ring.isEmpty());
+        Assertions.assertNull(ring.route("game"));
+    }
+
+    @Test
+    void testGamesAreSpreadEvenly() {
+        HashRing<String> ring = ring(4);
+        Map<String, Integer> load = new HashMap<>();
+        for (int game = 0; game < GAMES; game++) {
+            load.merge(ring.route("game-" + game), 1, Integer::sum);
+        }
+
+        Assertions.assertEquals(4, load.size());
+        // 128 virtual nodes keep every instance within a third of its fair share
+        load.values().forEach(games -> Assertions.assertTrue(Math.abs(games - GAMES / 4) < GAMES / 12,
+                "uneven load " + load));
+    }
+
+    @Test
+    void testAddingMemberMovesOnlyItsGames() {
+        HashRing<String> ring = ring(4);
+        Map<String, String> before = routes(ring);
+
+        ring.update(members(5));
+        Map<String, String> after = routes(ring);
+
+        int moved = 0;
+        for (Map.Entry<String, String> route : after.entrySet()) {
+            if (!route.getValue().equals(before.get(route.getKey()))) {
+                Assertions.assertEquals("http://instance-4", route.getValue(), "game moved between old instances");
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved > GAMES / 10 && moved < GAMES / 3, "moved " + moved);
+    }
+
+    @Test
+    void testRemovingMemberMovesOnlyItsGames() {
+        HashRing<String> ring = ring(4);
+        Map<String, String> before = routes(ring);
+
+        Map<String, String> members = members(4);
+        members.remove("http://instance-2");
+        ring.update(members);
+
+        routes(ring).forEach((game, instance) -> {
+            if (!before.get(game).equals("http://instance-2")) {
+                Assertions.assertEquals(before.get(game), instance, "game of a remaining instance moved");
+            } else {
+                Assertions.assertNotEquals("http://instance-2", instance);
+            }
+        });
+    }
+
+    @Test
+    void testRoutingIsStableAcrossRings() {
+        HashRing<String> first = ring(3);
+        HashRing<String> second = ring(3);
+        for (int game = 0; game < 1000; game++) {
+            Assertions.assertEquals(first.route("game-" + game), second.route("game-" + game));
+        }
+    }
+
+    private static HashRing<String> ring(int instances) {
+        HashRing<String> ring = new HashRing<>(128);
+        ring.update(members(instances));
+        return ring;
+    }
+
+    private static Map<String, String> members(int instances) {
+        Map<String, String> members = new LinkedHashMap<>();
+        for (int instance = 0; instance < instances; instance++) {
+            members.put("http://instance-" + instance, "http://instance-" + instance);
+        }
+        return members;
+    }
+
+    private static Map<String, String> routes(HashRing<String> ring) {
+        Map<String, String> routes = new HashMap<>();
+        for (int game = 0; game < GAMES; game++) {
+            routes.put("game-" + game, ring.route("game-" + game));
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,109 @@
+package com.thehuginn.external;
+
+import com.thehuginn.common.services.exposed.GameService;
+import com.thehuginn.common.services.exposed.GameState;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
+import com.thehuginn.entities.Game;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Packages a task mode into game-service and selects {@code local} for it, its calls have to reach the mode
+ * in-process without going through its rest client, while the pub mode stays remote.
+ */
+@QuarkusTest
+@TestProfile(TestLocalDispatch.LocalTaskDispatch.class)
+public class TestLocalDispatch {
+
+    private static final String GAME = "foo";
+    private static final List<String> PLAYERS = List.of("Player1", "Player2");
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    static final GameService LOCAL_TASK_MODE = Mockito.mock(GameService.class);
+
+    public static class LocalTaskDispatch implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("game-service.mode.task.dispatch", "local");
+        }
+
+        @Override
+        public Set<Class<?>> getEnabledAlternatives() {
+            return Set.of(LocalTaskMode.class);
+        }
+    }
+
+    /**
+     * A mock produced rather than a class implementing {@link GameService}, which would be served as an endpoint.
+     */
+    @Alternative
+    @Singleton
+    public static class LocalTaskMode {
+
+        @Produces
+        @Identifier("task")
+        GameService taskMode() {
+            return LOCAL_TASK_MODE;
+        }
+    }
+
+    @Inject
+    GameModeClients gameModeClients;
+
+    @InjectMock
+    @RestClient
+    GameRestClientTask gameRestClientTask;
+
+    @InjectMock
+    @RestClient
+    GameRestClientPub gameRestClientPub;
+
+    @Test
+    void testLocalModeBypassesHttp() {
+        Mockito.when(LOCAL_TASK_MODE.getGame(GAME))
+                .thenAnswer(invocation -> Uni.createFrom().item(Map.of("gameId", GAME)));
+        Mockito.when(LOCAL_TASK_MODE.nextTask(ArgumentMatchers.eq(GAME), ArgumentMatchers.eq("en"), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new RenderedTask(Map.of("task", "Player1 drinks twice"))));
+        Mockito.when(LOCAL_TASK_MODE.changeRoster(ArgumentMatchers.eq(GAME), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.TRUE));
+        Mockito.when(gameRestClientPub.requiresTeam())
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.FALSE));
+        GameModeClient taskMode = gameModeClients.forType(Game.Type.TASK);
+
+        GameState game = taskMode.getGame(GAME).await().atMost(TIMEOUT);
+        Assertions.assertEquals(GAME, game.gameId);
+        RenderedTask task = taskMode.nextTask(GAME, "en", new Roster(PLAYERS)).await().atMost(TIMEOUT);
+        Assertions.assertEquals("Player1 drinks twice", task.data().get("task"));
+        RosterChange rosterChange = new RosterChange(PLAYERS.subList(0, 1), PLAYERS);
+        Assertions.assertTrue(taskMode.changeRoster(GAME, rosterChange).await().atMost(TIMEOUT));
+
+        // the roster is handed over as it is instead of being written into a request body
+        Mockito.verify(LOCAL_TASK_MODE).nextTask(GAME, "en", new Roster(PLAYERS));
+        Mockito.verify(LOCAL_TASK_MODE).changeRoster(GAME, rosterChange);
+        Mockito.verifyNoInteractions(gameRestClientTask);
+
+        Assertions.assertFalse(gameModeClients.forType(Game.Type.PUB).requiresTeam().await().atMost(TIMEOUT));
+        Mockito.verify(gameRestClientPub).requiresTeam();
+    }
+}
@@ -0,0 +1,30 @@
+package com.thehuginn.periodic;
+
+import com.thehuginn.AbstractTest;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+/**
+ * Purging old games has to find them through an index, sequential scans are disabled as on the small
+ * test table the planner would prefer them anyway.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class TestPurgeQueryPlan extends AbstractTest {
+
+    @Test
+    void testPurgeUsesLastAccessIndex(UniAsserter asserter) {
+        asserter.assertThat(() -> Panache.getSession()
+                .chain(session -> session.createNativeQuery("set local enable_seqscan = off").executeUpdate()
+                        .chain(() -> session.createNativeQuery("explain select * from Game where lastAccess < now()",
+                                String.class).getResultList()))
+                .map(rows -> rows.stream().collect(Collectors.joining("\n"))),
+                plan -> Assertions.assertTrue(plan.contains("game_lastaccess_idx"), plan));
+    }
+}
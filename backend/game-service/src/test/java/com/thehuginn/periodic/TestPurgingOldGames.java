@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -74,4 +75,52 @@ public class TestPurgingOldGames extends AbstractTest {
 
         asserter.surroundWith(uni -> Panache.withTransaction(() -> uni));
     }
+
+    @Test
+    void testPurgingMoreGamesThanTheBulkheadAllows(UniAsserter asserter) {
+        // the task mode takes 64 calls at once, every stale game has to be deleted all the same
+        int staleGames = 100;
+        Mockito.when(gameRestClientTask.deleteGame(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.TRUE)
+                        .onItem().delayIt().by(Duration.ofMillis(10)));
+        asserter.execute(() -> {
+            List<Uni<Game>> gamesToPersist = new ArrayList<>();
+            for (int i = 0; i < staleGames; i++) {
+                Game game = new Game("Stale%d".formatted(i));
+                game.lastAccess = LocalDateTime.now().minusDays(2);
+                gamesToPersist.add(game.persistAndFlush());
+            }
+            return Uni.combine().all().unis(gamesToPersist).usingConcurrencyOf(1).discardItems();
+        });
+
+        asserter.execute(() -> gamePurgeScheduler.deleteOldGames());
+
+        asserter.assertThat(() -> Game.count(), count -> {
+            Assertions.assertEquals(0L, count);
+            Mockito.verify(gameRestClientTask, Mockito.times(staleGames)).deleteGame(ArgumentMatchers.anyString());
+        });
+
+        asserter.surroundWith(uni -> Panache.withTransaction(() -> uni));
+    }
+
+    @Test
+    void testFailingModeDoesNotStopThePurge(UniAsserter asserter) {
+        Mockito.when(gameRestClientTask.deleteGame(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> Uni.createFrom().item(Boolean.TRUE));
+        Mockito.when(gameRestClientTask.deleteGame("Failing"))
+                .thenAnswer(invocation -> Uni.createFrom().failure(new IllegalStateException("mode is down")));
+        asserter.execute(() -> {
+            Game failing = new Game("Failing");
+            failing.lastAccess = LocalDateTime.now().minusDays(2);
+            Game stale = new Game("Stale");
+            stale.lastAccess = LocalDateTime.now().minusDays(2);
+            return failing.persistAndFlush().chain(() -> stale.persistAndFlush());
+        });
+
+        asserter.execute(() -> gamePurgeScheduler.deleteOldGames());
+
+        asserter.assertThat(() -> Game.count(), count -> Assertions.assertEquals(0L, count));
+
+        asserter.surroundWith(uni -> Panache.withTransaction(() -> uni));
+    }
 }
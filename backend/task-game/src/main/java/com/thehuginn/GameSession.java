@@ -4,18 +4,31 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.catalog.CatalogSnapshot;
 import com.thehuginn.category.Category;
 import com.thehuginn.common.game.AbstractGameSession;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.common.services.exposed.tracing.QueryCounter;
+import com.thehuginn.common.services.exposed.tracing.Tracing;
+import com.thehuginn.deck.DeckEngine;
+import com.thehuginn.deck.DeckTemplate;
+import com.thehuginn.deck.DeckTemplates;
+import com.thehuginn.deck.SamplerDeck;
+import com.thehuginn.deck.SamplerState;
+import com.thehuginn.events.TurnAdvancedEvent;
 import com.thehuginn.services.hidden.GameTaskService;
 import com.thehuginn.task.GameTask;
 import com.thehuginn.task.ResolvedTask;
 import com.thehuginn.task.Task;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.logging.Log;
 import io.quarkus.panache.common.Parameters;
 import io.smallrye.mutiny.Uni;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
@@ -30,18 +43,45 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
+/**
+ * Associations are lazy, endpoints load a game through {@link #load(String, Profile)} with the profile of
+ * whatever they read or serialize.
+ */
 @Entity
 public class GameSession extends AbstractGameSession {
 
+    /**
+     * Fetch profiles of a game, each one is a single statement and the associations it joins are
+     * the only ones its endpoints may touch.
+     */
+    public enum Profile {
+        /**
+         * Selected categories with their text, for serializing the game and toggling categories
+         */
+        CATEGORIES("from GameSession g left join fetch g.categories c left join fetch c.categoryText where g.id = :id"),
+        /**
+         * Categories and the current task with its game task, for starting, playing and deleting a game. The tokens
+         * of the resolved task follow in one statement, the unresolved task is served by the catalog.
+         */
+        GAMEPLAY("from GameSession g left join fetch g.categories c left join fetch c.categoryText"
+                + " left join fetch g.currentTask r left join fetch r.gameTask t where g.id = :id");
+
+        private final String query;
+
+        Profile(String query) {
+            this.query = query;
+        }
+    }
+
     @JsonIgnore
-    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @OnDelete(action = OnDeleteAction.CASCADE)
     public ResolvedTask currentTask;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "GameSession_Category", joinColumns = @JoinColumn(name = "gameSession_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
     @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
@@ -54,33 +94,105 @@ public class GameSession extends AbstractGameSession {
     @JsonIgnore
     public List<GameTask> tasks = new ArrayList<>();
 
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    public DeckEngine deckEngine = DeckEngine.PREBUILT;
+
+    /**
+     * Encoded {@link SamplerState}, used only by {@link DeckEngine#SAMPLER}
+     */
+    @JsonIgnore
+    public byte[] dealtTasks;
+
     public GameSession() {
     }
 
-    public Uni<Boolean> addCategory(Long categoryId) {
+    public static Uni<GameSession> load(String gameId, Profile profile) {
+        return GameSession.<GameSession> find(profile.query, Parameters.with("id", gameId))
+                .firstResult();
+    }
+
+    /**
+     * Removing a game cascades into its current task, which therefore has to be loaded first.
+     */
+    public static Uni<Boolean> deleteGame(String gameId) {
+        return load(gameId, Profile.GAMEPLAY)
+                .chain(gameSession -> gameSession == null
+                        ? Uni.createFrom().item(Boolean.FALSE)
+                        : gameSession.delete().replaceWith(Boolean.TRUE));
+    }
+
+    /**
+     * On a started game the eligible tasks of the category are inserted at random places of the remaining deck,
+     * see {@link com.thehuginn.deck.DeckSplicer}, for the players of {@code resolutionContext}.
+     */
+    public Uni<Boolean> addCategory(Long categoryId, ResolutionContext.Builder resolutionContext) {
         return Category.<Category> findById(categoryId)
                 .chain(category -> {
                     if (category != null) {
-                        this.categories.add(category);
+                        boolean added = this.categories.add(category);
                         return this.persist()
+                                .chain(() -> added && isRunning()
+                                        ? spliceCategory(categoryId, resolutionContext.getPlayers())
+                                        : Uni.createFrom().voidItem())
                                 .replaceWith(Boolean.TRUE);
                     }
                     return Uni.createFrom().item(Boolean.FALSE);
                 });
     }
 
+    /**
+     * On a started game the unplayed tasks of the category leave the remaining deck, the dealt task stays.
+     */
     public Uni<Boolean> removeCategory(Long categoryId) {
         return Category.<Category> findById(categoryId)
                 .chain(category -> {
                     if (category != null) {
                         Boolean removed = this.categories.remove(category);
                         return this.persist()
+                                .chain(() -> removed && isRunning()
+                                        ? dropCategory(categoryId)
+                                        : Uni.createFrom().voidItem())
                                 .replaceWith(removed);
                     }
                     return Uni.createFrom().item(Boolean.FALSE);
                 });
     }
 
+    /**
+     * A started game with a generated deck, the {@link DeckEngine#SAMPLER} picks category changes up by itself.
+     */
+    private boolean isRunning() {
+        return this.currentPlayer != null && this.deckEngine == DeckEngine.PREBUILT;
+    }
+
+    /**
+     * Tasks belong to a single category, so the template of the category alone holds exactly the tasks the deck
+     * is missing. Templates of single categories are cached like those of whole decks.
+     */
+    private Uni<Void> spliceCategory(Long categoryId, List<String> players) {
+        int playerIndex = players.indexOf(this.currentPlayer);
+        int first = playerIndex < 0 ? 0 : (playerIndex + 1) % players.size();
+        ResolutionContext context = ResolutionContext.builder(gameId).players(players).player(players.get(first)).build();
+        return Catalog.snapshot()
+                .chain(snapshot -> Panache.getSession()
+                        .chain(session -> GameTaskService.cursor(gameId)
+                                .chain(cursor -> GameTaskService.spliceGameTasks(this, cursor, first, players,
+                                        GameTaskService.entries(DeckTemplates.template(snapshot, List.of(categoryId),
+                                                context), task -> session.getReference(Task.class, task.id()),
+                                                context)))));
+    }
+
+    private Uni<Void> dropCategory(Long categoryId) {
+        return Catalog.snapshot()
+                .chain(snapshot -> GameTaskService.cursor(gameId)
+                        .chain(cursor -> GameTaskService.dropTasks(gameId, cursor, snapshot
+                                .tasksOf(List.of(categoryId)).stream()
+                                .map(CatalogSnapshot.TaskView::id)
+                                .toList())))
+                .replaceWithVoid();
+    }
+
     @Override
     public Uni<Boolean> start(ResolutionContext.Builder resolutionContext) {
         if (this.categories.isEmpty()) {
@@ -90,25 +202,28 @@ public class GameSession extends AbstractGameSession {
         this.currentPlayer = resolutionContext.getPlayers().get(resolutionContext.getPlayers().size() - 1);
         resolutionContext = resolutionContext.player(this.currentPlayer);
 
+        this.deckEngine = DeckEngine.configured();
+        if (this.deckEngine == DeckEngine.SAMPLER) {
+            // nothing is generated, nextTask draws every task from the selected categories
+            this.dealtTasks = null;
+            SamplerDeck.forget(gameId);
+            return GameTask.delete("game.id = :game", Parameters.with("game", gameId))
+                    .chain(() -> {
+                        this.currentTask = null;
+                        return this.persist();
+                    })
+                    .replaceWith(Boolean.TRUE);
+        }
+
         ResolutionContext context = resolutionContext.build();
+        List<Long> categoryIds = categoryIds();
 
-        List<Uni<Set<Task>>> tasks = categories.stream()
-                .map(category -> Category.getTasks(category.id))
-                .toList();
-        Uni<Set<Task>> tasksUni = Uni.combine().all()
-                .<Set<Task>> unis(tasks)
-                .usingConcurrencyOf(1)
-                .combinedWith(objects -> objects.stream()
-                        .flatMap(collectedTasks -> ((Set<Task>) collectedTasks).stream())
-                        .collect(Collectors.toSet()));
-
-        return tasksUni.call(allTasks -> {
-            try {
-                return GameTaskService.gameTasks(allTasks, context);
-            } catch (CloneNotSupportedException e) {
-                throw new RuntimeException(e);
-            }
-        })
+        // tasks come from the catalog snapshot, game tasks only need uninitialized references to them,
+        // games of the same categories and player count share the template of their deck
+        return Catalog.snapshot()
+                .chain(snapshot -> Panache.getSession()
+                        .chain(session -> GameTaskService.gameTasks(DeckTemplates.template(snapshot, categoryIds, context),
+                                task -> session.getReference(Task.class, task.id()), context)))
                 .chain(() -> {
                     this.currentTask = null;
                     return this.persist();
@@ -116,6 +231,98 @@ public class GameSession extends AbstractGameSession {
                 .replaceWith(Boolean.TRUE);
     }
 
+    /**
+     * Replays the game with the categories and players it was started with. The prebuilt deck keeps its rows and
+     * starts over from its front, dealt copies are restored in place and deleted ones inserted again at random
+     * positions, see {@link GameTaskService#rematch}. The sampler only forgets what it dealt.
+     */
+    @Override
+    public Uni<Boolean> rematch(ResolutionContext.Builder resolutionContext) {
+        if (this.categories.isEmpty()) {
+            return Uni.createFrom().item(Boolean.FALSE);
+        }
+
+        this.currentPlayer = resolutionContext.getPlayers().get(resolutionContext.getPlayers().size() - 1);
+        resolutionContext = resolutionContext.player(this.currentPlayer);
+        this.currentTask = null;
+
+        if (this.deckEngine == DeckEngine.SAMPLER) {
+            this.dealtTasks = null;
+            SamplerDeck.forget(gameId);
+            return this.persist()
+                    .replaceWith(Boolean.TRUE);
+        }
+
+        ResolutionContext context = resolutionContext.build();
+        List<Long> categoryIds = categoryIds();
+        return Catalog.snapshot()
+                .chain(snapshot -> Panache.getSession()
+                        .chain(session -> GameTaskService.rematchGameTasks(this, DeckTemplates.template(snapshot,
+                                categoryIds, context), task -> session.getReference(Task.class, task.id()), context)))
+                .chain(() -> this.persist())
+                .replaceWith(Boolean.TRUE);
+    }
+
+    /**
+     * Applies a change of the players to the deck of a started game instead of generating it anew. PER_PLAYER tasks
+     * of departed players are removed and those of joined players are spliced in on their turns, tasks whose
+     * {@code {player_n}} tokens start or stop to be resolvable with the new number of players are added
+     * or removed. The rest of the deck keeps its rows and order.
+     *
+     * @return false when the game has no deck to change
+     */
+    public Uni<Boolean> changeRoster(List<String> previous, List<String> players) {
+        if (this.currentPlayer == null || this.categories.isEmpty() || players.isEmpty()) {
+            return Uni.createFrom().item(Boolean.FALSE);
+        }
+        if (this.deckEngine == DeckEngine.SAMPLER) {
+            // every draw resolves against the players of its turn
+            return Uni.createFrom().item(Boolean.TRUE);
+        }
+
+        List<String> joined = players.stream().filter(player -> !previous.contains(player)).toList();
+        List<String> left = previous.stream().filter(player -> !players.contains(player)).toList();
+        long current = this.currentTask != null && this.currentTask.gameTask != null ? this.currentTask.gameTask.ordinal : 0;
+        int playerIndex = players.indexOf(this.currentPlayer);
+        int first = playerIndex < 0 ? 0 : (playerIndex + 1) % players.size();
+        ResolutionContext context = ResolutionContext.builder(gameId).players(players).player(players.get(first)).build();
+        List<Long> categoryIds = categoryIds();
+
+        return Catalog.snapshot()
+                .chain(snapshot -> Panache.getSession()
+                        .chain(session -> {
+                            Function<CatalogSnapshot.TaskView, Task> references = task -> session
+                                    .getReference(Task.class, task.id());
+                            List<CatalogSnapshot.TaskView> crossing = snapshot.tasksCrossing(categoryIds, previous.size(),
+                                    players.size());
+                            Set<Long> crossingIds = new HashSet<>();
+                            crossing.forEach(task -> crossingIds.add(task.id()));
+
+                            List<GameTask> added = new ArrayList<>();
+                            if (players.size() > previous.size()) {
+                                added.addAll(GameTaskService.entries(DeckTemplate.build(crossing, context), references,
+                                        context));
+                            }
+                            if (!joined.isEmpty()) {
+                                DeckTemplate template = DeckTemplates.template(snapshot, categoryIds, context);
+                                DeckTemplate perPlayer = new DeckTemplate(template.entries().stream()
+                                        .filter(entry -> entry.perPlayer() && !entry.single()
+                                                && !crossingIds.contains(entry.task().id()))
+                                        .toList(), template.virtual());
+                                added.addAll(GameTaskService.entries(perPlayer, references, ResolutionContext
+                                        .builder(gameId).players(joined).player(joined.get(0)).build()));
+                            }
+
+                            return GameTaskService.dropPlayerTasks(gameId, current, left)
+                                    .chain(() -> players.size() < previous.size()
+                                            ? GameTaskService.dropTasks(gameId, current, crossingIds)
+                                            : Uni.createFrom().item(0L))
+                                    .chain(() -> GameTaskService.remapPerPlayerTasks(gameId, current, previous, players))
+                                    .chain(() -> GameTaskService.spliceGameTasks(this, current, first, players, added));
+                        }))
+                .replaceWith(Boolean.TRUE);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Uni<ResolvedTask> currentTask(ResolutionContext.Builder resolutionContextBuilder) {
@@ -149,10 +356,11 @@ public class GameSession extends AbstractGameSession {
         }
 
         ResolutionContext resolutionContext = resolutionContextBuilder.player(this.currentPlayer).build();
+        TurnAdvancedEvent turn = TurnAdvancedEvent.start(gameId, this.currentPlayer, QueryCounter.current());
 
         Function<ResolvedTask, Uni<?>> updateResolvedTask = resolvedTask -> Uni.createFrom().item(this)
                 .invoke(gameSession -> {
-                    Log.infof("New resolved task to be: %s", resolvedTask.gameTask.unresolvedTask.task.content);
+                    Log.infof("New resolved task to be: %s", resolvedTask.gameTask.task().getKey());
                     if (gameSession.currentTask != null) {
                         gameSession.currentTask.copy(resolvedTask);
                     } else {
@@ -161,45 +369,67 @@ public class GameSession extends AbstractGameSession {
                 })
                 .call(gameSession -> gameSession.persist());
 
-        Uni<Void> deleteCurrentTask = this.currentTask != null
-                ? this.currentTask.remove()
+        Uni<Void> deleteCurrentTask = this.currentTask != null && this.currentTask.gameTask != null
+                ? this.currentTask.gameTask.loadTask().chain(this.currentTask::remove)
                 : Uni.createFrom().voidItem();
 
-        Uni<ResolvedTask> nextTask = GameSession
-                .<GameSession> find("from GameSession g left join fetch g.tasks where g.id = :id",
-                        Parameters.with("id", gameId))
-                .singleResult().chain(gameSession -> {
-                    if (gameSession.tasks.isEmpty()) {
-                        return Uni.createFrom().failure(new IllegalStateException("No more tasks remain for current game"));
-                    }
+        Uni<ResolvedTask> nextTask = (this.deckEngine == DeckEngine.SAMPLER
+                ? sampledTaskUni(resolutionContext, turn)
+                // counting keeps the deck out of the session, it used to be fetched only to test its emptiness
+                : GameTask.count("game.id", gameId)
+                        .chain(deckSize -> {
+                            Tracing.deckSize(deckSize);
+                            if (deckSize == 0) {
+                                fallback(turn, TurnAdvancedEvent.Fallback.EXHAUSTED);
+                                return Uni.createFrom()
+                                        .failure(new IllegalStateException("No more tasks remain for current game"));
+                            }
 
-                    long id = -1;
-                    if (gameSession.currentTask != null && gameSession.currentTask.gameTask != null) {
-                        id = gameSession.currentTask.gameTask.id;
-                    }
-                    return nextTaskUni(resolutionContext, id);
-                })
+                            long ordinal = 0;
+                            if (this.currentTask != null && this.currentTask.gameTask != null) {
+                                ordinal = this.currentTask.gameTask.ordinal;
+                            }
+                            return nextTaskUni(resolutionContext, ordinal, turn);
+                        }))
                 .call(updateResolvedTask)
-                .onFailure().recoverWithNull();
+                .onFailure().recoverWithNull()
+                .invoke(resolvedTask -> {
+                    if (turn != null) {
+                        if (resolvedTask != null) {
+                            turn.dealt(resolvedTask.gameTask.id, resolvedTask.gameTask.task().id());
+                        }
+                        turn.complete(QueryCounter.current());
+                    }
+                });
+
+        return Tracing.span("GameSession.nextTask", gameId, () -> deleteCurrentTask
+                .chain(() -> nextTask));
+    }
 
-        return deleteCurrentTask
-                .chain(() -> nextTask);
+    private Uni<ResolvedTask> nextTaskUni(ResolutionContext resolutionContext, long ordinal, TurnAdvancedEvent turn) {
+        return Tracing.span("GameSession.nextTaskUni", gameId, () -> nextTaskQueries(resolutionContext, ordinal, turn));
     }
 
-    private Uni<ResolvedTask> nextTaskUni(ResolutionContext resolutionContext, long id) {
+    /**
+     * @param turn records which fallback found the task, null while it is disabled
+     */
+    private Uni<ResolvedTask> nextTaskQueries(ResolutionContext resolutionContext, long ordinal, TurnAdvancedEvent turn) {
         return GameTask
-                .<GameTask> find("game.id = :game AND id > :id ORDER BY id", Parameters.with("game", gameId).and("id", id))
+                .<GameTask> find("game.id = :game AND ordinal > :ordinal ORDER BY ordinal",
+                        Parameters.with("game", gameId).and("ordinal", ordinal))
                 .page(0, 1)
                 .firstResult()
                 .onItem().ifNotNull().transformToUni(gameTask -> {
-                    Log.infof("Chosen task to potentially play: %d %s", gameTask.id, gameTask.unresolvedTask.task.content);
+                    Log.infof("Chosen task to potentially play: %d %s", gameTask.id, gameTask.unresolvedTask.id);
                     if (!gameTask.isResolvable(resolutionContext)) {
                         Log.infof("New task is required, we will try new assign task for player %s",
                                 resolutionContext.getPlayer());
+                        fallback(turn, TurnAdvancedEvent.Fallback.ASSIGNED);
                         return GameTask
-                                .<GameTask> find("game.id = :game AND assignedPlayer = :player AND id > :id ORDER BY id",
-                                        Parameters.with("game", gameId).and("player", resolutionContext.getPlayer()).and("id",
-                                                id))
+                                .<GameTask> find("game.id = :game AND assignedPlayer = :player AND ordinal > :ordinal"
+                                        + " ORDER BY ordinal",
+                                        Parameters.with("game", gameId)
+                                                .and("player", resolutionContext.getPlayer()).and("ordinal", ordinal))
                                 .page(0, 1).firstResult();
                     }
 
@@ -207,15 +437,17 @@ public class GameSession extends AbstractGameSession {
                 })
                 .onItem().ifNull()
                 .switchTo(() -> {
-                    Log.infof("Unable to find next task, getting a random one from higher than id %d", id);
+                    Log.infof("Unable to find next task, getting a random one after position %d", ordinal);
+                    fallback(turn, TurnAdvancedEvent.Fallback.UNASSIGNED);
                     return GameTask
-                            .<GameTask> find("game.id = :game AND assignedPlayer is NULL AND id > :id ORDER BY id",
-                                    Parameters.with("game", gameId).and("id", id))
+                            .<GameTask> find("game.id = :game AND assignedPlayer is NULL AND ordinal > :ordinal"
+                                    + " ORDER BY ordinal", Parameters.with("game", gameId).and("ordinal", ordinal))
                             .firstResult()
                             .onItem().ifNull().switchTo(() -> {
                                 Log.info("Unable to find next task, starting from the beginning with a random one");
+                                fallback(turn, TurnAdvancedEvent.Fallback.RESTART);
                                 return GameTask
-                                        .<GameTask> find("game.id = :game AND assignedPlayer is NULL ORDER BY id",
+                                        .<GameTask> find("game.id = :game AND assignedPlayer is NULL ORDER BY ordinal",
                                                 Parameters.with("game", gameId))
                                         .firstResult();
                             });
@@ -223,10 +455,69 @@ public class GameSession extends AbstractGameSession {
                 .chain(gameTask -> {
                     if (gameTask == null) {
                         Log.errorf("Unable to find any suitable task for game %s", gameId);
+                        fallback(turn, TurnAdvancedEvent.Fallback.EXHAUSTED);
+                        return Uni.createFrom().nullItem();
+                    }
+
+                    return gameTask.loadTask().map(loaded -> {
+                        loaded.deal(resolutionContext);
+                        return loaded.resolve(resolutionContext);
+                    });
+                });
+    }
+
+    /**
+     * Draws the next task on demand, the game keeps a single {@link GameTask} which is pointed
+     * at the drawn task.
+     */
+    private Uni<ResolvedTask> sampledTaskUni(ResolutionContext resolutionContext, TurnAdvancedEvent turn) {
+        fallback(turn, TurnAdvancedEvent.Fallback.SAMPLED);
+        List<Long> categoryIds = categoryIds();
+        return Catalog.snapshot()
+                .chain(snapshot -> {
+                    SamplerState state = SamplerState.decode(this.dealtTasks);
+                    CatalogSnapshot.TaskView drawn = SamplerDeck.draw(gameId, categoryIds, snapshot, resolutionContext,
+                            state, ThreadLocalRandom.current());
+                    if (drawn == null) {
+                        Log.errorf("Unable to draw any suitable task for game %s", gameId);
+                        fallback(turn, TurnAdvancedEvent.Fallback.EXHAUSTED);
                         return Uni.createFrom().nullItem();
                     }
 
-                    return Uni.createFrom().item(gameTask.resolve(resolutionContext));
+                    this.dealtTasks = state.encode();
+                    // the drawn task is served by the snapshot, the entry only needs a reference to it
+                    return Panache.getSession().map(session -> session.getReference(Task.class, drawn.id()))
+                            .chain(task -> GameTask
+                                    .<GameTask> find("game.id = :game", Parameters.with("game", gameId))
+                                    .firstResult()
+                                    .map(gameTask -> {
+                                        GameTask sampled = gameTask != null ? gameTask : new GameTask();
+                                        sampled.game = this;
+                                        sampled.unresolvedTask = task;
+                                        sampled.assignedPlayer = null;
+                                        sampled.multiplicity = 1;
+                                        sampled.perPlayer = false;
+                                        sampled.dealtTo = 0L;
+                                        sampled.useTask(drawn);
+                                        return sampled;
+                                    }))
+                            .call(gameTask -> gameTask.persist())
+                            .map(gameTask -> {
+                                gameTask.deal(resolutionContext);
+                                return gameTask.resolve(resolutionContext);
+                            });
                 });
     }
+
+    private static void fallback(TurnAdvancedEvent turn, TurnAdvancedEvent.Fallback fallback) {
+        if (turn != null) {
+            turn.fallback(fallback);
+        }
+    }
+
+    private List<Long> categoryIds() {
+        return categories.stream()
+                .map(category -> category.id)
+                .toList();
+    }
 }
@@ -0,0 +1,201 @@
+package com.thehuginn.catalog;
+
+import com.thehuginn.category.Category;
+import com.thehuginn.common.game.translation.LocaleCategoryText;
+import com.thehuginn.common.game.translation.LocaleTaskText;
+import com.thehuginn.common.game.translation.TranslationCache.CategoryTranslation;
+import com.thehuginn.task.Task;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. Writes to the catalog call {@link #invalidate()} once they commit
+ * and {@link CatalogInvalidations} rebuilds the snapshot, readers keep the previous snapshot until the new one
+ * is swapped in atomically, so they see either the old or the new catalog, never a mix of both.
+ * <p>
+ * One load runs at a time for a generation of the catalog, concurrent callers of {@link #load()} share it
+ * instead of each reading the whole catalog from the database.
+ */
+public final class Catalog {
+
+    private static final AtomicReference<CatalogSnapshot> SNAPSHOT = new AtomicReference<>();
+    private static final AtomicReference<Loading> LOADING = new AtomicReference<>();
+    private static final AtomicReference<CompletableFuture<CatalogSnapshot>> SWAPPED = new AtomicReference<>(
+            new CompletableFuture<>());
+    private static final AtomicLong GENERATION = new AtomicLong();
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private record Loading(long generation, CompletableFuture<CatalogSnapshot> snapshot) {
+    }
+
+    private Catalog() {
+    }
+
+    /**
+     * @return the current snapshot or null when the catalog changed since it was built
+     */
+    public static CatalogSnapshot current() {
+        CatalogSnapshot snapshot = SNAPSHOT.get();
+        if (snapshot == null || snapshot.generation() != GENERATION.get()) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the last snapshot, also while a newer one is rebuilt after a change, only the first read of
+     *         the replica waits for a {@link #load()} and requires an active session for it
+     */
+    public static Uni<CatalogSnapshot> snapshot() {
+        CatalogSnapshot snapshot = SNAPSHOT.get();
+        if (snapshot != null) {
+            return Uni.createFrom().item(snapshot);
+        }
+        return load();
+    }
+
+    /**
+     * @return completes with a snapshot built after every change invalidated so far, without loading it,
+     *         callers bound the wait for the rebuild
+     */
+    public static Uni<CatalogSnapshot> awaitCurrent() {
+        return Uni.createFrom().deferred(() -> awaitGeneration(GENERATION.get()));
+    }
+
+    private static Uni<CatalogSnapshot> awaitGeneration(long generation) {
+        CompletableFuture<CatalogSnapshot> swapped = SWAPPED.get();
+        CatalogSnapshot snapshot = SNAPSHOT.get();
+        if (snapshot != null && snapshot.generation() >= generation) {
+            return Uni.createFrom().item(snapshot);
+        }
+        return onCallerContext(Uni.createFrom().completionStage(swapped))
+                .chain(() -> awaitGeneration(generation));
+    }
+
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Loads a snapshot of the current generation in the session of the caller, a caller arriving while such a load
+     * runs waits for it on its own context instead, and starts over if the caller running the load cancelled it.
+     */
+    public static Uni<CatalogSnapshot> load() {
+        return Uni.createFrom().deferred(() -> {
+            long generation = GENERATION.get();
+            Loading running = LOADING.get();
+            if (running != null && running.generation() >= generation) {
+                return await(running);
+            }
+            Loading started = new Loading(generation, new CompletableFuture<>());
+            if (!LOADING.compareAndSet(running, started)) {
+                return load();
+            }
+            return loadSnapshot(generation)
+                    .onItemOrFailure().invoke((snapshot, failure) -> {
+                        LOADING.compareAndSet(started, null);
+                        if (failure != null) {
+                            started.snapshot().completeExceptionally(failure);
+                        } else {
+                            started.snapshot().complete(snapshot);
+                        }
+                    })
+                    .onCancellation().invoke(() -> {
+                        LOADING.compareAndSet(started, null);
+                        started.snapshot().completeExceptionally(new CancellationException());
+                    });
+        });
+    }
+
+    private static Uni<CatalogSnapshot> await(Loading running) {
+        return onCallerContext(Uni.createFrom().completionStage(running.snapshot()))
+                .onFailure(CancellationException.class).recoverWithUni(() -> load());
+    }
+
+    private static Uni<CatalogSnapshot> onCallerContext(Uni<CatalogSnapshot> snapshot) {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            return snapshot;
+        }
+        return snapshot.emitOn(runnable -> context.runOnContext(ignored -> runnable.run()));
+    }
+
+    private static Uni<CatalogSnapshot> loadSnapshot(long generation) {
+        long version = VERSION.incrementAndGet();
+        return loadTasks()
+                .chain(tasks -> loadCategories()
+                        .map(categories -> new CatalogSnapshot(version, generation, tasks, categories)))
+                .invoke(snapshot -> {
+                    if (SNAPSHOT.accumulateAndGet(snapshot, (current, loaded) -> current == null
+                            || loaded.version() > current.version() ? loaded : current) == snapshot) {
+                        SWAPPED.getAndSet(new CompletableFuture<>()).complete(snapshot);
+                    }
+                    Log.debugf("Catalog snapshot %d loaded", snapshot.version());
+                });
+    }
+
+    private static Uni<List<CatalogSnapshot.TaskView>> loadTasks() {
+        Map<Long, Map<String, String>> templates = new HashMap<>();
+        Map<Long, Long> membership = new HashMap<>();
+        return Panache.getSession()
+                .chain(session -> session
+                        .createQuery("select t.id, c.id from Task t left join t.category c", Object[].class)
+                        .getResultList())
+                .invoke(rows -> rows.forEach(row -> membership.put((Long) row[0], (Long) row[1])))
+                .chain(() -> LocaleTaskText.<LocaleTaskText> listAll())
+                .invoke(localeTexts -> localeTexts.forEach(localeText -> templates
+                        .computeIfAbsent(localeText.taskText.task.id, id -> new HashMap<>())
+                        .put(localeText.locale, localeText.content)))
+                .chain(() -> Task.<Task> list(
+                        "select distinct t from Task t left join fetch t.task left join fetch t.tokens"))
+                .map(tasks -> {
+                    List<CatalogSnapshot.TaskView> views = new ArrayList<>(tasks.size());
+                    for (Task task : tasks) {
+                        Map<String, String> taskTemplates = templates.computeIfAbsent(task.id, id -> new HashMap<>());
+                        String locale = task.task != null ? task.task.locale : "en";
+                        if (task.task != null && task.task.content != null) {
+                            taskTemplates.put(locale, task.task.content);
+                        }
+                        taskTemplates.values().removeIf(Objects::isNull);
+                        views.add(new CatalogSnapshot.TaskView(task.id, membership.get(task.id), task.type, task.repeat,
+                                task.frequency, task.price, task.tokens, locale, taskTemplates));
+                    }
+                    return views;
+                });
+    }
+
+    private static Uni<List<CatalogSnapshot.CategoryView>> loadCategories() {
+        Map<Long, Map<String, CategoryTranslation>> translations = new HashMap<>();
+        return LocaleCategoryText.<LocaleCategoryText> listAll()
+                .invoke(localeTexts -> localeTexts.forEach(localeText -> translations
+                        .computeIfAbsent(localeText.categoryText.category.id, id -> new HashMap<>())
+                        .put(localeText.getLocale(), new CategoryTranslation(localeText.getName(),
+                                localeText.getDescription()))))
+                .chain(() -> Category.<Category> list("from Category c left join fetch c.categoryText"))
+                .map(categories -> categories.stream()
+                        .map(category -> {
+                            Map<String, CategoryTranslation> categoryTranslations = translations
+                                    .computeIfAbsent(category.id, id -> new HashMap<>());
+                            String locale = category.categoryText != null ? category.categoryText.locale : "en";
+                            if (category.categoryText != null) {
+                                categoryTranslations.put(locale, new CategoryTranslation(category.categoryText.name,
+                                        category.categoryText.description));
+                            }
+                            return new CatalogSnapshot.CategoryView(category.id, locale, categoryTranslations);
+                        })
+                        .toList());
+    }
+}
@@ -0,0 +1,36 @@
+package com.thehuginn.catalog;
+
+/**
+ * Change of the catalog published to every replica, encoded as {@code kind|id|locale|version}
+ * to fit a Postgres notification.
+ *
+ * @param id changed task or category, null for {@link Kind#CATALOG}
+ * @param locale changed translation, null when every locale may have changed
+ * @param version monotonic catalog version assigned on publishing
+ */
+public record CatalogEvent(Kind kind, Long id, String locale, long version) {
+
+    public enum Kind {
+        TASK,
+        CATEGORY,
+        /**
+         * anything may have changed
+         */
+        CATALOG
+    }
+
+    public String encode() {
+        return kind.name() + "|" + (id != null ? id : "") + "|" + (locale != null ? locale : "") + "|" + version;
+    }
+
+    public static CatalogEvent decode(String encoded) {
+        String[] parts = encoded.split("\\|", -1);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed catalog event [%s]".formatted(encoded));
+        }
+        return new CatalogEvent(Kind.valueOf(parts[0]),
+                parts[1].isEmpty() ? null : Long.valueOf(parts[1]),
+                parts[2].isEmpty() ? null : parts[2],
+                Long.parseLong(parts[3]));
+    }
+}
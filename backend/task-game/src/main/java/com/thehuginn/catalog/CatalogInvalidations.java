@@ -0,0 +1,204 @@
+package com.thehuginn.catalog;
+
+import com.thehuginn.common.game.translation.TranslationCache;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.vertx.core.runtime.context.VertxContextSafetyToggle;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgConnectOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the catalog caches of this replica in line with writes on any replica. Writes run through
+ * {@link #write(Supplier)} and publish what they changed through {@link #task(Long, String)},
+ * {@link #category(Long, String)} or {@link #catalog()}, once the write commits every replica evicts the affected
+ * translations and rebuilds its {@link Catalog} snapshot in the background, at most one rebuild runs at a time and
+ * changes arriving meanwhile are picked up by a single rebuild after it.
+ * <p>
+ * The bus is chosen by {@code task-game.catalog.invalidation}: {@code local} for a single replica,
+ * {@code postgres} for several replicas sharing the database.
+ * <p>
+ * {@link #appliedVersion()} is the highest catalog version applied by this replica, responses carry it
+ * in {@value CatalogVersionFilter#HEADER} so a client can ask for reads at least as new as its writes.
+ */
+@ApplicationScoped
+public class CatalogInvalidations {
+
+    public enum Transport {
+        LOCAL,
+        POSTGRES
+    }
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "task-game.catalog.invalidation", defaultValue = "local")
+    Transport transport;
+
+    private static final String PENDING = CatalogInvalidations.class.getName() + ".pending";
+
+    private static final Duration REBUILD_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration REBUILD_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final AtomicLong appliedVersion = new AtomicLong();
+
+    private final AtomicReference<CompletableFuture<Void>> applied = new AtomicReference<>(new CompletableFuture<>());
+
+    private final AtomicInteger rebuilds = new AtomicInteger();
+
+    private InvalidationBus bus;
+
+    void onStart(@Observes StartupEvent event) {
+        bus = switch (transport) {
+            case LOCAL -> new LocalInvalidationBus(vertx);
+            case POSTGRES -> new PostgresInvalidationBus(vertx, connectOptions(config));
+        };
+        bus.subscribe(this::apply)
+                .subscribe().with(ignored -> Log.infof("Catalog changes are published over %s bus", transport));
+        rebuild();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (bus != null) {
+            bus.close();
+        }
+    }
+
+    /**
+     * Runs a catalog write in its own transaction. The changes it publishes are applied to this replica and
+     * handed to the bus only after the transaction commits, a concurrent read would otherwise rebuild
+     * the snapshot from the rows being replaced and keep it until the next write. A write within another write
+     * joins its transaction and its changes are applied with those of the enclosing write.
+     */
+    public <T> Uni<T> write(Supplier<Uni<T>> write) {
+        return Uni.createFrom().deferred(() -> {
+            Context context = Vertx.currentContext();
+            if (context.getLocal(PENDING) != null) {
+                return write.get();
+            }
+            List<CatalogEvent> pending = new ArrayList<>();
+            context.putLocal(PENDING, pending);
+            return Panache.withTransaction(write)
+                    .eventually(() -> context.removeLocal(PENDING))
+                    .invoke(() -> pending.forEach(this::committed));
+        });
+    }
+
+    public Uni<CatalogEvent> task(Long id, String locale) {
+        return publish(CatalogEvent.Kind.TASK, id, locale);
+    }
+
+    public Uni<CatalogEvent> category(Long id, String locale) {
+        return publish(CatalogEvent.Kind.CATEGORY, id, locale);
+    }
+
+    public Uni<CatalogEvent> catalog() {
+        return publish(CatalogEvent.Kind.CATALOG, null, null);
+    }
+
+    public long appliedVersion() {
+        return appliedVersion.get();
+    }
+
+    /**
+     * @return completes once this replica applied the change of {@code version}, a version nobody published
+     *         keeps it waiting so callers bound the wait
+     */
+    public Uni<Void> awaitVersion(long version) {
+        return Uni.createFrom().deferred(() -> {
+            CompletableFuture<Void> next = applied.get();
+            if (appliedVersion.get() >= version) {
+                return Uni.createFrom().voidItem();
+            }
+            Context context = Vertx.currentContext();
+            Uni<Void> advanced = Uni.createFrom().completionStage(next);
+            if (context != null) {
+                advanced = advanced.emitOn(runnable -> context.runOnContext(ignored -> runnable.run()));
+            }
+            return advanced.chain(() -> awaitVersion(version));
+        });
+    }
+
+    private Uni<CatalogEvent> publish(CatalogEvent.Kind kind, Long id, String locale) {
+        Context context = Vertx.currentContext();
+        List<CatalogEvent> pending = context != null ? context.getLocal(PENDING) : null;
+        if (pending == null) {
+            return Uni.createFrom().failure(new IllegalStateException("Catalog changes are published within a write"));
+        }
+        return bus.publish(kind, id, locale)
+                .invoke(pending::add);
+    }
+
+    /**
+     * The change is applied to this replica as soon as the write commits, so the writer reads its own write
+     * even before the bus delivers the event back.
+     */
+    private void committed(CatalogEvent event) {
+        apply(event);
+        bus.committed(event);
+    }
+
+    void apply(CatalogEvent event) {
+        switch (event.kind()) {
+            case TASK -> TranslationCache.invalidateTask(event.id());
+            case CATEGORY -> TranslationCache.invalidateCategory(event.id());
+            case CATALOG -> TranslationCache.clear();
+        }
+        Catalog.invalidate();
+        appliedVersion.accumulateAndGet(event.version(), Math::max);
+        applied.getAndSet(new CompletableFuture<>()).complete(null);
+        Log.debugf("Catalog change %s applied", event.encode());
+        rebuild();
+    }
+
+    /**
+     * Loads the snapshot in a session of its own, readers are served the previous snapshot meanwhile.
+     */
+    private void rebuild() {
+        if (rebuilds.getAndIncrement() > 0) {
+            return;
+        }
+        // Hibernate Reactive requires a safe duplicated context, the one of the committing request is still in use
+        Context context = VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext());
+        VertxContextSafetyToggle.setContextSafe(context, true);
+        context.runOnContext(ignored -> Panache.withSession(Catalog::load)
+                .onFailure().invoke(failure -> Log.warnf(failure, "Catalog snapshot rebuild failed, retrying"))
+                .onFailure().retry().withBackOff(REBUILD_BACKOFF, REBUILD_MAX_BACKOFF).indefinitely()
+                .subscribe().with(snapshot -> rebuilt()));
+    }
+
+    private void rebuilt() {
+        if (rebuilds.getAndSet(0) > 1) {
+            rebuild();
+        }
+    }
+
+    static PgConnectOptions connectOptions(Config config) {
+        PgConnectOptions options = PgConnectOptions.fromUri(config.getValue("quarkus.datasource.reactive.url", String.class)
+                .replaceFirst("^vertx-reactive:", ""));
+        config.getOptionalValue("quarkus.datasource.username", String.class).ifPresent(options::setUser);
+        config.getOptionalValue("quarkus.datasource.password", String.class).ifPresent(options::setPassword);
+        return options;
+    }
+}
@@ -0,0 +1,202 @@
+package com.thehuginn.catalog;
+
+import com.thehuginn.common.game.translation.CategoryText;
+import com.thehuginn.common.game.translation.TranslationCache.CategoryTranslation;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.Task;
+import com.thehuginn.token.unresolved.PlayerUnresolvedToken;
+import com.thehuginn.token.unresolved.UnresolvedToken;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of the whole catalog: categories, task metadata, task templates for every locale
+ * and the membership of tasks in categories. A snapshot is never modified, a new one replaces it
+ * in {@link Catalog} once the catalog changes.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Everything needed to generate and render a task without loading it.
+     * {@code tokens} are stateless and only ever read.
+     */
+    public record TaskView(Long id, Long categoryId, Task.Type type, Task.Repeat repeat, short frequency,
+            Task.Price price, List<UnresolvedToken> tokens, String locale, Map<String, String> templates) {
+
+        public TaskView {
+            tokens = List.copyOf(tokens);
+            templates = Map.copyOf(templates);
+        }
+
+        /**
+         * View of an already loaded task, used where the caller holds entities instead of a snapshot.
+         * Category membership is not resolved, as that would require the lazy category to be loaded.
+         */
+        public static TaskView of(Task task) {
+            String locale = task.task != null ? task.task.locale : "en";
+            Map<String, String> templates = task.task != null && task.task.content != null
+                    ? Map.of(locale, task.task.content)
+                    : Map.of();
+            return new TaskView(task.id, null, task.type, task.repeat, task.frequency, task.price, task.tokens,
+                    locale, templates);
+        }
+
+        public String template(String locale) {
+            String template = templates.get(locale);
+            return template != null ? template : templates.get(this.locale);
+        }
+
+        public boolean isResolvable(ResolutionContext context) {
+            return tokens.stream().allMatch(token -> token.isResolvable(context));
+        }
+
+        /**
+         * @return the fewest players this task is resolvable with, its {@code {player_n}} tokens decide
+         */
+        public int requiredPlayers() {
+            int required = 0;
+            for (UnresolvedToken token : tokens) {
+                if (token instanceof PlayerUnresolvedToken playerToken) {
+                    required = Math.max(required, playerToken.requiredPlayers());
+                }
+            }
+            return required;
+        }
+
+        public String getKey() {
+            return "task_" + id;
+        }
+
+        public boolean isRemovable() {
+            return repeat != Task.Repeat.ALWAYS;
+        }
+    }
+
+    /**
+     * Task of a category which needs more than one player.
+     */
+    private record Requirement(TaskView task, int players) {
+    }
+
+    public record CategoryView(Long id, String locale, Map<String, CategoryTranslation> translations) {
+
+        public CategoryView {
+            translations = Map.copyOf(translations);
+        }
+
+        public CategoryText.CategoryDto translate(String locale) {
+            CategoryTranslation translation = translations.get(locale);
+            if (translation == null) {
+                translation = translations.get(this.locale);
+            }
+            return translation != null
+                    ? new CategoryText.CategoryDto(id, translation.name(), translation.description())
+                    : new CategoryText.CategoryDto(id, null, null);
+        }
+    }
+
+    private final long version;
+    private final long generation;
+    private final Map<Long, TaskView> tasks;
+    private final Map<Long, CategoryView> categories;
+    private final Map<Long, List<TaskView>> tasksByCategory;
+    private final Map<Long, List<Requirement>> requirementsByCategory;
+
+    public CatalogSnapshot(long version, long generation, Collection<TaskView> tasks, Collection<CategoryView> categories) {
+        this.version = version;
+        this.generation = generation;
+
+        Map<Long, TaskView> taskIndex = new HashMap<>();
+        Map<Long, List<TaskView>> membership = new HashMap<>();
+        for (TaskView task : tasks) {
+            taskIndex.put(task.id(), task);
+            if (task.categoryId() != null) {
+                membership.computeIfAbsent(task.categoryId(), id -> new ArrayList<>()).add(task);
+            }
+        }
+        Map<Long, CategoryView> categoryIndex = new TreeMap<>();
+        for (CategoryView category : categories) {
+            categoryIndex.put(category.id(), category);
+        }
+        membership.replaceAll((id, categoryTasks) -> List.copyOf(categoryTasks));
+        Map<Long, List<Requirement>> requirements = new HashMap<>();
+        membership.forEach((id, categoryTasks) -> {
+            for (TaskView task : categoryTasks) {
+                int players = task.requiredPlayers();
+                if (players > 1) {
+                    requirements.computeIfAbsent(id, categoryId -> new ArrayList<>()).add(new Requirement(task, players));
+                }
+            }
+        });
+
+        this.tasks = Collections.unmodifiableMap(taskIndex);
+        this.categories = Collections.unmodifiableMap(categoryIndex);
+        this.tasksByCategory = Collections.unmodifiableMap(membership);
+        this.requirementsByCategory = Collections.unmodifiableMap(requirements);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    public TaskView task(Long id) {
+        return tasks.get(id);
+    }
+
+    public String template(Long taskId, String locale) {
+        TaskView task = tasks.get(taskId);
+        return task != null ? task.template(locale) : null;
+    }
+
+    /**
+     * @return categories ordered by id, translated to {@code locale} with a fallback to their own locale
+     */
+    public List<CategoryText.CategoryDto> categories(String locale) {
+        return categories.values().stream()
+                .map(category -> category.translate(locale))
+                .toList();
+    }
+
+    /**
+     * @return distinct tasks belonging to any of {@code categoryIds}
+     */
+    public List<TaskView> tasksOf(Collection<Long> categoryIds) {
+        Map<Long, TaskView> collected = new LinkedHashMap<>();
+        for (Long categoryId : categoryIds) {
+            for (TaskView task : tasksByCategory.getOrDefault(categoryId, List.of())) {
+                collected.putIfAbsent(task.id(), task);
+            }
+        }
+        return List.copyOf(collected.values());
+    }
+
+    /**
+     * Only tasks needing more than one player are looked at, the other ones are resolvable in every game.
+     *
+     * @return distinct tasks of {@code categoryIds} resolvable with one of the player counts but not with the other
+     */
+    public List<TaskView> tasksCrossing(Collection<Long> categoryIds, int players, int otherPlayers) {
+        int fewer = Math.min(players, otherPlayers);
+        int more = Math.max(players, otherPlayers);
+        Map<Long, TaskView> collected = new LinkedHashMap<>();
+        for (Long categoryId : categoryIds) {
+            for (Requirement requirement : requirementsByCategory.getOrDefault(categoryId, List.of())) {
+                if (requirement.players() > fewer && requirement.players() <= more) {
+                    collected.putIfAbsent(requirement.task().id(), requirement.task());
+                }
+            }
+        }
+        return List.copyOf(collected.values());
+    }
+}
@@ -0,0 +1,59 @@
+package com.thehuginn.catalog;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for catalog reads. Every response carries the catalog version applied by the replica,
+ * a request sending a higher version in {@value #HEADER} waits until the replica applied that version from the bus
+ * and rebuilt its snapshot, for at most {@code task-game.catalog.read-your-writes-timeout}. A version nobody
+ * published only delays the request which sent it, the request is served by the snapshot at hand afterwards.
+ */
+public class CatalogVersionFilter {
+
+    public static final String HEADER = "X-Catalog-Version";
+
+    @Inject
+    CatalogInvalidations catalogInvalidations;
+
+    @ConfigProperty(name = "task-game.catalog.read-your-writes-timeout", defaultValue = "1s")
+    Duration readYourWritesTimeout;
+
+    @ServerRequestFilter
+    public Uni<Void> requireVersion(ContainerRequestContext requestContext) {
+        String required = requestContext.getHeaderString(HEADER);
+        if (required == null) {
+            return Uni.createFrom().voidItem();
+        }
+        long version;
+        try {
+            version = Long.parseLong(required.trim());
+        } catch (NumberFormatException ignored) {
+            return Uni.createFrom().voidItem();
+        }
+        if (version <= catalogInvalidations.appliedVersion() && Catalog.current() != null) {
+            return Uni.createFrom().voidItem();
+        }
+        Context context = Vertx.currentContext();
+        Uni<Void> caughtUp = catalogInvalidations.awaitVersion(version)
+                .chain(Catalog::awaitCurrent)
+                .ifNoItem().after(readYourWritesTimeout).recoverWithItem(() -> null)
+                .replaceWithVoid();
+        // the timeout fires on a worker thread, the request goes on on its own context
+        return context != null ? caughtUp.emitOn(runnable -> context.runOnContext(ignored -> runnable.run())) : caughtUp;
+    }
+
+    @ServerResponseFilter
+    public void exposeVersion(ContainerResponseContext responseContext) {
+        responseContext.getHeaders().putSingle(HEADER, catalogInvalidations.appliedVersion());
+    }
+}
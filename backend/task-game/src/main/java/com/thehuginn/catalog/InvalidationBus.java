@@ -0,0 +1,32 @@
+package com.thehuginn.catalog;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CatalogEvent}s between replicas of task-game, every subscriber receives the events
+ * of every publisher including its own replica.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Assigns the next catalog version to the change and publishes it. Has to be called inside the transaction
+     * of the write, implementations may deliver the event only once it commits.
+     */
+    Uni<CatalogEvent> publish(CatalogEvent.Kind kind, Long id, String locale);
+
+    /**
+     * Called once the transaction which published {@code event} committed, for implementations which cannot
+     * tie the delivery to the transaction themselves.
+     */
+    default void committed(CatalogEvent event) {
+    }
+
+    /**
+     * @return completes once the subscriber receives events
+     */
+    Uni<Void> subscribe(Consumer<CatalogEvent> subscriber);
+
+    void close();
+}
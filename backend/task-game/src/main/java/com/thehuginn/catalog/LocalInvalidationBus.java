@@ -0,0 +1,62 @@
+package com.thehuginn.catalog;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in bus over the Vert.x event bus, reaching the replicas sharing the event bus, which without
+ * clustering are the ones within the same JVM. Events are sent once the write commits, see {@link #committed}.
+ * <p>
+ * Versions work as a Lamport clock, every replica continues from the highest version it has seen.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+    static final String ADDRESS = "task-game.catalog";
+
+    private final Vertx vertx;
+    private final AtomicLong version = new AtomicLong();
+    private final List<MessageConsumer<String>> consumers = new ArrayList<>();
+
+    public LocalInvalidationBus(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    @Override
+    public Uni<CatalogEvent> publish(CatalogEvent.Kind kind, Long id, String locale) {
+        return Uni.createFrom().item(new CatalogEvent(kind, id, locale, version.incrementAndGet()));
+    }
+
+    @Override
+    public void committed(CatalogEvent event) {
+        vertx.eventBus().publish(ADDRESS, event.encode());
+    }
+
+    @Override
+    public synchronized Uni<Void> subscribe(Consumer<CatalogEvent> subscriber) {
+        MessageConsumer<String> consumer = vertx.eventBus().localConsumer(ADDRESS, message -> {
+            CatalogEvent event = CatalogEvent.decode(message.body());
+            version.accumulateAndGet(event.version(), Math::max);
+            subscriber.accept(event);
+        });
+        consumers.add(consumer);
+        return Uni.createFrom().emitter(emitter -> consumer.completionHandler(registered -> {
+            if (registered.succeeded()) {
+                emitter.complete(null);
+            } else {
+                emitter.fail(registered.cause());
+            }
+        }));
+    }
+
+    @Override
+    public synchronized void close() {
+        consumers.forEach(MessageConsumer::unregister);
+        consumers.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.thehuginn.catalog;
+
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+
+import java.util.function.Consumer;
+
+/**
+ * Bus over Postgres {@code LISTEN/NOTIFY}. The notification is sent within the transaction of the write,
+ * so Postgres delivers it to every listening replica only once the write commits, and drops it on rollback.
+ * Versions come from the {@value #SEQUENCE} sequence shared by all replicas, created once with the schema
+ * by {@code import.sql}.
+ */
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    static final String CHANNEL = "task_game_catalog";
+    static final String SEQUENCE = "task_game_catalog_version";
+
+    private final PgSubscriber subscriber;
+
+    public PostgresInvalidationBus(Vertx vertx, PgConnectOptions connectOptions) {
+        this.subscriber = PgSubscriber.subscriber(vertx, connectOptions)
+                .reconnectPolicy(retries -> 1000L);
+        this.subscriber.closeHandler(ignored -> Log.warn("Listening to catalog changes was interrupted, reconnecting"));
+    }
+
+    @Override
+    public Uni<CatalogEvent> publish(CatalogEvent.Kind kind, Long id, String locale) {
+        return Panache.getSession()
+                .chain(session -> session.createNativeQuery("select nextval('" + SEQUENCE + "')", Long.class)
+                        .getSingleResult()
+                        .map(version -> new CatalogEvent(kind, id, locale, version))
+                        .call(event -> session.createNativeQuery("select 1 from pg_notify(:channel, :payload)")
+                                .setParameter("channel", CHANNEL)
+                                .setParameter("payload", event.encode())
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Uni<Void> subscribe(Consumer<CatalogEvent> consumer) {
+        subscriber.channel(CHANNEL)
+                .handler(payload -> consumer.accept(CatalogEvent.decode(payload)));
+        return Uni.createFrom().completionStage(() -> subscriber.connect().toCompletionStage())
+                .onFailure().invoke(failure -> Log.errorf(failure, "Unable to listen to catalog changes on %s", CHANNEL));
+    }
+
+    @Override
+    public void close() {
+        subscriber.close();
+    }
+}
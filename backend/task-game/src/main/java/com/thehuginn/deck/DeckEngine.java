@@ -0,0 +1,26 @@
+package com.thehuginn.deck;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.util.Locale;
+
+/**
+ * How a game decides on its tasks, chosen by {@code task-game.deck.engine} when the game starts.
+ */
+public enum DeckEngine {
+    /**
+     * the whole deck is generated at start as {@code GameTask} rows
+     */
+    PREBUILT,
+    /**
+     * every next task is drawn on demand from the categories of the game, see {@link SamplerDeck}
+     */
+    SAMPLER;
+
+    public static DeckEngine configured() {
+        return ConfigProvider.getConfig()
+                .getOptionalValue("task-game.deck.engine", String.class)
+                .map(engine -> DeckEngine.valueOf(engine.trim().toUpperCase(Locale.ROOT)))
+                .orElse(PREBUILT);
+    }
+}
@@ -0,0 +1,72 @@
+package com.thehuginn.deck;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Places PER_PLAYER tasks into a deck of regular tasks so that every task lands on a turn of its player.
+ * <p>
+ * The deck is played in turns, position {@code p} belongs to the player with index {@code p % players}.
+ * A player with {@code c} tasks has the positions of their turns cut into {@code c} equally sized slices
+ * and gets one task at a random position of each slice, which spreads their tasks over the whole deck.
+ * Players may have different amounts of tasks. Regular tasks fill the remaining positions in their order.
+ * <p>
+ * Should a player have more tasks than turns in the deck, the tasks without a turn are put at the end of the deck,
+ * where game play picks them up by their assigned player.
+ * <p>
+ * Works in a single pass over primitive index arrays, {@code O(n)} in the size of the deck.
+ */
+public final class DeckInterleaver {
+
+    private static final int FREE = -1;
+
+    private DeckInterleaver() {
+    }
+
+    /**
+     * @param regularCount number of tasks without an assigned player, in the order they should be played
+     * @param perPlayerCounts number of PER_PLAYER tasks of each player, indexed by turn order
+     * @return order of the deck; a value {@code v < regularCount} is the v-th regular task, otherwise
+     *         {@code v - regularCount} indexes PER_PLAYER tasks laid out player after player in turn order
+     */
+    public static int[] interleave(int regularCount, int[] perPlayerCounts, RandomGenerator random) {
+        int players = perPlayerCounts.length;
+        int perPlayerTotal = 0;
+        for (int count : perPlayerCounts) {
+            perPlayerTotal += count;
+        }
+        int total = regularCount + perPlayerTotal;
+        int[] deck = new int[total];
+        Arrays.fill(deck, FREE);
+
+        // PER_PLAYER tasks which did not get a turn, kept in their order
+        int[] overflow = new int[perPlayerTotal];
+        int overflowCount = 0;
+
+        int taskIndex = regularCount;
+        for (int player = 0; player < players; player++) {
+            int count = perPlayerCounts[player];
+            int turns = player < total ? (total - 1 - player) / players + 1 : 0;
+            int placed = Math.min(count, turns);
+            for (int slice = 0; slice < placed; slice++) {
+                int from = (int) ((long) slice * turns / placed);
+                int to = (int) ((long) (slice + 1) * turns / placed);
+                int turn = from + random.nextInt(to - from);
+                deck[player + turn * players] = taskIndex + slice;
+            }
+            for (int slice = placed; slice < count; slice++) {
+                overflow[overflowCount++] = taskIndex + slice;
+            }
+            taskIndex += count;
+        }
+
+        int nextRegular = 0;
+        int nextOverflow = 0;
+        for (int position = 0; position < total; position++) {
+            if (deck[position] == FREE) {
+                deck[position] = nextRegular < regularCount ? nextRegular++ : overflow[nextOverflow++];
+            }
+        }
+        return deck;
+    }
+}
@@ -0,0 +1,159 @@
+package com.thehuginn.deck;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses the positions of tasks added to the deck of a running game. The deck is ordered by a position column
+ * with gaps between the tasks, so an added task is inserted between two remaining tasks instead of taking
+ * over a row, and the remaining tasks keep their rows.
+ * <p>
+ * The remaining deck is played in turns from the cursor on, the remaining task with index {@code i} belongs to
+ * the player with index {@code (first + i) % players}. Added regular tasks are merged into the remaining regular
+ * tasks at uniformly random places, which keep their positions. Every insert shifts the turns of the tasks
+ * behind it, so the PER_PLAYER tasks of the remaining deck are spread again together with the added ones by
+ * {@link DeckInterleaver} and get new positions, each on a turn of its player.
+ * <p>
+ * Runs in {@code O(n)} over primitive arrays of the remaining deck. Should the gap between two positions run out,
+ * the whole remaining deck is numbered anew.
+ */
+public final class DeckSplicer {
+
+    /**
+     * Distance between the positions of a generated deck
+     */
+    public static final long GAP = 1L << 20;
+
+    /**
+     * Owner of a task any player may get
+     */
+    public static final int REGULAR = -1;
+
+    private DeckSplicer() {
+    }
+
+    /**
+     * @param after position of the dealt task, the remaining deck follows it
+     * @param positions positions of the remaining deck in ascending order
+     * @param owners index of the player each remaining task is assigned to, {@link #REGULAR} for the others
+     * @param added index of the player each added task is assigned to, {@link #REGULAR} for the others
+     * @param first index of the player playing the first remaining task
+     * @return positions of the remaining tasks followed by those of the added tasks; remaining regular tasks keep
+     *         theirs unless the deck had to be numbered anew
+     */
+    public static long[] splice(long after, long[] positions, int[] owners, int[] added, int players, int first,
+            RandomGenerator random) {
+        int remaining = positions.length;
+        int total = remaining + added.length;
+
+        // regular tasks, the remaining ones in their order with the added ones merged in at random
+        int anchors = 0;
+        for (int owner : owners) {
+            anchors += owner == REGULAR ? 1 : 0;
+        }
+        int[] insertions = new int[total - remaining];
+        int insertionCount = 0;
+        int[] perPlayerCounts = new int[players];
+        for (int task = 0; task < added.length; task++) {
+            if (added[task] == REGULAR) {
+                insertions[insertionCount++] = remaining + task;
+            } else {
+                perPlayerCounts[Math.floorMod(added[task] - first, players)]++;
+            }
+        }
+        for (int task = 0; task < remaining; task++) {
+            if (owners[task] != REGULAR) {
+                perPlayerCounts[Math.floorMod(owners[task] - first, players)]++;
+            }
+        }
+        shuffle(insertions, 0, insertionCount, random);
+
+        int regularCount = anchors + insertionCount;
+        int[] regular = new int[regularCount];
+        int nextAnchor = 0;
+        int pending = insertionCount;
+        for (int slot = 0; slot < regularCount; slot++) {
+            if (random.nextInt(regularCount - slot) < pending) {
+                regular[slot] = insertions[--pending];
+                continue;
+            }
+            while (owners[nextAnchor] != REGULAR) {
+                nextAnchor++;
+            }
+            regular[slot] = nextAnchor++;
+        }
+
+        // PER_PLAYER tasks laid out player after player in turn order, each player's in random order
+        int[] perPlayer = new int[total - regularCount];
+        int[] offsets = new int[players];
+        for (int player = 1; player < players; player++) {
+            offsets[player] = offsets[player - 1] + perPlayerCounts[player - 1];
+        }
+        int[] filled = offsets.clone();
+        for (int task = 0; task < total; task++) {
+            int owner = task < remaining ? owners[task] : added[task - remaining];
+            if (owner != REGULAR) {
+                perPlayer[filled[Math.floorMod(owner - first, players)]++] = task;
+            }
+        }
+        for (int player = 0; player < players; player++) {
+            shuffle(perPlayer, offsets[player], perPlayerCounts[player], random);
+        }
+
+        int[] order = regular;
+        if (perPlayer.length > 0) {
+            int[] deck = DeckInterleaver.interleave(regularCount, perPlayerCounts, random);
+            order = new int[total];
+            for (int index = 0; index < total; index++) {
+                order[index] = deck[index] < regularCount ? regular[deck[index]] : perPlayer[deck[index] - regularCount];
+            }
+        }
+
+        long[] spliced = new long[total];
+        if (!place(after, positions, owners, order, spliced)) {
+            for (int index = 0; index < total; index++) {
+                spliced[order[index]] = after + (index + 1) * GAP;
+            }
+        }
+        return spliced;
+    }
+
+    /**
+     * Remaining regular tasks keep their positions, the tasks between them are spaced evenly over the gap.
+     *
+     * @return false when a gap is too small for the tasks put into it
+     */
+    private static boolean place(long after, long[] positions, int[] owners, int[] order, long[] spliced) {
+        long low = after;
+        int runStart = 0;
+        for (int index = 0; index <= order.length; index++) {
+            boolean anchor = index < order.length && order[index] < positions.length && owners[order[index]] == REGULAR;
+            if (!anchor && index < order.length) {
+                continue;
+            }
+            int run = index - runStart;
+            long high = anchor ? positions[order[index]] : low + (run + 1) * GAP;
+            if (high - low - 1 < run) {
+                return false;
+            }
+            long step = (high - low) / (run + 1);
+            for (int offset = 0; offset < run; offset++) {
+                spliced[order[runStart + offset]] = low + (offset + 1) * step;
+            }
+            if (anchor) {
+                spliced[order[index]] = high;
+                low = high;
+            }
+            runStart = index + 1;
+        }
+        return true;
+    }
+
+    private static void shuffle(int[] values, int from, int count, RandomGenerator random) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[from + i];
+            values[from + i] = values[from + j];
+            values[from + j] = value;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.thehuginn.deck;
+
+import com.thehuginn.catalog.CatalogSnapshot;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.Task;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Everything of a prebuilt deck which does not depend on the names of the players or on chance: the tasks
+ * resolvable for the number of players and how many entries and copies each of them expands to.
+ * <p>
+ * Resolvability of a task depends only on the number of players its {@code {player_n}} tokens require, so
+ * a template serves every game of the same categories, player count and catalog version, see
+ * {@link DeckTemplates}.
+ */
+public record DeckTemplate(List<Entry> entries, boolean virtual) {
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    /**
+     * Decks which would have more rows than this keep one entry per task and deal copies lazily
+     */
+    static final int MATERIALIZE_LIMIT = CONFIG.getOptionalValue("task-game.deck.materialize-limit", Integer.class)
+            .orElse(500);
+    static final int MAX_FREQUENCY = CONFIG.getOptionalValue("task-game.deck.max-frequency", Integer.class)
+            .orElse(20);
+
+    /**
+     * @param single the task is kept as one virtual entry, {@code multiplicity} copies are dealt from it
+     * @param copies entries of the task, each of them once per player when it is {@code perPlayer}
+     * @param multiplicity copies dealt from each entry
+     */
+    public record Entry(CatalogSnapshot.TaskView task, boolean single, boolean perPlayer, short copies,
+            short multiplicity) {
+    }
+
+    public DeckTemplate {
+        entries = List.copyOf(entries);
+    }
+
+    public static DeckTemplate build(Collection<CatalogSnapshot.TaskView> allTasks, ResolutionContext context) {
+        int players = context.getPlayers().size();
+        List<CatalogSnapshot.TaskView> tasks = allTasks.stream()
+                .filter(task -> task.isResolvable(context))
+                .toList();
+        boolean virtual = materializedSize(tasks, players) > MATERIALIZE_LIMIT;
+        List<Entry> entries = new ArrayList<>(tasks.size());
+        for (CatalogSnapshot.TaskView task : tasks) {
+            short frequency = (short) Math.min(task.frequency(), MAX_FREQUENCY);
+            boolean perPlayer = task.repeat().equals(Task.Repeat.PER_PLAYER);
+            if (virtual && (!perPlayer || players <= Long.SIZE)) {
+                entries.add(new Entry(task, true, perPlayer, (short) 1, frequency));
+            } else {
+                // with too many players for a virtual PER_PLAYER entry only the frequency is kept virtual
+                entries.add(new Entry(task, false, perPlayer, virtual ? 1 : frequency, virtual ? frequency : 1));
+            }
+        }
+        return new DeckTemplate(entries, virtual);
+    }
+
+    private static long materializedSize(Collection<CatalogSnapshot.TaskView> tasks, int players) {
+        long size = 0;
+        for (CatalogSnapshot.TaskView task : tasks) {
+            long copies = Math.min(task.frequency(), MAX_FREQUENCY);
+            size += task.repeat().equals(Task.Repeat.PER_PLAYER) ? copies * players : copies;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,45 @@
+package com.thehuginn.deck;
+
+import com.thehuginn.common.game.cache.CacheRegion;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Exports the lookups of {@link DeckTemplates} as {@code task-game.deck.templates} counters tagged by
+ * their result, the hit ratio since start and the number of cached templates.
+ */
+@ApplicationScoped
+public class DeckTemplateMetrics {
+
+    static final String METRIC = "task-game.deck.templates";
+
+    @Inject
+    MeterRegistry registry;
+
+    void onStart(@Observes StartupEvent event) {
+        CacheRegion<DeckTemplates.Key, DeckTemplate> templates = DeckTemplates.region();
+        FunctionCounter.builder(METRIC, templates, CacheRegion::hits)
+                .description("Starts of a game served by a cached deck template")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(METRIC, templates, CacheRegion::misses)
+                .description("Starts of a game which built their deck template")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder(METRIC + ".hit-ratio", templates, DeckTemplateMetrics::hitRatio)
+                .register(registry);
+        Gauge.builder(METRIC + ".size", templates, CacheRegion::size)
+                .register(registry);
+    }
+
+    static double hitRatio(CacheRegion<?, ?> region) {
+        long hits = region.hits();
+        long lookups = hits + region.misses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
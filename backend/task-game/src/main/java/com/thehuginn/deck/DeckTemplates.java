@@ -0,0 +1,54 @@
+package com.thehuginn.deck;
+
+import com.thehuginn.catalog.CatalogSnapshot;
+import com.thehuginn.common.game.cache.CacheRegion;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Least-recently-used {@link DeckTemplate}s of the category combinations games start with, sized by
+ * {@code task-game.deck.templates.max-entries}. Most parties pick one of a few combinations, a start of
+ * one of them then only expands and shuffles its template.
+ * <p>
+ * Templates are keyed by the catalog version, those of older versions are dropped once a newer one is seen.
+ * Hits and misses are exported by {@link DeckTemplateMetrics}.
+ */
+public final class DeckTemplates {
+
+    public record Key(List<Long> categoryIds, int players, long catalogVersion) {
+    }
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final CacheRegion<Key, DeckTemplate> TEMPLATES = new CacheRegion<>("deck-template",
+            CONFIG.getOptionalValue("task-game.deck.templates.max-entries", Integer.class).orElse(256),
+            CONFIG.getOptionalValue("task-game.deck.templates.ttl", Duration.class).orElse(Duration.ofHours(1)));
+
+    private DeckTemplates() {
+    }
+
+    public static DeckTemplate template(CatalogSnapshot snapshot, Collection<Long> categoryIds,
+            ResolutionContext context) {
+        Key key = new Key(categoryIds.stream().sorted().distinct().toList(), context.getPlayers().size(),
+                snapshot.version());
+        DeckTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            template = DeckTemplate.build(snapshot.tasksOf(key.categoryIds()), context);
+            TEMPLATES.invalidateIf(cached -> cached.catalogVersion() < key.catalogVersion());
+            TEMPLATES.put(key, template);
+        }
+        return template;
+    }
+
+    public static void clear() {
+        TEMPLATES.clear();
+    }
+
+    static CacheRegion<Key, DeckTemplate> region() {
+        return TEMPLATES;
+    }
+}
@@ -0,0 +1,73 @@
+package com.thehuginn.deck;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted sampling with updates, both in {@code O(log n)}. Items are indexed from {@code 0},
+ * an item with weight {@code 0} is never sampled.
+ */
+public final class FenwickSampler {
+
+    private final long[] tree;
+    private final int[] weights;
+
+    public FenwickSampler(int[] weights) {
+        this.weights = weights.clone();
+        this.tree = new long[weights.length + 1];
+        // linear construction, every node passes its sum to its parent
+        for (int i = 1; i <= weights.length; i++) {
+            tree[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= weights.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public int weight(int index) {
+        return weights[index];
+    }
+
+    public void set(int index, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight can not be negative");
+        }
+        long delta = (long) weight - weights[index];
+        weights[index] = weight;
+        for (int i = index + 1; i <= weights.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    public long total() {
+        long total = 0;
+        for (int i = weights.length; i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+
+    /**
+     * @return index of the sampled item or {@code -1} when all weights are {@code 0}
+     */
+    public int sample(RandomGenerator random) {
+        long total = total();
+        if (total <= 0) {
+            return -1;
+        }
+        long target = random.nextLong(total);
+        int position = 0;
+        for (int step = Integer.highestOneBit(Math.max(weights.length, 1)); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= weights.length && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,154 @@
+package com.thehuginn.deck;
+
+import com.thehuginn.catalog.CatalogSnapshot;
+import com.thehuginn.common.game.cache.CacheRegion;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.Task;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws tasks on demand for games using {@link DeckEngine#SAMPLER}. Nothing is generated at start,
+ * every draw picks one of the tasks of the selected categories with probability proportional to
+ * its remaining copies: {@code frequency} for {@link Task.Repeat#ALWAYS} tasks, which are put back
+ * after every draw, and the copies not dealt yet for the other tasks, which are gone once dealt.
+ * <p>
+ * With {@code task-game.deck.sampler.balance-categories} every selected category carries the same total
+ * weight, so a category with a few tasks is not drowned by a large one.
+ * <p>
+ * The only persistent state is the {@link SamplerState} of the game. The sampler built from it is kept
+ * in memory and rebuilt whenever the categories, players, catalog or state no longer match, which
+ * makes category toggles take effect with the very next draw.
+ */
+public final class SamplerDeck {
+
+    /**
+     * Total weight of a category when categories are balanced
+     */
+    static final int CATEGORY_WEIGHT = 1 << 16;
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+    private static final boolean BALANCE_CATEGORIES = CONFIG
+            .getOptionalValue("task-game.deck.sampler.balance-categories", Boolean.class)
+            .orElse(Boolean.TRUE);
+    private static final CacheRegion<String, Sampler> SAMPLERS = new CacheRegion<>("deck-sampler",
+            CONFIG.getOptionalValue("task-game.deck.sampler.max-games", Integer.class).orElse(1024),
+            CONFIG.getOptionalValue("task-game.deck.sampler.ttl", Duration.class).orElse(Duration.ofHours(1)));
+
+    private SamplerDeck() {
+    }
+
+    /**
+     * Draws the next task and records it in {@code state}.
+     *
+     * @return the drawn task or null when no task of {@code categoryIds} remains
+     */
+    public static CatalogSnapshot.TaskView draw(String gameId, Collection<Long> categoryIds, CatalogSnapshot snapshot,
+            ResolutionContext context, SamplerState state, RandomGenerator random) {
+        Set<Long> categories = Set.copyOf(categoryIds);
+        int players = context.getPlayers().size();
+        Sampler sampler = SAMPLERS.get(gameId);
+        if (sampler == null || !sampler.matches(snapshot.version(), categories, players, state.draws())) {
+            sampler = Sampler.build(snapshot, categories, context, state, BALANCE_CATEGORIES);
+            SAMPLERS.put(gameId, sampler);
+        }
+        return sampler.draw(snapshot, state, players, random);
+    }
+
+    public static void forget(String gameId) {
+        SAMPLERS.invalidate(gameId);
+    }
+
+    static int remaining(CatalogSnapshot.TaskView task, int dealt, int players) {
+        return switch (task.repeat()) {
+            case ALWAYS -> task.frequency();
+            case NEVER -> Math.max(task.frequency() - dealt, 0);
+            case PER_PLAYER -> Math.max(task.frequency() * players - dealt, 0);
+        };
+    }
+
+    /**
+     * Sampler over the eligible tasks of one game, draws of the same game are serialized on it.
+     */
+    static final class Sampler {
+
+        private final long catalogVersion;
+        private final Set<Long> categories;
+        private final int players;
+        private final long[] taskIds;
+        private final int[] scales;
+        private final FenwickSampler weights;
+        private long draws;
+
+        private Sampler(long catalogVersion, Set<Long> categories, int players, long[] taskIds, int[] scales,
+                FenwickSampler weights, long draws) {
+            this.catalogVersion = catalogVersion;
+            this.categories = categories;
+            this.players = players;
+            this.taskIds = taskIds;
+            this.scales = scales;
+            this.weights = weights;
+            this.draws = draws;
+        }
+
+        static Sampler build(CatalogSnapshot snapshot, Set<Long> categories, ResolutionContext context,
+                SamplerState state, boolean balanceCategories) {
+            int players = context.getPlayers().size();
+            List<CatalogSnapshot.TaskView> tasks = snapshot.tasksOf(categories).stream()
+                    .filter(task -> task.isResolvable(context))
+                    .toList();
+
+            Map<Long, Long> categoryTotals = new HashMap<>();
+            for (CatalogSnapshot.TaskView task : tasks) {
+                categoryTotals.merge(task.categoryId(), (long) remaining(task, 0, players), Long::sum);
+            }
+
+            long[] taskIds = new long[tasks.size()];
+            int[] scales = new int[tasks.size()];
+            int[] initial = new int[tasks.size()];
+            for (int i = 0; i < tasks.size(); i++) {
+                CatalogSnapshot.TaskView task = tasks.get(i);
+                long categoryTotal = categoryTotals.get(task.categoryId());
+                taskIds[i] = task.id();
+                scales[i] = balanceCategories && categoryTotal > 0
+                        ? (int) Math.max(1, CATEGORY_WEIGHT / categoryTotal)
+                        : 1;
+                initial[i] = weight(remaining(task, state.dealt(task.id()), players), scales[i]);
+            }
+            return new Sampler(snapshot.version(), categories, players, taskIds, scales, new FenwickSampler(initial),
+                    state.draws());
+        }
+
+        synchronized boolean matches(long catalogVersion, Set<Long> categories, int players, long draws) {
+            return this.catalogVersion == catalogVersion && this.categories.equals(categories)
+                    && this.players == players && this.draws == draws;
+        }
+
+        synchronized CatalogSnapshot.TaskView draw(CatalogSnapshot snapshot, SamplerState state, int players,
+                RandomGenerator random) {
+            int index = weights.sample(random);
+            if (index < 0) {
+                return null;
+            }
+            CatalogSnapshot.TaskView task = snapshot.task(taskIds[index]);
+            state.deal(task.id());
+            draws = state.draws();
+            if (task.repeat() != Task.Repeat.ALWAYS) {
+                weights.set(index, weight(remaining(task, state.dealt(task.id()), players), scales[index]));
+            }
+            return task;
+        }
+
+        private static int weight(int remaining, int scale) {
+            return (int) Math.min(Integer.MAX_VALUE, (long) remaining * scale);
+        }
+    }
+}
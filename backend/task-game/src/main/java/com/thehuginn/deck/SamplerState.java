@@ -0,0 +1,91 @@
+package com.thehuginn.deck;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Copies of tasks dealt so far in a game using {@link DeckEngine#SAMPLER}. Only tasks which were
+ * dealt at least once take space, the state is kept as two parallel arrays sorted by task id and
+ * stored as {@code 10} bytes per task.
+ */
+public final class SamplerState {
+
+    private static final int ENTRY_BYTES = Long.BYTES + Short.BYTES;
+
+    private long[] taskIds;
+    private short[] dealt;
+    private int size;
+    private long draws;
+
+    private SamplerState(long[] taskIds, short[] dealt, int size) {
+        this.taskIds = taskIds;
+        this.dealt = dealt;
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            draws += dealt[i];
+        }
+    }
+
+    public static SamplerState empty() {
+        return new SamplerState(new long[8], new short[8], 0);
+    }
+
+    public static SamplerState decode(byte[] encoded) {
+        if (encoded == null || encoded.length == 0) {
+            return empty();
+        }
+        if (encoded.length % ENTRY_BYTES != 0) {
+            throw new IllegalArgumentException("Corrupted sampler state of " + encoded.length + " bytes");
+        }
+        int size = encoded.length / ENTRY_BYTES;
+        long[] taskIds = new long[size];
+        short[] dealt = new short[size];
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        for (int i = 0; i < size; i++) {
+            taskIds[i] = buffer.getLong();
+            dealt[i] = buffer.getShort();
+        }
+        return new SamplerState(taskIds, dealt, size);
+    }
+
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(size * ENTRY_BYTES);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(taskIds[i]);
+            buffer.putShort(dealt[i]);
+        }
+        return buffer.array();
+    }
+
+    public int dealt(long taskId) {
+        int index = Arrays.binarySearch(taskIds, 0, size, taskId);
+        return index >= 0 ? dealt[index] : 0;
+    }
+
+    public void deal(long taskId) {
+        int index = Arrays.binarySearch(taskIds, 0, size, taskId);
+        if (index < 0) {
+            index = -index - 1;
+            if (size == taskIds.length) {
+                taskIds = Arrays.copyOf(taskIds, size * 2);
+                dealt = Arrays.copyOf(dealt, size * 2);
+            }
+            System.arraycopy(taskIds, index, taskIds, index + 1, size - index);
+            System.arraycopy(dealt, index, dealt, index + 1, size - index);
+            taskIds[index] = taskId;
+            dealt[index] = 0;
+            size++;
+        }
+        if (dealt[index] < Short.MAX_VALUE) {
+            dealt[index]++;
+            draws++;
+        }
+    }
+
+    /**
+     * @return copies dealt in total, used to tell whether a cached sampler still matches this state
+     */
+    public long draws() {
+        return draws;
+    }
+}
@@ -0,0 +1,58 @@
+package com.thehuginn.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a deck generated at the start of a game, its duration covers the generation
+ * and the inserts of the deck.
+ */
+@Name("com.thehuginn.DeckGenerated")
+@Label("Deck Generated")
+@Category({ "Party Game", "Deck" })
+@Description("Deck of a game generated from the tasks of its categories")
+@StackTrace(false)
+public class DeckGeneratedEvent extends Event {
+
+    @Label("Game")
+    public String gameId;
+
+    @Label("Players")
+    public int players;
+
+    @Label("Candidate Tasks")
+    @Description("Tasks of the categories resolvable for the players")
+    public int candidates;
+
+    @Label("Deck Size")
+    public int tasks;
+
+    @Label("Virtual")
+    @Description("Copies of a task are dealt lazily instead of being inserted")
+    public boolean virtual;
+
+    /**
+     * @return the running event, null when it is disabled so nothing is kept across the inserts
+     */
+    public static DeckGeneratedEvent start(String gameId, int players) {
+        DeckGeneratedEvent event = new DeckGeneratedEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.gameId = gameId;
+        event.players = players;
+        event.begin();
+        return event;
+    }
+
+    public void complete() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.thehuginn.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a single token, resolved when its task is dealt or rendered into the result
+ * of a turn. Translations the token waits for are recorded as {@code com.thehuginn.TranslationLookup}.
+ */
+@Name("com.thehuginn.TokenResolution")
+@Label("Token Resolution")
+@Category({ "Party Game", "Token" })
+@Description("Resolution of a token of a task")
+@StackTrace(false)
+public class TokenResolutionEvent extends Event {
+
+    public enum Phase {
+        /**
+         * unresolved token of a task resolved for the player the task is dealt to
+         */
+        DEAL,
+        /**
+         * resolved token appended to the result of a turn
+         */
+        RENDER
+    }
+
+    @Label("Game")
+    public String gameId;
+
+    @Label("Token Type")
+    public Class<?> tokenType;
+
+    @Label("Phase")
+    public String phase;
+
+    /**
+     * @return true while a recording enables the event, checked once for all tokens of a task
+     */
+    public static boolean enabled() {
+        return Type.EVENT_TYPE.isEnabled();
+    }
+
+    /**
+     * @return the begun event of a token, null while it is disabled so no event is allocated
+     */
+    public static TokenResolutionEvent start(boolean enabled) {
+        if (!enabled) {
+            return null;
+        }
+        TokenResolutionEvent event = new TokenResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the event begun before the token was resolved.
+     */
+    public void complete(String gameId, Object token, Phase phase) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId;
+            this.tokenType = token.getClass();
+            this.phase = phase.name();
+            commit();
+        }
+    }
+
+    private static final class Type {
+
+        private static final EventType EVENT_TYPE = EventType.getEventType(TokenResolutionEvent.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.thehuginn.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a turn, from the removal of the previous task until the next one is dealt.
+ */
+@Name("com.thehuginn.TurnAdvanced")
+@Label("Turn Advanced")
+@Category({ "Party Game", "Turn" })
+@Description("Next task dealt to the next player")
+@StackTrace(false)
+public class TurnAdvancedEvent extends Event {
+
+    /**
+     * How the next task was found in a prebuilt deck.
+     */
+    public enum Fallback {
+        /**
+         * the task following the previous one
+         */
+        NONE,
+        /**
+         * the following task did not suit the player, the next one assigned to them was taken
+         */
+        ASSIGNED,
+        /**
+         * the next unassigned task
+         */
+        UNASSIGNED,
+        /**
+         * the first unassigned task of the deck
+         */
+        RESTART,
+        /**
+         * no suitable task remains
+         */
+        EXHAUSTED,
+        /**
+         * drawn by the sampler, which has no fallbacks
+         */
+        SAMPLED
+    }
+
+    @Label("Game")
+    public String gameId;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Task")
+    public long taskId = -1;
+
+    @Label("Game Task")
+    public long gameTaskId = -1;
+
+    @Label("Queries")
+    @Description("SQL statements issued during the turn")
+    public long queries;
+
+    @Label("Fallback")
+    public String fallback;
+
+    private transient long queriesBefore;
+
+    /**
+     * @param queries statements issued so far on the current context
+     * @return the running event, null when it is disabled so nothing is kept across the queries
+     */
+    public static TurnAdvancedEvent start(String gameId, String player, long queries) {
+        TurnAdvancedEvent event = new TurnAdvancedEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.gameId = gameId;
+        event.player = player;
+        event.queriesBefore = queries;
+        event.fallback = Fallback.NONE.name();
+        event.begin();
+        return event;
+    }
+
+    public void fallback(Fallback fallback) {
+        this.fallback = fallback.name();
+    }
+
+    public void dealt(long gameTaskId, long taskId) {
+        this.gameTaskId = gameTaskId;
+        this.taskId = taskId;
+    }
+
+    /**
+     * @param queries statements issued so far on the current context
+     */
+    public void complete(long queries) {
+        end();
+        if (shouldCommit()) {
+            this.queries = queries - queriesBefore;
+            commit();
+        }
+    }
+}
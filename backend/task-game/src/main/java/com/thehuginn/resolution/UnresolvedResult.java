@@ -6,6 +6,9 @@ import io.smallrye.mutiny.Uni;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Accumulates the rendering of a task, a single instance collects the data of every token of the task.
+ */
 public class UnresolvedResult {
 
     private Map.Entry<String, Uni<String>> task;
@@ -41,12 +44,17 @@ public class UnresolvedResult {
         return this;
     }
 
+    public UnresolvedResult appendData(String key, Object value) {
+        data.put(key, value);
+        return this;
+    }
+
     public static class ResolvedResult {
 
         private final Map<String, Object> data;
 
         private ResolvedResult(Map.Entry<String, String> task, Map<String, Object> data) {
-            Log.infof("Creating new resolved result with task: [%s] data: [%s]", task, data);
+            Log.debugf("Creating new resolved result with task: [%s] data: [%s]", task, data);
             this.data = data;
             String resolvedTask = task.getValue();
             for (Map.Entry<String, Object> entry : data.entrySet()) {
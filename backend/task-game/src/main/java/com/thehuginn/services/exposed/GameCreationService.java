@@ -1,16 +1,22 @@
 package com.thehuginn.services.exposed;
 
 import com.thehuginn.GameSession;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.catalog.CatalogInvalidations;
 import com.thehuginn.category.Category;
 import com.thehuginn.common.game.translation.CategoryText;
+import com.thehuginn.common.services.exposed.Roster;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.services.hidden.GameExecutor;
 import com.thehuginn.task.GameTask;
 import com.thehuginn.task.Task;
 import com.thehuginn.token.resolved.AbstractResolvedToken;
 import com.thehuginn.token.unresolved.AbstractUnresolvedToken;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
@@ -22,6 +28,7 @@ import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.resteasy.reactive.RestCookie;
 import org.jboss.resteasy.reactive.RestPath;
+import org.jboss.resteasy.reactive.RestResponse;
 
 import java.util.List;
 import java.util.Set;
@@ -33,20 +40,23 @@ import java.util.stream.Collectors;
 @RequestScoped
 public class GameCreationService {
 
+    @Inject
+    CatalogInvalidations catalogInvalidations;
+
+    @Inject
+    GameExecutor gameExecutor;
+
     @GET
     @Path("/category")
     @WithTransaction
     public Uni<List<CategoryText.CategoryDto>> getCategories(@RestCookie @DefaultValue("en") String locale) {
-        //noinspection unchecked
-        return Category.<Category> listAll().map(
-                categories -> categories.stream()
-                        .map(category -> category.categoryText.translate(ResolutionContext.locale(locale)))
-                        .toList())
-                .chain(unis -> Uni.combine().all().<List<CategoryText.CategoryDto>> unis(unis)
-                        .usingConcurrencyOf(1)
-                        .combinedWith(objects -> (List<CategoryText.CategoryDto>) objects));
+        return Catalog.snapshot()
+                .map(snapshot -> snapshot.categories(locale));
     }
 
+    /**
+     * A single statement, the categories come joined with their text.
+     */
     @GET
     @Path("/category/selected")
     @WithTransaction
@@ -63,37 +73,45 @@ public class GameCreationService {
                 .flatMap(category -> category.categoryText.translate(ResolutionContext.locale(locale)));
     }
 
+    /**
+     * At most 4 statements, the game with its categories, the added category and the inserted link. A started
+     * game also splices the tasks of the category into its deck for the players of {@code roster}.
+     */
     @PUT
-    @WithTransaction
     @Path("/category/{categoryId}")
-    public Uni<Boolean> addCategory(@RestCookie String gameId, @RestPath Long categoryId) {
-        return findGameSession(gameId)
-                .chain(gameSession -> gameSession.addCategory(categoryId));
+    public Uni<Boolean> addCategory(@RestCookie String gameId, @RestPath Long categoryId, Roster roster) {
+        if (roster == null || roster.players() == null || roster.players().isEmpty()) {
+            throw new WebApplicationException("The players of the game are required", RestResponse.StatusCode.BAD_REQUEST);
+        }
+        return gameExecutor.execute(gameId, () -> Panache.withTransaction(() -> findGameSession(gameId)
+                .chain(gameSession -> gameSession.addCategory(categoryId, roster.resolutionContext(gameId, null)))));
     }
 
+    /**
+     * A started game also drops the unplayed tasks of the category from its deck in one statement.
+     */
     @DELETE
-    @WithTransaction
     @Path("/category/{categoryId}")
     public Uni<Boolean> removeCategory(@RestCookie String gameId, @RestPath Long categoryId) {
-        return findGameSession(gameId)
-                .chain(gameSession -> gameSession.removeCategory(categoryId));
+        return gameExecutor.execute(gameId, () -> Panache.withTransaction(() -> findGameSession(gameId)
+                .chain(gameSession -> gameSession.removeCategory(categoryId))));
     }
 
     @DELETE
-    @WithTransaction
     @Path("/clearAll")
     public Uni<Void> removeAll() {
-        return GameTask.deleteAll()
+        return catalogInvalidations.write(() -> GameTask.deleteAll()
                 .chain(() -> Task.deleteAll())
                 .chain(() -> Category.delete("id > 0"))
                 .chain(() -> AbstractUnresolvedToken.deleteAll())
                 .chain(() -> AbstractResolvedToken.deleteAll())
                 .chain(() -> GameSession.deleteAll())
+                .call(() -> catalogInvalidations.catalog()))
                 .replaceWithVoid();
     }
 
     private Uni<GameSession> findGameSession(String gameId) {
-        return GameSession.<GameSession> findById(gameId)
+        return GameSession.load(gameId, GameSession.Profile.CATEGORIES)
                 .onItem().ifNull().failWith(new WebApplicationException("Unable to find game session"));
     }
 }
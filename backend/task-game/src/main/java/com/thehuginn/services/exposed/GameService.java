@@ -1,11 +1,17 @@
 package com.thehuginn.services.exposed;
 
 import com.thehuginn.GameSession;
+import com.thehuginn.common.services.exposed.RenderedTask;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.RosterChange;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
-import com.thehuginn.resolution.UnresolvedResult;
+import com.thehuginn.common.services.exposed.transport.CborMessageBodyHandler;
+import com.thehuginn.services.hidden.GameExecutor;
 import com.thehuginn.task.ResolvedTask;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
@@ -15,62 +21,105 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.resteasy.reactive.RestCookie;
-import org.jboss.resteasy.reactive.RestQuery;
 
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Every mutation of a game runs with its transaction through {@link GameExecutor}, so concurrent taps
+ * of several devices advance the game one after another.
+ * <p>
+ * Each endpoint loads the game with a {@link GameSession.Profile}, the SQL statements per call are at most
+ * <ul>
+ * <li>{@code GET /game}: 1, the lookup</li>
+ * <li>{@code PUT /game/task/current}: 3 while a task is dealt, the lookup and the tokens of both tasks</li>
+ * <li>{@code PUT /game/task/next}: 12 with a prebuilt deck and tokens without pairs, independent of the deck size</li>
+ * <li>{@code PUT /game/rematch}: the lookups of the game and its deck, then one write per reshuffled or restored row</li>
+ * </ul>
+ * {@code TestStatementCounts} asserts these budgets.
+ */
 @Path("/game")
 public class GameService implements com.thehuginn.common.services.exposed.GameService {
 
+    @Inject
+    GameExecutor gameExecutor;
+
     @GET
     @Override
     public Uni<GameSession> getGame(@RestCookie String gameId) {
-        return GameSession.findById(gameId);
+        return GameSession.load(gameId, GameSession.Profile.CATEGORIES);
     }
 
     @POST
-    @WithTransaction
     @Override
     public Uni<GameSession> createGame(@RestCookie String gameId) {
         GameSession gameSession = new GameSession();
         gameSession.gameId = gameId;
-        return GameSession.deleteById(gameId)
-                .chain(gameSession::persist);
+        return mutate(gameId, () -> GameSession.deleteGame(gameId)
+                .chain(gameSession::persist));
     }
 
     @DELETE
-    @WithTransaction
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
     @Override
     public Uni<Boolean> deleteGame(@RestCookie String gameId) {
-        return GameSession.deleteById(gameId);
+        return mutate(gameId, () -> GameSession.deleteGame(gameId));
     }
 
     @PUT
     @Path("/start")
-    @WithTransaction
+    @Consumes({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
     @Override
-    public Uni<Boolean> startGame(@RestCookie String gameId, @RestQuery ResolutionContext.Builder resolutionContext) {
-        return findGameSession(gameId)
-                .chain(gameSession -> gameSession.start(resolutionContext));
+    public Uni<Boolean> startGame(@RestCookie String gameId, Roster roster) {
+        return mutate(gameId, () -> findGameSession(gameId)
+                .chain(gameSession -> gameSession.start(roster.resolutionContext(gameId, null))));
     }
 
-    @GET
-    @WithTransaction
+    /**
+     * Starts the game again on the deck it was started with, see {@link GameSession#rematch}.
+     */
+    @PUT
+    @Path("/rematch")
+    @Consumes({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
+    @Override
+    public Uni<Boolean> rematchGame(@RestCookie String gameId, Roster roster) {
+        return mutate(gameId, () -> findGameSession(gameId)
+                .chain(gameSession -> gameSession.rematch(roster.resolutionContext(gameId, null))));
+    }
+
+    /**
+     * Serialized as well, the current task is drawn when there is none yet.
+     */
+    @PUT
     @Path("/task/current")
+    @Consumes({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
     @Override
-    public Uni<UnresolvedResult.ResolvedResult> currentTask(@RestCookie String gameId, @RestCookie String locale,
-            @RestQuery ResolutionContext.Builder resolutionContext) {
-        return getTaskUni(resolutionContext, gameId, gameSession -> gameSession.currentTask(resolutionContext));
+    public Uni<RenderedTask> currentTask(@RestCookie String gameId, @RestCookie String locale, Roster roster) {
+        ResolutionContext.Builder resolutionContext = roster.resolutionContext(gameId, locale);
+        return mutate(gameId,
+                () -> getTaskUni(resolutionContext, gameId, gameSession -> gameSession.currentTask(resolutionContext)));
     }
 
     @PUT
-    @WithTransaction
     @Path("/task/next")
+    @Consumes({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
     @Override
-    public Uni<UnresolvedResult.ResolvedResult> nextTask(@RestCookie String gameId, @RestCookie String locale,
-            @RestQuery ResolutionContext.Builder resolutionContext) {
-        return getTaskUni(resolutionContext, gameId, gameSession -> gameSession.nextTask(resolutionContext));
+    public Uni<RenderedTask> nextTask(@RestCookie String gameId, @RestCookie String locale, Roster roster) {
+        ResolutionContext.Builder resolutionContext = roster.resolutionContext(gameId, locale);
+        return mutate(gameId,
+                () -> getTaskUni(resolutionContext, gameId, gameSession -> gameSession.nextTask(resolutionContext)));
+    }
+
+    /**
+     * The deck follows the players without being generated anew, see {@link GameSession#changeRoster}.
+     */
+    @PUT
+    @Path("/roster")
+    @Consumes({ MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR })
+    @Override
+    public Uni<Boolean> changeRoster(@RestCookie String gameId, RosterChange rosterChange) {
+        return mutate(gameId, () -> findGameSession(gameId)
+                .chain(gameSession -> gameSession.changeRoster(rosterChange.previous(), rosterChange.players())));
     }
 
     @Override
@@ -78,17 +127,23 @@ public class GameService implements com.thehuginn.common.services.exposed.GameSe
         return Uni.createFrom().item(Boolean.TRUE);
     }
 
-    private Uni<UnresolvedResult.ResolvedResult> getTaskUni(ResolutionContext.Builder resolutionContext,
+    private <T> Uni<T> mutate(String gameId, Supplier<Uni<T>> mutation) {
+        return gameExecutor.execute(gameId, () -> Panache.withTransaction(mutation));
+    }
+
+    private Uni<RenderedTask> getTaskUni(ResolutionContext.Builder resolutionContext,
             String gameId, Function<? super GameSession, Uni<? extends ResolvedTask>> taskUni) {
         return findGameSession(gameId)
                 .onItem().ifNotNull().transformToUni(taskUni)
-                .onItem().ifNotNull().transformToUni(resolvedTask -> resolvedTask.resolve(resolutionContext.build()).resolve())
+                .onItem().ifNotNull().transformToUni(resolvedTask -> resolvedTask.gameTask.loadTask()
+                        .chain(() -> resolvedTask.resolve(resolutionContext.build()).resolve()))
+                .map(resolvedResult -> new RenderedTask(resolvedResult.getData()))
                 .onItem().ifNull().fail()
                 .onFailure().recoverWithNull();
     }
 
     private Uni<GameSession> findGameSession(String gameId) {
-        return GameSession.<GameSession> findById(gameId)
+        return GameSession.load(gameId, GameSession.Profile.GAMEPLAY)
                 .onItem().ifNull().failWith(new WebApplicationException("Unable to find game session"));
     }
 }
@@ -1,16 +1,17 @@
 package com.thehuginn.services.hidden;
 
+import com.thehuginn.catalog.CatalogInvalidations;
 import com.thehuginn.category.Category;
 import com.thehuginn.common.game.translation.CategoryText;
 import com.thehuginn.common.game.translation.LocaleCategoryText;
 import com.thehuginn.common.game.translation.TranslatableCategory;
 import com.thehuginn.task.Task;
 import com.thehuginn.util.Helper;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
 import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Uni;
 import jakarta.annotation.security.DenyAll;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -32,10 +33,12 @@ import java.util.function.Function;
 @RequestScoped
 public class CategoryService {
 
+    @Inject
+    CatalogInvalidations catalogInvalidations;
+
     @POST
-    @WithTransaction
     public Uni<Category> createCategory(Category category) {
-        return Task.findByIds(category.tasks)
+        return catalogInvalidations.write(() -> Task.findByIds(category.tasks)
                 .<Category> chain(tasks -> {
                     if (category.tasks.size() != tasks.size()) {
                         throw new WebApplicationException("Unable to retrieve all tasks");
@@ -46,14 +49,14 @@ public class CategoryService {
                     return category.persist();
                 })
                 .call(category1 -> Task.addToCategory(category1.id, category1.tasks))
+                .call(category1 -> catalogInvalidations.category(category1.id, null)))
                 .onFailure().invoke(Log::error);
     }
 
     @PUT
     @Path("/{id}")
-    @WithTransaction
     public Uni<Category> updateCategory(@RestPath Long id, Category category) {
-        return Category.findByIdFetch(id)
+        return catalogInvalidations.write(() -> Category.findByIdFetch(id)
                 .call(category1 -> Task.deleteFromCategory(category1.id, category1.tasks))
                 .call(category1 -> Task.addToCategory(category1.id, category.tasks))
                 .map(category1 -> {
@@ -65,16 +68,17 @@ public class CategoryService {
                     category1.tasks = category.tasks != null ? category.tasks : category1.tasks;
 
                     return category1;
-                });
+                })
+                .call(() -> catalogInvalidations.category(id, null)));
     }
 
     @DELETE
     @Path("/{id}")
-    @WithTransaction
     public Uni<Boolean> deleteCategory(@RestPath long id) {
-        return Category.getTasks(id)
+        return catalogInvalidations.write(() -> Category.getTasks(id)
                 .call(tasks -> Task.deleteFromCategory(id, tasks))
-                .chain(tasks -> Category.deleteById(id));
+                .chain(tasks -> Category.deleteById(id))
+                .call(() -> catalogInvalidations.category(id, null)));
     }
 
     @GET
@@ -88,12 +92,13 @@ public class CategoryService {
     public Uni<CategoryText.CategoryDto> createTranslation(@RestPath Long id, @RestPath String locale,
             CategoryText.CategoryDto categoryDto) {
         Helper.checkLocale(locale);
-        return Category.<Category> findById(id)
+        return catalogInvalidations.write(() -> Category.<Category> findById(id)
                 .<LocaleCategoryText> chain(category -> {
                     LocaleCategoryText newLocale = new LocaleCategoryText(category.categoryText, locale, categoryDto.name,
                             categoryDto.description);
                     return newLocale.persistAndFlush();
                 })
+                .call(() -> catalogInvalidations.category(id, locale)))
                 .map(localeCategoryText -> new CategoryText.CategoryDto(id, localeCategoryText.getName(),
                         localeCategoryText.getDescription()));
     }
@@ -123,9 +128,10 @@ public class CategoryService {
                     // one of the translations is being changed
                     return translation.apply(categoryText);
                 })
+                .call(() -> catalogInvalidations.category(id, locale))
                 .onFailure().invoke(Log::error);
 
-        return translatableCategoryUni
+        return catalogInvalidations.write(() -> translatableCategoryUni)
                 .map(translatableCategory -> new CategoryText.CategoryDto(id, translatableCategory.getName(),
                         translatableCategory.getDescription()));
     }
@@ -0,0 +1,28 @@
+package com.thehuginn.services.hidden;
+
+import com.thehuginn.common.game.state.SingleWriter;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.function.Supplier;
+
+/**
+ * Single writer per game of task-game, see {@link SingleWriter}. A mutation has to include its whole transaction,
+ * otherwise the next one could read the game before the previous one commits.
+ */
+@ApplicationScoped
+public class GameExecutor {
+
+    private final SingleWriter writer = new SingleWriter();
+
+    public <T> Uni<T> execute(String gameId, Supplier<Uni<T>> mutation) {
+        return writer.execute(gameId, mutation);
+    }
+
+    /**
+     * @return number of games with a running or waiting mutation
+     */
+    public int activeGames() {
+        return writer.activeGames();
+    }
+}
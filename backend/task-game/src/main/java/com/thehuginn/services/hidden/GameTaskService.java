@@ -1,30 +1,40 @@
 package com.thehuginn.services.hidden;
 
 import com.thehuginn.GameSession;
+import com.thehuginn.catalog.CatalogSnapshot;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.common.services.exposed.tracing.Tracing;
+import com.thehuginn.deck.DeckInterleaver;
+import com.thehuginn.deck.DeckSplicer;
+import com.thehuginn.deck.DeckTemplate;
+import com.thehuginn.events.DeckGeneratedEvent;
 import com.thehuginn.task.GameTask;
 import com.thehuginn.task.Task;
+import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.quarkus.logging.Log;
 import io.quarkus.panache.common.Parameters;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.RequestScoped;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequestScoped
 public class GameTaskService {
 
-    private final Random random = new Random();
+    private static final int MAX_SIZE = deckLimit("max-size", 5000);
 
     // TODO update this in correspondence with GameSession#start
     public static Uni<Void> gameTasks(Collection<Task> allTasks, ResolutionContext resolutionContext)
@@ -32,6 +42,16 @@ public class GameTaskService {
         return new GameTaskService().generateGameTasks(allTasks, resolutionContext);
     }
 
+    public static Uni<Void> gameTasks(DeckTemplate template, Function<CatalogSnapshot.TaskView, Task> references,
+            ResolutionContext resolutionContext) {
+        return new GameTaskService().generateGameTasks(template, references, resolutionContext);
+    }
+
+    public static Uni<Void> rematchGameTasks(GameSession gameSession, DeckTemplate template,
+            Function<CatalogSnapshot.TaskView, Task> references, ResolutionContext resolutionContext) {
+        return new GameTaskService().rematch(gameSession, template, references, resolutionContext);
+    }
+
     /**
      * Change with caution from Uni, such as internally we use shallow-copy,
      * and we persist all objects right away
@@ -39,28 +59,46 @@ public class GameTaskService {
     @WithTransaction
     public Uni<Void> generateGameTasks(Collection<Task> allTasks, ResolutionContext resolutionContext)
             throws CloneNotSupportedException {
-        List<GameTask> createdTasks = new ArrayList<>();
-        Map<String, List<GameTask>> perPlayerTasks = new HashMap<>();
-        List<String> players = resolutionContext.getPlayers();
-        for (String player : players) {
-            perPlayerTasks.put(player, new ArrayList<>());
-        }
         Set<Task> tasks = new HashSet<>(allTasks);
+        Map<CatalogSnapshot.TaskView, Task> references = new IdentityHashMap<>();
         for (Task task : tasks) {
-            if (!task.isResolvable(resolutionContext)) {
-                continue;
-            }
-
-            if (task.repeat.equals(Task.Repeat.PER_PLAYER)) {
-                List<GameTask> tasks1 = task.resolve(resolutionContext);
-                tasks1.forEach(gameTask -> perPlayerTasks.get(gameTask.assignedPlayer).add(gameTask));
-            } else {
-                createdTasks.addAll(task.resolve(resolutionContext));
-            }
+            references.put(CatalogSnapshot.TaskView.of(task), task);
         }
+        return generateGameTasks(DeckTemplate.build(references.keySet(), resolutionContext), references::get,
+                resolutionContext);
+    }
 
-        Collections.shuffle(createdTasks);
-        addPerPlayerTasks(createdTasks, perPlayerTasks, resolutionContext.getPlayers());
+    /**
+     * Generates the game from a template of catalog metadata only, {@code references} supply the {@link Task}
+     * each created {@link GameTask} points to.
+     */
+    @WithTransaction
+    public Uni<Void> generateGameTasks(DeckTemplate template, Function<CatalogSnapshot.TaskView, Task> references,
+            ResolutionContext resolutionContext) {
+        return Tracing.span("GameTaskService.generateGameTasks", resolutionContext.getGameId(),
+                () -> deck(template, references, resolutionContext));
+    }
+
+    /**
+     * Replays a game on its persisted deck, see {@link GameSession#rematch}.
+     */
+    @WithTransaction
+    public Uni<Void> rematch(GameSession gameSession, DeckTemplate template,
+            Function<CatalogSnapshot.TaskView, Task> references, ResolutionContext resolutionContext) {
+        return Tracing.span("GameTaskService.rematch", resolutionContext.getGameId(),
+                () -> replay(gameSession, template, references, resolutionContext));
+    }
+
+    private Uni<Void> deck(DeckTemplate template, Function<CatalogSnapshot.TaskView, Task> references,
+            ResolutionContext resolutionContext) {
+        DeckGeneratedEvent event = DeckGeneratedEvent.start(resolutionContext.getGameId(),
+                resolutionContext.getPlayers().size());
+        List<GameTask> createdTasks = expand(template, references, resolutionContext);
+        if (event != null) {
+            event.candidates = template.entries().size();
+            event.tasks = createdTasks.size();
+            event.virtual = template.virtual();
+        }
 
         return GameSession.<GameSession> find("from GameSession g left join fetch g.tasks where g.id = :id",
                 Parameters.with("id", resolutionContext.getGameId())).firstResult()
@@ -73,6 +111,9 @@ public class GameTaskService {
                     if (createdTasks.isEmpty()) {
                         return Uni.createFrom().voidItem();
                     }
+                    for (int index = 0; index < createdTasks.size(); index++) {
+                        createdTasks.get(index).ordinal = (index + 1) * DeckSplicer.GAP;
+                    }
                     return Uni.combine()
                             .all()
                             .unis(createdTasks.stream()
@@ -81,68 +122,306 @@ public class GameTaskService {
                                     .collect(Collectors.toList()))
                             .usingConcurrencyOf(1)
                             .discardItems();
+                })
+                .invoke(() -> {
+                    if (event != null) {
+                        event.complete();
+                    }
                 });
     }
 
     /**
-     * We cut the List into equal parts and in each part
-     * every player will have one random task assigned to him
+     * Expands the entries of the template for the players of the game, only the assignment of PER_PLAYER
+     * tasks and the order of the deck are left to each game.
+     */
+    private List<GameTask> expand(DeckTemplate template, Function<CatalogSnapshot.TaskView, Task> references,
+            ResolutionContext resolutionContext) {
+        List<GameTask> createdTasks = new ArrayList<>();
+        Map<String, List<GameTask>> perPlayerTasks = new HashMap<>();
+        List<String> players = resolutionContext.getPlayers();
+        for (String player : players) {
+            perPlayerTasks.put(player, new ArrayList<>());
+        }
+        for (GameTask gameTask : entries(template, references, resolutionContext)) {
+            if (gameTask.assignedPlayer != null) {
+                perPlayerTasks.get(gameTask.assignedPlayer).add(gameTask);
+            } else {
+                createdTasks.add(gameTask);
+            }
+        }
+
+        Collections.shuffle(createdTasks, ThreadLocalRandom.current());
+        addPerPlayerTasks(createdTasks, perPlayerTasks, resolutionContext.getPlayers());
+        if (createdTasks.size() > MAX_SIZE) {
+            Log.warnf("Deck of game %s has %d tasks, only the first %d are kept", resolutionContext.getGameId(),
+                    createdTasks.size(), MAX_SIZE);
+            createdTasks.subList(MAX_SIZE, createdTasks.size()).clear();
+        }
+        Tracing.deckSize(createdTasks.size());
+        return createdTasks;
+    }
+
+    /**
+     * @return game tasks of every entry of {@code template} in its order, PER_PLAYER copies for the players of
+     *         {@code resolutionContext}
+     */
+    public static List<GameTask> entries(DeckTemplate template, Function<CatalogSnapshot.TaskView, Task> references,
+            ResolutionContext resolutionContext) {
+        List<GameTask> entries = new ArrayList<>();
+        for (DeckTemplate.Entry entry : template.entries()) {
+            if (entry.single()) {
+                GameTask gameTask = new GameTask();
+                gameTask.unresolvedTask = references.apply(entry.task());
+                gameTask.multiplicity = entry.multiplicity();
+                gameTask.perPlayer = entry.perPlayer();
+                entries.add(gameTask);
+                continue;
+            }
+
+            List<GameTask> resolvedTasks = Task.resolve(references.apply(entry.task()), entry.task().repeat(),
+                    entry.copies(), resolutionContext);
+            resolvedTasks.forEach(gameTask -> gameTask.multiplicity = entry.multiplicity());
+            entries.addAll(resolvedTasks);
+        }
+        return entries;
+    }
+
+    /**
+     * Inserts game tasks into the running deck of a game at positions chosen by {@link DeckSplicer}. Only the
+     * positions and assignments of the remaining deck are read, the added tasks and the PER_PLAYER tasks of the
+     * remaining deck, whose turns the inserts shift, are the only writes.
+     *
+     * @param cursor position of the game task dealt last, the remaining deck follows it
+     * @param first index of the player of the next turn in {@code players}
+     */
+    public static Uni<Void> spliceGameTasks(GameSession gameSession, long cursor, int first, List<String> players,
+            List<GameTask> added) {
+        if (added.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Panache.getSession()
+                .chain(session -> session.createQuery("select t.id, t.ordinal, t.assignedPlayer from GameTask t"
+                        + " where t.game.id = :game and t.ordinal > :ordinal order by t.ordinal", Object[].class)
+                        .setParameter("game", gameSession.gameId)
+                        .setParameter("ordinal", cursor)
+                        .getResultList())
+                .chain(rows -> {
+                    long[] positions = new long[rows.size()];
+                    int[] owners = new int[rows.size()];
+                    for (int index = 0; index < rows.size(); index++) {
+                        positions[index] = (Long) rows.get(index)[1];
+                        owners[index] = owner(players, (String) rows.get(index)[2]);
+                    }
+                    int[] addedOwners = new int[added.size()];
+                    for (int index = 0; index < added.size(); index++) {
+                        addedOwners[index] = owner(players, added.get(index).assignedPlayer);
+                    }
+                    long[] spliced = DeckSplicer.splice(cursor, positions, owners, addedOwners, players.size(), first,
+                            ThreadLocalRandom.current());
+
+                    Map<Long, Long> moved = new HashMap<>();
+                    for (int index = 0; index < rows.size(); index++) {
+                        if (spliced[index] != positions[index]) {
+                            moved.put((Long) rows.get(index)[0], spliced[index]);
+                        }
+                    }
+                    for (int index = 0; index < added.size(); index++) {
+                        added.get(index).game = gameSession;
+                        added.get(index).ordinal = spliced[rows.size() + index];
+                    }
+                    return (moved.isEmpty()
+                            ? Uni.createFrom().item(List.<GameTask> of())
+                            : GameTask.<GameTask> list("id in :ids", Parameters.with("ids", moved.keySet())))
+                            .chain(movedTasks -> {
+                                movedTasks.forEach(gameTask -> gameTask.ordinal = moved.get(gameTask.id));
+                                Log.debugf("Spliced %d tasks into game %s, %d tasks of the remaining deck moved",
+                                        Integer.valueOf(added.size()), gameSession.gameId,
+                                        Integer.valueOf(movedTasks.size()));
+                                return Uni.combine()
+                                        .all()
+                                        .unis(added.stream()
+                                                .map(gameTask -> gameTask.persist())
+                                                .collect(Collectors.toList()))
+                                        .usingConcurrencyOf(1)
+                                        .discardItems();
+                            });
+                });
+    }
+
+    private static int owner(List<String> players, String assignedPlayer) {
+        int index = assignedPlayer != null ? players.indexOf(assignedPlayer) : -1;
+        return index >= 0 ? index : DeckSplicer.REGULAR;
+    }
+
+    /**
+     * @return position of the game task dealt last in a game, 0 before the first turn or after its row was removed
+     */
+    public static Uni<Long> cursor(String gameId) {
+        return Panache.getSession()
+                .chain(session -> session.createQuery("select t.ordinal from GameSession g join g.currentTask r"
+                        + " join r.gameTask t where g.id = :game", Long.class)
+                        .setParameter("game", gameId)
+                        .getSingleResultOrNull())
+                .map(cursor -> cursor != null ? cursor : 0L);
+    }
+
+    /**
+     * Removes the tasks of a running game assigned to any of {@code players} in one statement. The dealt task
+     * stays, the next turn removes it.
+     *
+     * @param current position of the dealt game task
+     */
+    public static Uni<Long> dropPlayerTasks(String gameId, long current, Collection<String> players) {
+        if (players.isEmpty()) {
+            return Uni.createFrom().item(0L);
+        }
+        return GameTask.delete("game.id = :game AND ordinal <> :current AND assignedPlayer in :players",
+                Parameters.with("game", gameId).and("current", current).and("players", players));
+    }
+
+    /**
+     * Removes every game task of a running game pointing to any of {@code taskIds} in one statement. The dealt
+     * task stays, the next turn removes it.
+     *
+     * @param current position of the dealt game task
+     */
+    public static Uni<Long> dropTasks(String gameId, long current, Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Uni.createFrom().item(0L);
+        }
+        return GameTask.delete("game.id = :game AND ordinal <> :current AND unresolvedTask.id in :tasks",
+                Parameters.with("game", gameId).and("current", current).and("tasks", taskIds));
+    }
+
+    /**
+     * Moves the players who received the current copy of virtual PER_PLAYER entries to their index in the
+     * new roster, see {@link GameTask#remap}. Copies completed by a departure are dealt, exhausted entries removed.
+     */
+    public static Uni<Void> remapPerPlayerTasks(String gameId, long current, List<String> previous,
+            List<String> players) {
+        return GameTask.<GameTask> list("game.id = :game AND perPlayer = true", Parameters.with("game", gameId))
+                .chain(gameTasks -> {
+                    List<Uni<Void>> exhausted = new ArrayList<>();
+                    for (GameTask gameTask : gameTasks) {
+                        gameTask.remap(previous, players);
+                        if (gameTask.isExhausted() && gameTask.ordinal != current) {
+                            exhausted.add(gameTask.delete());
+                        }
+                    }
+                    if (exhausted.isEmpty()) {
+                        return Uni.createFrom().voidItem();
+                    }
+                    return Uni.combine().all().unis(exhausted).usingConcurrencyOf(1).discardItems();
+                });
+    }
+
+    /**
+     * Matches the persisted rows of a game against the entries of its template, only the positions, assignments
+     * and counters of the rows are read. Rows of entries with dealt copies get their counters reset, copies which
+     * were dealt and deleted are inserted again at random places by {@link #spliceGameTasks}, rows left over by
+     * a smaller deck are removed. Every other row keeps its position, the rematch starts from the front of the deck.
+     */
+    private Uni<Void> replay(GameSession gameSession, DeckTemplate template,
+            Function<CatalogSnapshot.TaskView, Task> references, ResolutionContext resolutionContext) {
+        Map<DeckEntry, List<GameTask>> expected = new HashMap<>();
+        for (GameTask gameTask : entries(template, references, resolutionContext)) {
+            expected.computeIfAbsent(DeckEntry.of(gameTask.unresolvedTask.id, gameTask.assignedPlayer, gameTask.perPlayer),
+                    entry -> new ArrayList<>()).add(gameTask);
+        }
+        return Panache.getSession()
+                .chain(session -> session.createQuery("select t.id, t.unresolvedTask.id, t.assignedPlayer, t.perPlayer,"
+                        + " t.multiplicity, t.dealtTo from GameTask t where t.game.id = :game", Object[].class)
+                        .setParameter("game", gameSession.gameId)
+                        .getResultList())
+                .chain(rows -> {
+                    Map<Long, Short> reset = new HashMap<>();
+                    List<Long> surplus = new ArrayList<>();
+                    for (Object[] row : rows) {
+                        List<GameTask> entries = expected.get(DeckEntry.of((Long) row[1], (String) row[2],
+                                (Boolean) row[3]));
+                        if (entries == null || entries.isEmpty()) {
+                            surplus.add((Long) row[0]);
+                            continue;
+                        }
+                        GameTask entry = entries.remove(entries.size() - 1);
+                        if ((Short) row[4] != entry.multiplicity || (Long) row[5] != 0L) {
+                            reset.put((Long) row[0], entry.multiplicity);
+                        }
+                    }
+                    List<GameTask> restored = new ArrayList<>();
+                    expected.values().forEach(restored::addAll);
+                    Collections.shuffle(restored, ThreadLocalRandom.current());
+                    int kept = rows.size() - surplus.size();
+                    if (kept + restored.size() > MAX_SIZE) {
+                        restored.subList(Math.max(0, MAX_SIZE - kept), restored.size()).clear();
+                    }
+                    Log.debugf("Rematch of game %s keeps %d rows, resets %d and restores %d", gameSession.gameId,
+                            kept, reset.size(), restored.size());
+
+                    return (reset.isEmpty()
+                            ? Uni.createFrom().item(List.<GameTask> of())
+                            : GameTask.<GameTask> list("id in :ids", Parameters.with("ids", reset.keySet())))
+                            .invoke(gameTasks -> gameTasks.forEach(gameTask -> {
+                                gameTask.multiplicity = reset.get(gameTask.id);
+                                gameTask.dealtTo = 0L;
+                            }))
+                            .chain(() -> surplus.isEmpty()
+                                    ? Uni.createFrom().item(0L)
+                                    : GameTask.delete("id in :ids", Parameters.with("ids", surplus)))
+                            .chain(() -> spliceGameTasks(gameSession, 0L, 0, resolutionContext.getPlayers(), restored));
+                });
+    }
+
+    /**
+     * Identifies the entry of the template a row of the deck was created from
+     */
+    private record DeckEntry(Long task, String assignedPlayer, boolean perPlayer) {
+
+        static DeckEntry of(Long task, String assignedPlayer, Boolean perPlayer) {
+            return new DeckEntry(task, assignedPlayer, perPlayer != null && perPlayer);
+        }
+    }
+
+    private static int deckLimit(String name, int defaultValue) {
+        return ConfigProvider.getConfig()
+                .getOptionalValue("task-game.deck." + name, Integer.class)
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Interleaves PER_PLAYER tasks into the shuffled regular tasks, each one on a turn
+     * of its assigned player, see {@link DeckInterleaver}.
      * <p>
-     * Furthermore, the added tasks might not have similar spread between them
-     * resulting in more random order of tasks. However, the order
-     * of players is critical and skipping some tasks might result in
-     * unexpected behavior, i.e. if players change mid-game or one
-     * of th tasks has to get skipped
      * Example:
      * Non PER_PLAYER tasks: 103
      * PER_PLAYER tasks: 5
      * players: 4
-     * in each 20 tasks we should add 4 PER_PLAYER tasks, for each player one
-     * Note we can receive all 4 PER_PLAYER tasks in the beginning
-     * followed by 20 Non PER_PLAYER tasks.
+     * every player has their 5 tasks spread over the deck, one in each fifth of their turns.
+     * Players with fewer PER_PLAYER tasks have them spread over the deck as well.
      *
      * @param collectTo List to which we add PER_PLAYER tasks
      * @param perPlayerTasks Map of players and tasks for each player
      * @param players Ordered List of players
-     * @implSpec each player in perPlayerTasks has to have the same amount of tasks assigned
      */
     private void addPerPlayerTasks(List<GameTask> collectTo, Map<String, List<GameTask>> perPlayerTasks, List<String> players) {
-        int perPlayerTasksSize = 0;
-        for (Map.Entry<String, List<GameTask>> playerTasks : perPlayerTasks.entrySet()) {
-            perPlayerTasksSize = playerTasks.getValue().size();
-            Collections.shuffle(playerTasks.getValue());
+        int[] perPlayerCounts = new int[players.size()];
+        List<GameTask> perPlayer = new ArrayList<>();
+        for (int playerIndex = 0; playerIndex < players.size(); playerIndex++) {
+            List<GameTask> playerTasks = perPlayerTasks.getOrDefault(players.get(playerIndex), List.of());
+            perPlayerCounts[playerIndex] = playerTasks.size();
+            perPlayer.addAll(playerTasks);
+            Collections.shuffle(perPlayer.subList(perPlayer.size() - playerTasks.size(), perPlayer.size()),
+                    ThreadLocalRandom.current());
+        }
+        if (perPlayer.isEmpty()) {
+            return;
         }
 
-        if (perPlayerTasksSize != 0) {
-            int sublistWithoutSize = collectTo.size() / perPlayerTasksSize;
-            for (int sublistIndex = 0; sublistIndex < perPlayerTasksSize; sublistIndex++) {
-                // size of sublist with non PER_PLAYER tasks with to-be-added PER_PLAYER tasks
-                int sublistWithSize = sublistWithoutSize + players.size();
-                // start of the sublist with offset for player's turn
-                int currentIndex = sublistIndex * sublistWithSize;
-                int currentIndexOffset = (players.size() - currentIndex % players.size()) % players.size();
-
-                // Each GameTask has some positions it can position itself to be applied
-                //  for assigned player in coherence with current player
-                Map<Integer, GameTask> indexedPerPlayerTasks = new TreeMap<>();
-                for (int playerIndex = 0; playerIndex < players.size(); playerIndex++) {
-                    // how many possible positions a PER_PLAYER task with the assigned player
-                    //  the task has to be in coherence with current player, Note the offset
-                    int possiblePositions = sublistWithSize / players.size();
-                    if (sublistWithSize % players.size() > (playerIndex + currentIndexOffset) % players.size()) {
-                        possiblePositions++;
-                    }
-                    // index within the sublist accounting for the offset and overflowing (modulo sublistWithSize + 1)
-                    int inSublistIndex = (currentIndexOffset + random.nextInt(possiblePositions) * players.size() + playerIndex)
-                            % (sublistWithSize + 1);
-
-                    String realPlayer = players.get(playerIndex);
-                    GameTask realPerPlayerGameTask = perPlayerTasks.get(realPlayer).get(sublistIndex);
-                    // and finally we add the task to corresponding index
-                    indexedPerPlayerTasks.put(currentIndex + inSublistIndex, realPerPlayerGameTask);
-                }
-                indexedPerPlayerTasks.forEach(collectTo::add);
-            }
+        List<GameTask> regular = new ArrayList<>(collectTo);
+        int[] deck = DeckInterleaver.interleave(regular.size(), perPlayerCounts, ThreadLocalRandom.current());
+        collectTo.clear();
+        for (int index : deck) {
+            collectTo.add(index < regular.size() ? regular.get(index) : perPlayer.get(index - regular.size()));
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.thehuginn.services.hidden;
 
+import com.thehuginn.catalog.CatalogInvalidations;
 import com.thehuginn.category.Category;
 import com.thehuginn.common.game.translation.LocaleTaskText;
 import com.thehuginn.common.game.translation.TaskText;
@@ -11,12 +12,12 @@ import com.thehuginn.task.Task;
 import com.thehuginn.token.unresolved.AbstractUnresolvedToken;
 import com.thehuginn.token.unresolved.UnresolvedToken;
 import com.thehuginn.util.Helper;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
 import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.groups.UniAndGroupIterable;
 import jakarta.annotation.security.DenyAll;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -41,8 +42,10 @@ import java.util.function.Function;
 @RequestScoped
 public class TaskService {
 
+    @Inject
+    CatalogInvalidations catalogInvalidations;
+
     @POST
-    @WithTransaction
     public Uni<Task> createTask(@Valid Task task) {
         Helper.checkLocale(task.task.locale);
         Function<List<UnresolvedToken>, UniAndGroupIterable<UnresolvedToken>> findOrCreateTokens = resolvables -> {
@@ -55,7 +58,7 @@ public class TaskService {
                     .all().<UnresolvedToken> unis(unis)
                     .usingConcurrencyOf(1);
         };
-        return Uni.createFrom()
+        return catalogInvalidations.write(() -> Uni.createFrom()
                 .item(task)
                 .call(task1 -> {
                     task1.task = new TaskText(task1, task.task.locale, task.task.content);
@@ -67,19 +70,19 @@ public class TaskService {
                     return findOrCreateTokens.apply(tokens)
                             .combinedWith(objects -> task1.tokens = (List<UnresolvedToken>) objects);
                 })
-                .chain(task1 -> task1.persist());
+                .chain(task1 -> task1.<Task> persist())
+                .call(task1 -> catalogInvalidations.task(task1.id, task1.task.locale)));
     }
 
     @POST
-    @WithTransaction
     @Path("/category/{id}")
     public Uni<Task> createCategorizedTask(@Valid Task task, @RestPath Long id) {
-        return Category.<Category> findById(id)
+        return catalogInvalidations.write(() -> Category.<Category> findById(id)
                 .replaceIfNullWith(Category.getDefaultInstance())
                 .flatMap(category -> {
                     task.category = category;
                     return createTask(task);
-                });
+                }));
     }
 
     @GET
@@ -90,16 +93,15 @@ public class TaskService {
 
     @DELETE
     @Path("/{id}")
-    @WithTransaction
     public Uni<Boolean> deleteTask(@RestPath Long id) {
-        return Task.deleteById(id);
+        return catalogInvalidations.write(() -> Task.deleteById(id)
+                .call(() -> catalogInvalidations.task(id, null)));
     }
 
     @PUT
     @Path("/{id}")
-    @WithTransaction
     public Uni<Task> updateTask(@RestPath Long id, @Valid Task updatedTask) {
-        return Task.<Task> findById(id)
+        return catalogInvalidations.write(() -> Task.<Task> findById(id)
                 .<Task> chain(task -> {
                     if (updatedTask.task != null && updatedTask.task.content != null) {
                         preservesTokens(task.task, updatedTask.task.content);
@@ -111,6 +113,7 @@ public class TaskService {
 
                     return task.persist();
                 })
+                .call(() -> catalogInvalidations.task(id, null)))
                 .onFailure().recoverWithNull();
     }
 
@@ -132,20 +135,19 @@ public class TaskService {
 
     @POST
     @Path("/{id}/{locale}")
-    @WithTransaction
     public Uni<? extends Translatable> createLocale(@RestPath Long id, @RestPath String locale, String content) {
         Helper.checkLocale(locale);
-        return Task.<Task> findById(id)
+        return catalogInvalidations.write(() -> Task.<Task> findById(id)
                 .invoke(task -> preservesTokens(task.task, content))
                 .chain(task -> {
                     LocaleTaskText newLocale = new LocaleTaskText(task.task, locale, content);
-                    return newLocale.persist();
-                });
+                    return newLocale.<LocaleTaskText> persist();
+                })
+                .call(() -> catalogInvalidations.task(id, locale)));
     }
 
     @PUT
     @Path("/{id}/{locale}")
-    @WithTransaction
     public Uni<? extends Translatable> updateKey(@RestPath Long id, @RestPath String locale, String newContent) {
         Function<TaskText, Uni<LocaleTaskText>> translation = taskText -> LocaleTaskText
                 .<LocaleTaskText> findById(new LocaleTaskText.LocaleTaskTextPK(taskText, locale))
@@ -153,7 +155,7 @@ public class TaskService {
                     localeTaskText.content = newContent;
                     return localeTaskText.persist();
                 });
-        return Task.<Task> findById(id)
+        return catalogInvalidations.write(() -> Task.<Task> findById(id)
                 .map(task -> task.task)
                 .invoke(task -> preservesTokens(task, newContent))
                 .onItem().ifNotNull().transformToUni(taskText -> {
@@ -165,6 +167,7 @@ public class TaskService {
                     // one of the translations is being changed
                     return translation.apply(taskText);
                 })
+                .call(() -> catalogInvalidations.task(id, locale)))
                 .onFailure().invoke(Log::error);
     }
 
@@ -1,29 +1,132 @@
 package com.thehuginn.task;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.thehuginn.GameSession;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.catalog.CatalogSnapshot;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import com.thehuginn.resolution.Resolvable;
 import io.quarkus.hibernate.reactive.panache.PanacheEntity;
+import io.smallrye.mutiny.Uni;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.Hibernate;
+import org.hibernate.reactive.mutiny.Mutiny;
 
+import java.util.List;
+
+/**
+ * Indexes back the cursor queries of {@code GameSession#nextTask}, which walk the deck of a game by
+ * {@link #ordinal}, optionally only over the tasks assigned to a player.
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "gametask_game_ordinal_idx", columnList = "game, ordinal"),
+        @Index(name = "gametask_game_player_ordinal_idx", columnList = "game, assignedPlayer, ordinal")
+})
 public class GameTask extends PanacheEntity implements Resolvable<ResolvedTask>, Cloneable {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game")
     public GameSession game;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    /**
+     * Loaded only when the catalog does not know the task, gameplay reads it through {@link #task()}
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     public Task unresolvedTask;
 
     public String assignedPlayer;
 
+    /**
+     * Position of the task in the deck, positions leave gaps so tasks can be inserted between others,
+     * see {@link com.thehuginn.deck.DeckSplicer}
+     */
+    public long ordinal;
+
+    /**
+     * Copies of the task which remain to be dealt, the deck keeps a single entry
+     * instead of one row per copy
+     */
+    public short multiplicity = 1;
+
+    /**
+     * Entry standing for one copy per player, {@link #dealtTo} tracks the players
+     * who already received the current copy
+     */
+    public boolean perPlayer = false;
+
+    /**
+     * Bit {@code i} is set when the player with index {@code i} received the current copy
+     */
+    public long dealtTo = 0L;
+
+    @Transient
+    @JsonIgnore
+    private CatalogSnapshot.TaskView view;
+
+    /**
+     * True when {@link #view} comes from the catalog, which then also holds the templates of the task
+     */
+    @Transient
+    @JsonIgnore
+    private boolean cataloged;
+
     public GameTask() {
     }
 
+    /**
+     * Makes {@link #task()} available, from the catalog snapshot or, for tasks the snapshot does not know yet,
+     * by fetching the task, which brings its tokens and text along.
+     */
+    public Uni<GameTask> loadTask() {
+        if (view != null) {
+            return Uni.createFrom().item(this);
+        }
+        CatalogSnapshot snapshot = Catalog.current();
+        CatalogSnapshot.TaskView cataloged = snapshot != null ? snapshot.task(unresolvedTask.id) : null;
+        if (cataloged != null) {
+            useTask(cataloged);
+            return Uni.createFrom().item(this);
+        }
+        if (Hibernate.isInitialized(unresolvedTask)) {
+            return Uni.createFrom().item(this);
+        }
+        return Mutiny.fetch(unresolvedTask)
+                .invoke(task -> unresolvedTask = task)
+                .replaceWith(this);
+    }
+
+    /**
+     * @return the task of this entry, as the catalog knows it or as loaded by {@link #loadTask()}
+     */
+    public CatalogSnapshot.TaskView task() {
+        if (view == null) {
+            view = CatalogSnapshot.TaskView.of(unresolvedTask);
+        }
+        return view;
+    }
+
+    /**
+     * @return true when {@link #task()} comes from the catalog snapshot
+     */
+    public boolean isCataloged() {
+        return cataloged;
+    }
+
+    /**
+     * Serves {@link #task()} from {@code view} of the catalog, the task itself is not loaded.
+     */
+    public void useTask(CatalogSnapshot.TaskView view) {
+        this.view = view;
+        this.cataloged = true;
+    }
+
     @Override
     public ResolvedTask resolve(ResolutionContext context) {
         return ResolvedTask.resolve(this, context);
@@ -32,9 +135,90 @@ public class GameTask extends PanacheEntity implements Resolvable<ResolvedTask>,
     @Override
     // TODO update for players etc...
     public boolean isResolvable(ResolutionContext context) {
+        if (perPlayer) {
+            int playerIndex = context.getPlayerIndex();
+            return playerIndex >= 0 && playerIndex < Long.SIZE && (dealtTo & (1L << playerIndex)) == 0;
+        }
         return assignedPlayer == null || context.getPlayer().equals(assignedPlayer);
     }
 
+    /**
+     * Deals one copy of this task to the current player of {@code context}. Copies of an ALWAYS task are never used
+     * up, its entry stays in the deck.
+     */
+    public void deal(ResolutionContext context) {
+        if (perPlayer) {
+            int playerIndex = context.getPlayerIndex();
+            if (playerIndex >= 0 && playerIndex < Long.SIZE) {
+                dealtTo |= 1L << playerIndex;
+            }
+            int players = Math.min(context.getPlayers().size(), Long.SIZE);
+            long everyone = players == Long.SIZE ? -1L : (1L << players) - 1;
+            if ((dealtTo & everyone) != everyone) {
+                return;
+            }
+            dealtTo = 0L;
+        }
+        if (!isUnlimited()) {
+            multiplicity--;
+        }
+    }
+
+    /**
+     * The task is known once {@link #loadTask()} completed, which precedes every deal.
+     */
+    private boolean isUnlimited() {
+        if (view != null) {
+            return view.repeat() == Task.Repeat.ALWAYS;
+        }
+        return unresolvedTask != null && Hibernate.isInitialized(unresolvedTask)
+                && unresolvedTask.repeat == Task.Repeat.ALWAYS;
+    }
+
+    /**
+     * Moves the bits of {@link #dealtTo} to the indexes of the players in the changed roster, the bits of departed
+     * players are dropped. The current copy is dealt once every remaining player received it.
+     */
+    public void remap(List<String> previous, List<String> players) {
+        long remapped = 0L;
+        for (int index = 0; index < Math.min(previous.size(), Long.SIZE); index++) {
+            if ((dealtTo & (1L << index)) == 0) {
+                continue;
+            }
+            int playerIndex = players.indexOf(previous.get(index));
+            if (playerIndex >= 0 && playerIndex < Long.SIZE) {
+                remapped |= 1L << playerIndex;
+            }
+        }
+        dealtTo = remapped;
+        int count = Math.min(players.size(), Long.SIZE);
+        long everyone = count == Long.SIZE ? -1L : (1L << count) - 1;
+        if (dealtTo != 0L && (dealtTo & everyone) == everyone) {
+            dealtTo = 0L;
+            multiplicity--;
+        }
+    }
+
+    /**
+     * @return true when every copy of this task was dealt
+     */
+    public boolean isExhausted() {
+        return multiplicity <= 0;
+    }
+
+    /**
+     * Takes over the entry of {@code gameTask}, this row keeps its id and its position in the deck.
+     */
+    public void copy(GameTask gameTask) {
+        this.unresolvedTask = gameTask.unresolvedTask;
+        this.view = gameTask.view;
+        this.cataloged = gameTask.cataloged;
+        this.assignedPlayer = gameTask.assignedPlayer;
+        this.multiplicity = gameTask.multiplicity;
+        this.perPlayer = gameTask.perPlayer;
+        this.dealtTo = gameTask.dealtTo;
+    }
+
     @Override
     public GameTask clone() {
         try {
@@ -1,7 +1,12 @@
 package com.thehuginn.task;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.catalog.CatalogSnapshot;
+import com.thehuginn.common.game.events.TranslationLookupEvent;
+import com.thehuginn.common.game.translation.TaskText;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.events.TokenResolutionEvent;
 import com.thehuginn.resolution.Resolvable;
 import com.thehuginn.resolution.UnresolvedResult;
 import com.thehuginn.token.resolved.AbstractResolvedToken;
@@ -21,6 +26,7 @@ import org.hibernate.annotations.OnDeleteAction;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Entity
@@ -40,12 +46,20 @@ public class ResolvedTask extends PanacheEntity implements Resolvable<Unresolved
     public static ResolvedTask resolve(GameTask gameTask, ResolutionContext resolutionContext) {
         ResolvedTask resolvedTask = new ResolvedTask();
         resolvedTask.gameTask = gameTask;
-        List<ResolvedToken> tokens = gameTask.unresolvedTask.tokens.stream()
-                .map(unresolvedToken -> unresolvedToken.resolve(resolutionContext))
+        boolean recorded = TokenResolutionEvent.enabled();
+        List<ResolvedToken> tokens = gameTask.task().tokens().stream()
+                .map(unresolvedToken -> {
+                    TokenResolutionEvent event = TokenResolutionEvent.start(recorded);
+                    ResolvedToken resolvedToken = unresolvedToken.resolve(resolutionContext);
+                    if (event != null) {
+                        event.complete(resolutionContext.getGameId(), unresolvedToken, TokenResolutionEvent.Phase.DEAL);
+                    }
+                    return resolvedToken;
+                })
                 .collect(Collectors.toList());
         tokens.add(PlayerResolvedToken.getPlayer(resolutionContext));
 
-        if (gameTask.unresolvedTask.type == Task.Type.DUO) {
+        if (gameTask.task().type() == Task.Type.DUO) {
             tokens.add(new PairsResolvedToken(resolutionContext.getPlayers()));
         }
 
@@ -57,24 +71,46 @@ public class ResolvedTask extends PanacheEntity implements Resolvable<Unresolved
 
     @Override
     public UnresolvedResult resolve(ResolutionContext context) {
-        UnresolvedResult unresolvedResult = new UnresolvedResult().task(gameTask.unresolvedTask.task.translate(context));
+        UnresolvedResult unresolvedResult = new UnresolvedResult().task(translate(context));
+        boolean recorded = TokenResolutionEvent.enabled();
         for (ResolvedToken token : tokens) {
-            unresolvedResult.addResolvedResult(token.resolve(context));
+            TokenResolutionEvent event = TokenResolutionEvent.start(recorded);
+            token.resolveInto(context, unresolvedResult);
+            if (event != null) {
+                event.complete(context.getGameId(), token, TokenResolutionEvent.Phase.RENDER);
+            }
         }
 
-        unresolvedResult.addResolvedResult(new TaskTypeResolvedToken(gameTask.unresolvedTask).resolve(context));
-        unresolvedResult.addResolvedResult(new PriceResolvedToken(gameTask.unresolvedTask).resolve(context));
+        new TaskTypeResolvedToken(gameTask.task().type()).resolveInto(context, unresolvedResult);
+        new PriceResolvedToken(gameTask.task().price()).resolveInto(context, unresolvedResult);
 
         return unresolvedResult;
     }
 
+    private Map.Entry<String, Uni<String>> translate(ResolutionContext context) {
+        CatalogSnapshot.TaskView task = gameTask.task();
+        String template = null;
+        if (gameTask.isCataloged()) {
+            template = task.template(context.getLocale());
+        } else {
+            CatalogSnapshot snapshot = Catalog.current();
+            template = snapshot != null ? snapshot.template(task.id(), context.getLocale()) : null;
+        }
+        if (template != null) {
+            TranslationLookupEvent.immediate(TranslationLookupEvent.Kind.TASK, task.id(), context.getLocale(),
+                    TranslationLookupEvent.Outcome.CATALOG);
+            return Map.entry(task.getKey(), Uni.createFrom().item(template));
+        }
+        return Map.entry(task.getKey(), TaskText.translate(task.id(), context));
+    }
+
     @Override
     public boolean isResolvable(ResolutionContext context) {
         return tokens.stream().allMatch(resolvedToken -> resolvedToken.isResolvable(context));
     }
 
     public Uni<Void> remove() {
-        if (gameTask != null && gameTask.unresolvedTask.isRemovable()) {
+        if (gameTask != null && gameTask.task().isRemovable() && gameTask.isExhausted()) {
             return gameTask.delete();
         }
         return Uni.createFrom().voidItem();
@@ -1,7 +1,20 @@
 package com.thehuginn.task;
 
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import com.thehuginn.resolution.Resolvable;
 import com.thehuginn.resolution.UnresolvedResult;
 
 public interface ResolvedToken extends Resolvable<UnresolvedResult> {
+
+    @Override
+    default UnresolvedResult resolve(ResolutionContext context) {
+        UnresolvedResult result = new UnresolvedResult();
+        resolveInto(context, result);
+        return result;
+    }
+
+    /**
+     * Appends the data of this token to the result of the whole task.
+     */
+    void resolveInto(ResolutionContext context, UnresolvedResult result);
 }
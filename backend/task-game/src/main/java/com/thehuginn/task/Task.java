@@ -175,10 +175,17 @@ public class Task extends AbstractTask implements Resolvable<List<GameTask>> {
 
     @Override
     public List<GameTask> resolve(ResolutionContext context) {
+        return resolve(this, repeat, frequency, context);
+    }
+
+    /**
+     * @param reference task the created {@link GameTask}s point to, it does not have to be initialized
+     */
+    public static List<GameTask> resolve(Task reference, Repeat repeat, short frequency, ResolutionContext context) {
         List<GameTask> tasks = new ArrayList<>();
         for (short amount = 0; amount < frequency; amount++) {
             GameTask gameTask = new GameTask();
-            gameTask.unresolvedTask = this;
+            gameTask.unresolvedTask = reference;
             if (repeat.equals(Task.Repeat.PER_PLAYER)) {
                 for (String player : context.getPlayers()) {
                     GameTask shallowCopy = gameTask.clone();
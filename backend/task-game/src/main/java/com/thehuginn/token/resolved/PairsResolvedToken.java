@@ -14,8 +14,8 @@ import org.hibernate.annotations.OnDeleteAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Entity
 @OnDelete(action = OnDeleteAction.CASCADE)
@@ -32,7 +32,7 @@ public class PairsResolvedToken extends AbstractResolvedToken {
 
     public PairsResolvedToken(List<String> allPlayers) {
         List<String> players = new ArrayList<>(allPlayers);
-        Collections.shuffle(players);
+        Collections.shuffle(players, ThreadLocalRandom.current());
         // remove last player if we have odd number of players
         players = players.subList(0, (players.size() / 2) * 2);
         for (int i = 0; i < players.size(); i += 2) {
@@ -41,8 +41,8 @@ public class PairsResolvedToken extends AbstractResolvedToken {
     }
 
     @Override
-    public UnresolvedResult resolve(ResolutionContext context) {
-        return new UnresolvedResult().appendData(Map.entry(tag, pairs));
+    public void resolveInto(ResolutionContext context, UnresolvedResult result) {
+        result.appendData(tag, pairs);
     }
 
     @Override
@@ -6,8 +6,6 @@ import jakarta.persistence.Entity;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
-import java.util.Map;
-
 import static com.thehuginn.util.Helper.ITALIC;
 import static com.thehuginn.util.Helper.UNDERLINED;
 
@@ -35,8 +33,8 @@ public class PlayerResolvedToken extends AbstractResolvedToken {
     }
 
     @Override
-    public UnresolvedResult resolve(ResolutionContext context) {
-        return new UnresolvedResult().appendData(Map.entry(playerTag, player));
+    public void resolveInto(ResolutionContext context, UnresolvedResult result) {
+        result.appendData(playerTag, player);
     }
 
     @Override
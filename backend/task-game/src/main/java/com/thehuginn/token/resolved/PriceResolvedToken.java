@@ -5,20 +5,18 @@ import com.thehuginn.resolution.UnresolvedResult;
 import com.thehuginn.task.ResolvedToken;
 import com.thehuginn.task.Task;
 
-import java.util.Map;
-
 public class PriceResolvedToken implements ResolvedToken {
 
     private static final String tag = "price";
     private final Task.Price price;
 
-    public PriceResolvedToken(Task unresolvedTask) {
-        this.price = unresolvedTask.price;
+    public PriceResolvedToken(Task.Price price) {
+        this.price = price;
     }
 
     @Override
-    public UnresolvedResult resolve(ResolutionContext context) {
-        return new UnresolvedResult().appendData(Map.entry(tag, price));
+    public void resolveInto(ResolutionContext context, UnresolvedResult result) {
+        result.appendData(tag, price);
     }
 
     @Override
@@ -5,20 +5,18 @@ import com.thehuginn.resolution.UnresolvedResult;
 import com.thehuginn.task.ResolvedToken;
 import com.thehuginn.task.Task;
 
-import java.util.Map;
-
 public class TaskTypeResolvedToken implements ResolvedToken {
 
     private static final String tag = "task_type";
     private final Task.Type type;
 
-    public TaskTypeResolvedToken(Task unresolvedTask) {
-        type = unresolvedTask.type;
+    public TaskTypeResolvedToken(Task.Type type) {
+        this.type = type;
     }
 
     @Override
-    public UnresolvedResult resolve(ResolutionContext context) {
-        return new UnresolvedResult().appendData(Map.entry(tag, type.toString()));
+    public void resolveInto(ResolutionContext context, UnresolvedResult result) {
+        result.appendData(tag, type.toString());
     }
 
     @Override
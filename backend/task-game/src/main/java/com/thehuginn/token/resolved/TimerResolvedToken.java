@@ -10,7 +10,6 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.util.List;
-import java.util.Map;
 
 @Entity
 @OnDelete(action = OnDeleteAction.CASCADE)
@@ -28,7 +27,7 @@ public class TimerResolvedToken extends AbstractResolvedToken {
     }
 
     @Override
-    public UnresolvedResult resolve(ResolutionContext context) {
+    public void resolveInto(ResolutionContext context, UnresolvedResult result) {
         List<String> args = TokenResolver.resolveToken(timerTag).getItem2();
         if (args.isEmpty()) {
             Log.error(TimerResolvedToken.class + "#resolve requires at least one parameter");
@@ -54,8 +53,8 @@ public class TimerResolvedToken extends AbstractResolvedToken {
             Log.error("Timer with unexpected argument [%s].".formatted(timerTag));
             throw new IllegalArgumentException("Timer with unexpected argument [%s].".formatted(timerTag));
         }
-        return new UnresolvedResult().appendData(Map.entry(timerTag, duration + "s"))
-                .appendData(Map.entry(TIMER_KEY, new Timer(duration, delay)));
+        result.appendData(timerTag, duration + "s")
+                .appendData(TIMER_KEY, new Timer(duration, delay));
     }
 
     @Override
@@ -40,6 +40,17 @@ public class PlayerUnresolvedToken extends AbstractUnresolvedToken {
         }
     }
 
+    /**
+     * @return players a game needs for this token to be resolvable, {@link Integer#MAX_VALUE} for an invalid key
+     */
+    public int requiredPlayers() {
+        try {
+            return getPlayerIndex() + 1;
+        } catch (Exception ignored) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
     private Integer getPlayerIndex() throws IllegalStateException, IllegalArgumentException {
         List<String> args = TokenResolver.resolveToken(key).getItem2();
         if (args.size() != 1) {
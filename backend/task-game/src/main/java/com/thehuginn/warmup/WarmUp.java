@@ -0,0 +1,192 @@
+package com.thehuginn.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thehuginn.GameSession;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.common.game.translation.TranslationCache;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.GameTask;
+import com.thehuginn.task.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.vertx.core.runtime.context.VertxContextSafetyToggle;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Warms a fresh replica up before it is ready for traffic, the first parties after a rollout used to pay
+ * for cold Hibernate query plans, token regexes, serializers and an empty catalog.
+ * <p>
+ * Configured by {@code task-game.warm-up.*}: the warm-up opens {@code connections} of the reactive pool,
+ * loads the {@link Catalog} snapshot with every translation and the query plans of a game, then plays
+ * {@code iterations} turns of a synthetic game in memory through token resolution, rendering and JSON.
+ * {@link WarmUpCheck} keeps the replica not ready until it finishes, its duration is exported as the
+ * {@value #METRIC} timer.
+ */
+@ApplicationScoped
+public class WarmUp {
+
+    public static final String METRIC = "task-game.warm-up";
+
+    static final String GAME = "warm-up";
+    static final long SYNTHETIC_TASK = -1L;
+    private static final String TEMPLATE = "{player_c} and {player_1} drink for {timer_30}";
+    private static final List<String> PLAYERS = List.of("warm-up-1", "warm-up-2", "warm-up-3", "warm-up-4");
+    private static final String LOCALE = "en";
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    PgPool pool;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "task-game.warm-up.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "task-game.warm-up.iterations", defaultValue = "500")
+    int iterations;
+
+    @ConfigProperty(name = "task-game.warm-up.connections", defaultValue = "4")
+    int connections;
+
+    private volatile boolean done;
+    private volatile Duration duration;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        // Hibernate Reactive requires a safe duplicated context, as a request would have
+        Context context = VertxContext.getOrCreateDuplicatedContext(vertx);
+        VertxContextSafetyToggle.setContextSafe(context, true);
+        context.runOnContext(ignored -> run().subscribe().with(
+                took -> Log.infof("Warm-up finished in %d ms", took.toMillis()),
+                failure -> Log.warnf(failure, "Warm-up failed, the replica is ready without it")));
+    }
+
+    /**
+     * Runs every stage of the warm-up once, the replica is ready afterwards even if a stage failed.
+     */
+    public Uni<Duration> run() {
+        long start = System.nanoTime();
+        return openConnections()
+                .chain(() -> Panache.withSession(WarmUp::loadCatalog))
+                .chain(this::playSyntheticGame)
+                .map(ignored -> Duration.ofNanos(System.nanoTime() - start))
+                .invoke(took -> finish(took, "success"))
+                .onFailure().invoke(failure -> finish(Duration.ofNanos(System.nanoTime() - start), "failure"));
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return how long the warm-up took, null before it finished or when it is disabled
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Holds the connections at once so the pool opens as many, they stay idle in it afterwards.
+     */
+    private Uni<Void> openConnections() {
+        if (connections <= 0) {
+            return Uni.createFrom().voidItem();
+        }
+        List<Uni<SqlConnection>> opened = IntStream.range(0, connections)
+                .mapToObj(ignored -> pool.getConnection())
+                .toList();
+        return Uni.join().all(opened).andFailFast()
+                .chain(sqlConnections -> Uni.join()
+                        .all(sqlConnections.stream().map(SqlConnection::close).toList())
+                        .andCollectFailures())
+                .replaceWithVoid();
+    }
+
+    /**
+     * The snapshot carries the templates and category texts of every locale, the lookups of a game that
+     * does not exist only prepare the query plans of the gameplay.
+     */
+    private static Uni<Void> loadCatalog() {
+        return Catalog.load()
+                .invoke(snapshot -> Log.debugf("Catalog snapshot %d preloaded", snapshot.version()))
+                .chain(() -> GameSession.load(GAME, GameSession.Profile.CATEGORIES))
+                .chain(() -> GameSession.load(GAME, GameSession.Profile.GAMEPLAY))
+                .chain(() -> GameTask.count("game.id", GAME))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Nothing of the synthetic game is persisted, its translation is cached for the time of the warm-up.
+     */
+    private Uni<Void> playSyntheticGame() {
+        TranslationCache.Key key = new TranslationCache.Key(SYNTHETIC_TASK, LOCALE);
+        TranslationCache.tasks().put(key, TEMPLATE);
+        return Multi.createFrom().range(0, iterations)
+                .onItem().transformToUniAndConcatenate(this::turn)
+                .collect().last()
+                .onTermination().invoke(() -> TranslationCache.tasks().invalidate(key))
+                .replaceWithVoid();
+    }
+
+    private Uni<Integer> turn(int iteration) {
+        Task task = new Task.Builder(TEMPLATE)
+                .id(SYNTHETIC_TASK)
+                .type(Task.Type.DUO)
+                .price(new Task.Price(true, 1))
+                .build();
+        GameTask gameTask = new GameTask();
+        gameTask.unresolvedTask = task;
+        ResolutionContext context = ResolutionContext.builder(GAME)
+                .player(PLAYERS.get(iteration % PLAYERS.size()))
+                .players(PLAYERS)
+                .locale(LOCALE)
+                .build();
+        return gameTask.resolve(context)
+                .resolve(context)
+                .resolve()
+                .map(result -> {
+                    try {
+                        return objectMapper.writeValueAsBytes(result).length;
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    private void finish(Duration took, String outcome) {
+        Timer.builder(METRIC)
+                .description("Duration of the warm-up at start")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(took);
+        duration = took;
+        done = true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.thehuginn.warmup;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+import java.time.Duration;
+
+/**
+ * The replica is not ready while it warms up.
+ */
+@Readiness
+@ApplicationScoped
+public class WarmUpCheck implements HealthCheck {
+
+    @Inject
+    WarmUp warmUp;
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder response = HealthCheckResponse.named("warm-up").status(warmUp.isDone());
+        Duration duration = warmUp.duration();
+        if (duration != null) {
+            response.withData("duration-ms", duration.toMillis());
+        }
+        return response.build();
+    }
+}
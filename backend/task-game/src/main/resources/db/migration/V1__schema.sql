@@ -0,0 +1,264 @@
+-- baseline of the task-game schema, every later change of an entity gets a migration of its own
+
+create sequence AbstractCategory_SEQ start with 1 increment by 50;
+
+create sequence AbstractResolvedToken_SEQ start with 1 increment by 50;
+
+create sequence AbstractTask_SEQ start with 1 increment by 50;
+
+create sequence GameTask_SEQ start with 1 increment by 50;
+
+create sequence ResolvedTask_SEQ start with 1 increment by 50;
+
+create table AbstractCategory (
+    unimportant integer not null,
+    id bigint not null,
+    primary key (id)
+);
+
+create table AbstractResolvedToken (
+    id bigint not null,
+    resolvedTask_id bigint,
+    primary key (id)
+);
+
+create table AbstractTask (
+    taskType integer not null,
+    id bigint not null,
+    frequency smallint,
+    price_enabled boolean,
+    price integer not null,
+    repeat smallint check (repeat between 0 and 2),
+    type smallint check (type between 0 and 2),
+    category_id bigint,
+    primary key (id)
+);
+
+create table AbstractTask_AbstractUnresolvedToken (
+    Task_id bigint not null,
+    tokens_key varchar(255) not null
+);
+
+create table AbstractUnresolvedToken (
+    key varchar(255) not null,
+    primary key (key)
+);
+
+create table CategoryText (
+    id bigint not null,
+    locale varchar(255) not null,
+    description varchar(255),
+    name varchar(255),
+    primary key (id, locale)
+);
+
+create table GameSession (
+    gameId varchar(255) not null,
+    currentPlayer varchar(255),
+    dealtTasks bytea,
+    deckEngine varchar(255) check (deckEngine in ('PREBUILT','SAMPLER')),
+    currentTask_id bigint unique,
+    primary key (gameId)
+);
+
+create table GameSession_Category (
+    gameSession_id varchar(255) not null,
+    category_id bigint not null,
+    primary key (gameSession_id, category_id)
+);
+
+create table GameTask (
+    id bigint not null,
+    assignedPlayer varchar(255),
+    dealtTo bigint not null,
+    multiplicity smallint not null,
+    ordinal bigint not null,
+    perPlayer boolean not null,
+    game varchar(255),
+    unresolvedTask_id bigint,
+    primary key (id)
+);
+
+create table LocaleCategoryText (
+    locale varchar(255) not null,
+    description varchar(255),
+    name varchar(255),
+    categoryText_id bigint not null,
+    categoryText_locale varchar(255) not null,
+    primary key (categoryText_id, categoryText_locale, locale)
+);
+
+create table LocaleTaskText (
+    locale varchar(255) not null,
+    content varchar(255),
+    taskText_locale varchar(255) not null,
+    taskText_id bigint not null,
+    primary key (locale, taskText_locale, taskText_id)
+);
+
+create table PairsResolvedToken (
+    id bigint not null,
+    primary key (id)
+);
+
+create table pairsresolvedtoken_pairs (
+    PairsResolvedToken_id bigint not null,
+    first varchar(255),
+    second varchar(255)
+);
+
+create table PlayerResolvedToken (
+    player varchar(255),
+    playerTag varchar(255),
+    id bigint not null,
+    primary key (id)
+);
+
+create table PlayerUnresolvedToken (
+    key varchar(255) not null,
+    primary key (key)
+);
+
+create table ResolvedTask (
+    id bigint not null,
+    gameTask_id bigint unique,
+    primary key (id)
+);
+
+create table TaskText (
+    locale varchar(255) not null,
+    id bigint not null,
+    content varchar(255) unique,
+    primary key (locale, id)
+);
+
+create table TimerResolvedToken (
+    timerTag varchar(255),
+    id bigint not null,
+    primary key (id)
+);
+
+create table TimerUnresolvedToken (
+    key varchar(255) not null,
+    primary key (key)
+);
+
+create index gametask_game_ordinal_idx
+   on GameTask (game, ordinal);
+
+create index gametask_game_player_ordinal_idx
+   on GameTask (game, assignedPlayer, ordinal);
+
+alter table if exists AbstractResolvedToken
+   add constraint FKt3k0n6s2acekbdjm6htxqutvr
+   foreign key (resolvedTask_id)
+   references ResolvedTask
+   on delete cascade;
+
+alter table if exists AbstractTask
+   add constraint FKqml0gai67y2u9p53bfh9hhnsk
+   foreign key (category_id)
+   references AbstractCategory;
+
+alter table if exists AbstractTask_AbstractUnresolvedToken
+   add constraint FK3vjw17wclvppc1ud51jpvwx3q
+   foreign key (tokens_key)
+   references AbstractUnresolvedToken;
+
+alter table if exists AbstractTask_AbstractUnresolvedToken
+   add constraint FKgmgxefnrp5kfyj8ss9wf41qid
+   foreign key (Task_id)
+   references AbstractTask;
+
+alter table if exists CategoryText
+   add constraint FKjxhy3ur9sufv15syite1qlnhh
+   foreign key (id)
+   references AbstractCategory
+   on delete cascade;
+
+alter table if exists GameSession
+   add constraint FKacuhsp4cer5hcu0l0x8u23a0v
+   foreign key (currentTask_id)
+   references ResolvedTask
+   on delete cascade;
+
+alter table if exists GameSession_Category
+   add constraint FK8r8hcomodqxw4fwnnk7g5l92k
+   foreign key (category_id)
+   references AbstractCategory
+   on delete cascade;
+
+alter table if exists GameSession_Category
+   add constraint FKasivdjpg13xmjf88r9rrfg34t
+   foreign key (gameSession_id)
+   references GameSession;
+
+alter table if exists GameTask
+   add constraint FKiomc61atoc88gcgq9uojp8yfx
+   foreign key (game)
+   references GameSession;
+
+alter table if exists GameTask
+   add constraint FKe3x5xy464l49jkr5i0w9xoeeb
+   foreign key (unresolvedTask_id)
+   references AbstractTask;
+
+alter table if exists LocaleCategoryText
+   add constraint FK4gnf9pwuvmk5jdu3sf9d5vp31
+   foreign key (categoryText_id, categoryText_locale)
+   references CategoryText
+   on delete cascade;
+
+alter table if exists LocaleTaskText
+   add constraint FK7y6fxncrsukqm7gon980ao3y0
+   foreign key (taskText_locale, taskText_id)
+   references TaskText
+   on delete cascade;
+
+alter table if exists PairsResolvedToken
+   add constraint FKieyxwp4ul19xobw69o1rtdec5
+   foreign key (id)
+   references AbstractResolvedToken
+   on delete cascade;
+
+alter table if exists pairsresolvedtoken_pairs
+   add constraint fk_pairsresolvedtoken_pairs
+   foreign key (pairsresolvedtoken_id)
+   references PairsResolvedToken (id)
+   on delete cascade;
+
+alter table if exists PlayerResolvedToken
+   add constraint FKpxtes9w13lnhygxn810fesfk3
+   foreign key (id)
+   references AbstractResolvedToken
+   on delete cascade;
+
+alter table if exists PlayerUnresolvedToken
+   add constraint FKlhvbhwm8pds86576jm28yvax6
+   foreign key (key)
+   references AbstractUnresolvedToken
+   on delete cascade;
+
+alter table if exists ResolvedTask
+   add constraint FKaheoh4oy8mq2sjrgt5kswfnng
+   foreign key (gameTask_id)
+   references GameTask
+   on delete set null;
+
+alter table if exists TaskText
+   add constraint FKb36crlquodhjqjf3iviblxgac
+   foreign key (id)
+   references AbstractTask
+   on delete cascade;
+
+alter table if exists TimerResolvedToken
+   add constraint FKh7xwwr2a2oywsv7ivxt5k4aoe
+   foreign key (id)
+   references AbstractResolvedToken
+   on delete cascade;
+
+alter table if exists TimerUnresolvedToken
+   add constraint FKsw507foppo2158fjc71aryktm
+   foreign key (key)
+   references AbstractUnresolvedToken
+   on delete cascade;
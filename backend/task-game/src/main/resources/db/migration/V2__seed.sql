@@ -0,0 +1,5 @@
+-- the catalog starts with the miscellaneous category, on a baselined database it may already exist
+INSERT INTO AbstractCategory(id, unimportant) VALUES(0, 1) ON CONFLICT DO NOTHING;
+INSERT INTO CategoryText(id, locale, name, description) VALUES(0, 'en', 'Miscellaneous', 'Tasks that have not been assigned to any concrete category however the better they are') ON CONFLICT DO NOTHING;
+INSERT INTO LocaleCategoryText(categoryText_id, categoryText_locale, locale, name, description) VALUES(0, 'en', 'sk', 'Nezaraditeľné', 'Úlohy, ktoré sa ťažko presne zaraďujú do určitej kategórie, ale zato sú o to lepšie') ON CONFLICT DO NOTHING;
+CREATE SEQUENCE IF NOT EXISTS task_game_catalog_version;
@@ -1,3 +1,4 @@
 INSERT INTO AbstractCategory(id, unimportant) VALUES(0, 1);
 INSERT INTO CategoryText(id, locale, name, description) VALUES(0, 'en', 'Miscellaneous', 'Tasks that have not been assigned to any concrete category however the better they are');
-INSERT INTO LocaleCategoryText(categoryText_id, categoryText_locale, locale, name, description) VALUES(0, 'en', 'sk', 'Nezaraditeľné', 'Úlohy, ktoré sa ťažko presne zaraďujú do určitej kategórie, ale zato sú o to lepšie');
\ No newline at end of file
+INSERT INTO LocaleCategoryText(categoryText_id, categoryText_locale, locale, name, description) VALUES(0, 'en', 'sk', 'Nezaraditeľné', 'Úlohy, ktoré sa ťažko presne zaraďujú do určitej kategórie, ale zato sú o to lepšie');
+CREATE SEQUENCE IF NOT EXISTS task_game_catalog_version;
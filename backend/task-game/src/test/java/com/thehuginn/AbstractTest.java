@@ -1,6 +1,9 @@
 package com.thehuginn;
 
+import com.thehuginn.catalog.Catalog;
 import com.thehuginn.category.Category;
+import com.thehuginn.common.game.translation.TranslationCache;
+import com.thehuginn.deck.DeckTemplates;
 import com.thehuginn.task.GameTask;
 import com.thehuginn.task.Task;
 import com.thehuginn.token.resolved.AbstractResolvedToken;
@@ -28,6 +31,9 @@ public abstract class AbstractTest {
         asserter.execute(() -> AbstractUnresolvedToken.deleteAll());
         asserter.execute(() -> AbstractResolvedToken.deleteAll());
         asserter.execute(() -> GameSession.deleteAll());
+        asserter.execute(TranslationCache::clear);
+        asserter.execute(Catalog::invalidate);
+        asserter.execute(DeckTemplates::clear);
         asserter.surroundWith(uni -> Panache.withSession(() -> uni));
     }
 }
@@ -0,0 +1,186 @@
+package com.thehuginn.catalog;
+
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Two replicas, each with its own bus instance, exchange catalog changes.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class TestCatalogInvalidation {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    Config config;
+
+    @Inject
+    CatalogInvalidations catalogInvalidations;
+
+    private final List<InvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        buses.forEach(InvalidationBus::close);
+        buses.clear();
+    }
+
+    @Test
+    void testEventEncoding() {
+        CatalogEvent event = new CatalogEvent(CatalogEvent.Kind.TASK, 42L, "sk", 7);
+        Assertions.assertEquals(event, CatalogEvent.decode(event.encode()));
+        CatalogEvent catalog = new CatalogEvent(CatalogEvent.Kind.CATALOG, null, null, 8);
+        Assertions.assertEquals(catalog, CatalogEvent.decode(catalog.encode()));
+    }
+
+    @Test
+    void testLocalReplicasReceiveChanges(UniAsserter asserter) {
+        InvalidationBus first = bus(new LocalInvalidationBus(vertx));
+        InvalidationBus second = bus(new LocalInvalidationBus(vertx));
+        BlockingQueue<CatalogEvent> firstEvents = new LinkedBlockingQueue<>();
+        BlockingQueue<CatalogEvent> secondEvents = new LinkedBlockingQueue<>();
+
+        asserter.execute(() -> first.subscribe(firstEvents::add));
+        asserter.execute(() -> second.subscribe(secondEvents::add));
+        asserter.execute(() -> first.publish(CatalogEvent.Kind.TASK, 1L, "en")
+                .invoke(event -> Assertions.assertTrue(secondEvents.isEmpty(), "delivered before commit"))
+                .invoke(first::committed));
+        asserter.assertThat(() -> next(secondEvents), event -> {
+            Assertions.assertEquals(CatalogEvent.Kind.TASK, event.kind());
+            Assertions.assertEquals(1L, event.id());
+            Assertions.assertEquals("en", event.locale());
+        });
+        asserter.assertThat(() -> next(firstEvents), event -> Assertions.assertEquals(1L, event.id()));
+
+        // the second replica continues from the version it has seen
+        asserter.execute(() -> second.publish(CatalogEvent.Kind.CATEGORY, 2L, null).invoke(second::committed));
+        asserter.assertThat(() -> next(firstEvents), event -> {
+            Assertions.assertEquals(CatalogEvent.Kind.CATEGORY, event.kind());
+            Assertions.assertEquals(2L, event.version());
+        });
+    }
+
+    @Test
+    void testPostgresReplicasReceiveCommittedChangesOnly(UniAsserter asserter) {
+        InvalidationBus first = bus(new PostgresInvalidationBus(vertx, CatalogInvalidations.connectOptions(config)));
+        InvalidationBus second = bus(new PostgresInvalidationBus(vertx, CatalogInvalidations.connectOptions(config)));
+        BlockingQueue<CatalogEvent> firstEvents = new LinkedBlockingQueue<>();
+        BlockingQueue<CatalogEvent> secondEvents = new LinkedBlockingQueue<>();
+
+        asserter.execute(() -> first.subscribe(firstEvents::add));
+        asserter.execute(() -> second.subscribe(secondEvents::add));
+
+        asserter.execute(() -> Panache.withTransaction(() -> first.publish(CatalogEvent.Kind.TASK, 3L, "sk")
+                .invoke(event -> Assertions.assertTrue(secondEvents.isEmpty(), "delivered before commit"))
+                .call(() -> Panache.currentTransaction().invoke(transaction -> transaction.markForRollback()))));
+        asserter.execute(() -> Panache.withTransaction(() -> first.publish(CatalogEvent.Kind.TASK, 4L, "sk")));
+
+        asserter.assertThat(() -> next(secondEvents), event -> {
+            Assertions.assertEquals(4L, event.id(), "rolled back change was delivered");
+            Assertions.assertEquals("sk", event.locale());
+        });
+        asserter.assertThat(() -> next(firstEvents), event -> Assertions.assertEquals(4L, event.id()));
+
+        asserter.execute(() -> Panache.withTransaction(() -> second.publish(CatalogEvent.Kind.CATALOG, null, null)));
+        asserter.assertThat(() -> next(firstEvents), event -> {
+            Assertions.assertEquals(CatalogEvent.Kind.CATALOG, event.kind());
+            Assertions.assertTrue(event.version() > 0);
+        });
+    }
+
+    @Test
+    void testWriteAppliesChangesAfterCommit(UniAsserter asserter) {
+        asserter.execute(() -> catalogInvalidations.write(() -> catalogInvalidations.catalog()
+                .invoke(event -> asserter.putData("version", event.version()))
+                .invoke(event -> Assertions.assertTrue(catalogInvalidations.appliedVersion() < event.version(),
+                        "applied before commit"))));
+        asserter.execute(() -> Assertions.assertTrue(
+                catalogInvalidations.appliedVersion() >= (long) asserter.getData("version")));
+
+        asserter.assertFailedWith(() -> catalogInvalidations.catalog(), IllegalStateException.class);
+    }
+
+    @Test
+    void testConcurrentLoadsShareOneSnapshot(UniAsserter asserter) {
+        asserter.execute(Catalog::invalidate);
+        asserter.assertThat(() -> Panache.withSession(() -> Uni.combine().all()
+                .unis(Catalog.load(), Catalog.load()).asTuple()),
+                loaded -> Assertions.assertSame(loaded.getItem1(), loaded.getItem2()));
+    }
+
+    @Test
+    void testChangeRebuildsSnapshotInTheBackground(UniAsserter asserter) {
+        asserter.assertThat(() -> Panache.withSession(Catalog::load),
+                snapshot -> asserter.putData("previous", snapshot.version()));
+        asserter.execute(() -> catalogInvalidations.write(() -> catalogInvalidations.catalog()));
+        // readers are served without a session of their own while the snapshot is rebuilt
+        asserter.assertNotNull(Catalog::snapshot);
+        asserter.assertThat(this::rebuilt,
+                snapshot -> Assertions.assertTrue(snapshot.version() > (long) asserter.getData("previous")));
+    }
+
+    @Test
+    void testReadsWaitForPublishedVersionsOnly(UniAsserter asserter) {
+        asserter.execute(() -> Panache.withSession(Catalog::load));
+        asserter.execute(() -> catalogInvalidations.write(() -> catalogInvalidations.catalog()
+                .invoke(event -> asserter.putData("version", event.version()))));
+        asserter.assertThat(() -> catalogInvalidations.awaitVersion((long) asserter.getData("version"))
+                .chain(Catalog::awaitCurrent), Assertions::assertNotNull);
+
+        // a version nobody published neither completes nor drops the snapshot of the replica
+        asserter.assertFailedWith(() -> catalogInvalidations.awaitVersion(Long.MAX_VALUE)
+                .ifNoItem().after(Duration.ofMillis(100)).fail(), TimeoutException.class);
+        asserter.execute(() -> Assertions.assertNotNull(Catalog.current()));
+    }
+
+    private InvalidationBus bus(InvalidationBus bus) {
+        buses.add(bus);
+        return bus;
+    }
+
+    private Uni<CatalogSnapshot> rebuilt() {
+        return Uni.createFrom().<CatalogSnapshot> emitter(emitter -> {
+            long timerId = vertx.setPeriodic(20, id -> {
+                CatalogSnapshot snapshot = Catalog.current();
+                if (snapshot != null) {
+                    vertx.cancelTimer(id);
+                    emitter.complete(snapshot);
+                }
+            });
+            emitter.onTermination(() -> vertx.cancelTimer(timerId));
+        }).ifNoItem().after(TIMEOUT).fail();
+    }
+
+    private Uni<CatalogEvent> next(BlockingQueue<CatalogEvent> events) {
+        return Uni.createFrom().<CatalogEvent> emitter(emitter -> {
+            long timerId = vertx.setPeriodic(20, id -> {
+                CatalogEvent event = events.poll();
+                if (event != null) {
+                    vertx.cancelTimer(id);
+                    emitter.complete(event);
+                }
+            });
+            emitter.onTermination(() -> vertx.cancelTimer(timerId));
+        }).ifNoItem().after(TIMEOUT).fail();
+    }
+}
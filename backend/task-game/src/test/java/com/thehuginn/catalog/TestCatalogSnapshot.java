@@ -0,0 +1,62 @@
+package com.thehuginn.catalog;
+
+import com.thehuginn.common.game.translation.CategoryText;
+import com.thehuginn.common.game.translation.TranslationCache.CategoryTranslation;
+import com.thehuginn.task.Task;
+import com.thehuginn.token.unresolved.PlayerUnresolvedToken;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class TestCatalogSnapshot {
+
+    private static CatalogSnapshot.TaskView task(long id, Long categoryId, Map<String, String> templates) {
+        return new CatalogSnapshot.TaskView(id, categoryId, Task.Type.SINGLE, Task.Repeat.NEVER, (short) 1,
+                null, List.of(new PlayerUnresolvedToken("{player_c}")), "en", templates);
+    }
+
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(1, 0,
+            List.of(task(1, 0L, Map.of("en", "first", "sk", "prvy")),
+                    task(2, 5L, Map.of("en", "second")),
+                    task(3, 5L, Map.of("en", "third")),
+                    task(4, null, Map.of("en", "uncategorized"))),
+            List.of(new CatalogSnapshot.CategoryView(5L, "en",
+                    Map.of("en", new CategoryTranslation("drinks", "all about drinks"),
+                            "sk", new CategoryTranslation("pitie", "vsetko o piti"))),
+                    new CatalogSnapshot.CategoryView(0L, "en",
+                            Map.of("en", new CategoryTranslation("default", "default category")))));
+
+    @Test
+    void testTemplatesFallBackToTaskLocale() {
+        Assertions.assertEquals("prvy", snapshot.template(1L, "sk"));
+        Assertions.assertEquals("second", snapshot.template(2L, "sk"));
+        Assertions.assertNull(snapshot.template(42L, "en"));
+    }
+
+    @Test
+    void testCategoriesAreOrderedAndTranslated() {
+        List<CategoryText.CategoryDto> categories = snapshot.categories("sk");
+        Assertions.assertEquals(List.of(0L, 5L), categories.stream().map(category -> category.id).toList());
+        Assertions.assertEquals("default", categories.get(0).name);
+        Assertions.assertEquals("pitie", categories.get(1).name);
+    }
+
+    @Test
+    void testMembershipIndex() {
+        Assertions.assertEquals(List.of(1L, 2L, 3L), snapshot.tasksOf(List.of(0L, 5L, 5L)).stream()
+                .map(CatalogSnapshot.TaskView::id)
+                .sorted()
+                .toList());
+        Assertions.assertTrue(snapshot.tasksOf(List.of(7L)).isEmpty());
+    }
+
+    @Test
+    void testSnapshotIsImmutable() {
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.task(1L).templates().put("de", "erste"));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.tasksOf(List.of(5L)).add(task(9, 5L, Map.of())));
+    }
+}
@@ -0,0 +1,105 @@
+package com.thehuginn.deck;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Checks the placement invariants of {@link DeckInterleaver} on randomly generated decks.
+ */
+public class TestDeckInterleaver {
+
+    @RepeatedTest(500)
+    void testPlacementInvariants(RepetitionInfo repetitionInfo) {
+        Random random = new Random(repetitionInfo.getCurrentRepetition());
+        int players = 1 + random.nextInt(12);
+        int regularCount = random.nextInt(200);
+        int[] perPlayerCounts = new int[players];
+        int perPlayerTotal = 0;
+        for (int player = 0; player < players; player++) {
+            // occasionally more tasks than the player has turns
+            perPlayerCounts[player] = random.nextInt(random.nextInt(10) == 0 ? 100 : 12);
+            perPlayerTotal += perPlayerCounts[player];
+        }
+        int total = regularCount + perPlayerTotal;
+
+        int[] deck = DeckInterleaver.interleave(regularCount, perPlayerCounts, random);
+
+        // the deck is a permutation of all tasks
+        Assertions.assertEquals(total, deck.length);
+        boolean[] seen = new boolean[total];
+        for (int index : deck) {
+            Assertions.assertFalse(seen[index], "task placed twice");
+            seen[index] = true;
+        }
+
+        // regular tasks keep their order
+        int lastRegular = -1;
+        for (int index : deck) {
+            if (index < regularCount) {
+                Assertions.assertEquals(lastRegular + 1, index);
+                lastRegular = index;
+            }
+        }
+
+        int[] position = new int[total];
+        for (int p = 0; p < total; p++) {
+            position[deck[p]] = p;
+        }
+        int firstTask = regularCount;
+        for (int player = 0; player < players; player++) {
+            int count = perPlayerCounts[player];
+            int turns = player < total ? (total - 1 - player) / players + 1 : 0;
+            int placed = Math.min(count, turns);
+            int lastPosition = -1;
+            for (int slice = 0; slice < count; slice++) {
+                int p = position[firstTask + slice];
+                if (slice < placed) {
+                    // tasks of one player keep their order
+                    Assertions.assertTrue(p > lastPosition);
+                    lastPosition = p;
+                    // on the player's turn, within the player's slice of turns
+                    Assertions.assertEquals(player, p % players);
+                    int turn = p / players;
+                    Assertions.assertTrue(turn >= (int) ((long) slice * turns / placed));
+                    Assertions.assertTrue(turn < (int) ((long) (slice + 1) * turns / placed));
+                } else if (regularCount > 0) {
+                    // tasks without a turn come after all regular tasks
+                    Assertions.assertTrue(p > position[regularCount - 1]);
+                }
+            }
+            firstTask += count;
+        }
+    }
+
+    @Test
+    void testEqualCountsGiveOneTaskPerRound() {
+        int players = 4;
+        int regularCount = 103;
+        int rounds = 5;
+        int[] deck = DeckInterleaver.interleave(regularCount, new int[] { rounds, rounds, rounds, rounds }, new Random(7));
+
+        int roundLength = deck.length / rounds;
+        for (int round = 0; round < rounds; round++) {
+            int[] tasksInRound = new int[players];
+            int roundEnd = round == rounds - 1 ? deck.length : (round + 1) * roundLength;
+            for (int p = round * roundLength; p < roundEnd; p++) {
+                if (deck[p] >= regularCount) {
+                    tasksInRound[(deck[p] - regularCount) / rounds]++;
+                }
+            }
+            for (int player = 0; player < players; player++) {
+                Assertions.assertEquals(1, tasksInRound[player]);
+            }
+        }
+    }
+
+    @Test
+    void testNoPerPlayerTasks() {
+        Assertions.assertArrayEquals(new int[] { 0, 1, 2 }, DeckInterleaver.interleave(3, new int[] { 0, 0 }, new Random()));
+        Assertions.assertArrayEquals(new int[0], DeckInterleaver.interleave(0, new int[0], new Random()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.thehuginn.deck;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks the placement invariants of {@link DeckSplicer} on randomly generated remaining decks.
+ */
+public class TestDeckSplicer {
+
+    @RepeatedTest(500)
+    void testPlacementInvariants(RepetitionInfo repetitionInfo) {
+        Random random = new Random(repetitionInfo.getCurrentRepetition());
+        int players = 1 + random.nextInt(8);
+        int first = random.nextInt(players);
+        long after = random.nextInt(1000);
+        int remaining = random.nextInt(150);
+        long[] positions = new long[remaining];
+        int[] owners = new int[remaining];
+        for (int task = 0; task < remaining; task++) {
+            // occasionally a gap too small for the inserts
+            positions[task] = task == 0 ? after + 1 + random.nextInt(3)
+                    : positions[task - 1] + (random.nextInt(10) == 0 ? 1 : DeckSplicer.GAP);
+            owners[task] = random.nextInt(5) == 0 ? random.nextInt(players) : DeckSplicer.REGULAR;
+        }
+        int[] added = new int[random.nextInt(random.nextInt(10) == 0 ? 100 : 10)];
+        for (int task = 0; task < added.length; task++) {
+            added[task] = random.nextInt(3) == 0 ? random.nextInt(players) : DeckSplicer.REGULAR;
+        }
+
+        long[] spliced = DeckSplicer.splice(after, positions, owners, added, players, first, random);
+
+        Assertions.assertEquals(remaining + added.length, spliced.length);
+        Integer[] order = new Integer[spliced.length];
+        for (int task = 0; task < spliced.length; task++) {
+            Assertions.assertTrue(spliced[task] > after, "task placed before the cursor");
+            order[task] = task;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(spliced[a], spliced[b]));
+        boolean renumbered = false;
+        int lastRegular = -1;
+        int[] perPlayerCounts = new int[players];
+        for (int index = 0; index < order.length; index++) {
+            if (index > 0) {
+                Assertions.assertTrue(spliced[order[index]] > spliced[order[index - 1]], "position taken twice");
+            }
+            int task = order[index];
+            int owner = task < remaining ? owners[task] : added[task - remaining];
+            if (owner != DeckSplicer.REGULAR) {
+                perPlayerCounts[owner]++;
+            } else if (task < remaining) {
+                Assertions.assertTrue(task > lastRegular, "remaining regular tasks keep their order");
+                lastRegular = task;
+                renumbered |= spliced[task] != positions[task];
+            }
+        }
+
+        int total = order.length;
+        for (int index = 0; index < total; index++) {
+            int task = order[index];
+            int owner = task < remaining ? owners[task] : added[task - remaining];
+            if (owner == DeckSplicer.REGULAR) {
+                continue;
+            }
+            int turns = Math.floorMod(owner - first, players) < total
+                    ? (total - 1 - Math.floorMod(owner - first, players)) / players + 1
+                    : 0;
+            if (perPlayerCounts[owner] <= turns) {
+                Assertions.assertEquals(owner, (first + index) % players, "task placed on a turn of another player");
+            }
+        }
+        if (renumbered) {
+            for (int index = 0; index < total; index++) {
+                Assertions.assertEquals(after + (index + 1) * DeckSplicer.GAP, spliced[order[index]]);
+            }
+        }
+    }
+
+    @Test
+    void testAddedTaskIsUniformOverTheDeck() {
+        Random random = new Random(5);
+        int remaining = 9;
+        long[] positions = new long[remaining];
+        int[] owners = new int[remaining];
+        for (int task = 0; task < remaining; task++) {
+            positions[task] = (task + 1) * DeckSplicer.GAP;
+            owners[task] = DeckSplicer.REGULAR;
+        }
+        int[] slots = new int[remaining + 1];
+        int rounds = 20_000;
+        for (int round = 0; round < rounds; round++) {
+            long position = DeckSplicer.splice(0, positions, owners, new int[] { DeckSplicer.REGULAR }, 3, 0,
+                    random)[remaining];
+            slots[(int) ((position - 1) / DeckSplicer.GAP)]++;
+        }
+        // 2000 expected in each slot, the front and the end of the deck included
+        for (int slot = 0; slot < slots.length; slot++) {
+            Assertions.assertTrue(Math.abs(slots[slot] - rounds / slots.length) < 200, Arrays.toString(slots));
+        }
+    }
+
+    @Test
+    void testAddedTasksAreSpreadOverTheDeck() {
+        Random random = new Random(13);
+        int remaining = 100;
+        long[] positions = new long[remaining];
+        int[] owners = new int[remaining];
+        for (int task = 0; task < remaining; task++) {
+            positions[task] = (task + 1) * DeckSplicer.GAP;
+            owners[task] = DeckSplicer.REGULAR;
+        }
+        int[] added = new int[50];
+        Arrays.fill(added, DeckSplicer.REGULAR);
+        int[] quarters = new int[4];
+        for (int round = 0; round < 200; round++) {
+            long[] spliced = DeckSplicer.splice(0, positions, owners, added, 4, 0, random);
+            for (int task = remaining; task < spliced.length; task++) {
+                quarters[(int) Math.min(3, (spliced[task] - 1) / (25 * DeckSplicer.GAP))]++;
+            }
+        }
+        // 2500 expected in each quarter, inserts are not gathered at the end of the deck
+        for (int quarter : quarters) {
+            Assertions.assertTrue(Math.abs(quarter - 2500) < 250, Arrays.toString(quarters));
+        }
+    }
+
+    @Test
+    void testRemainingRegularTasksKeepTheirPositions() {
+        long[] positions = { 10 * DeckSplicer.GAP, 11 * DeckSplicer.GAP, 12 * DeckSplicer.GAP, 13 * DeckSplicer.GAP };
+        int[] owners = { DeckSplicer.REGULAR, 1, DeckSplicer.REGULAR, DeckSplicer.REGULAR };
+        long[] spliced = DeckSplicer.splice(9 * DeckSplicer.GAP, positions, owners,
+                new int[] { DeckSplicer.REGULAR, 0, DeckSplicer.REGULAR }, 2, 0, new Random(17));
+        Assertions.assertEquals(positions[0], spliced[0]);
+        Assertions.assertEquals(positions[2], spliced[2]);
+        Assertions.assertEquals(positions[3], spliced[3]);
+    }
+
+    @Test
+    void testEmptyDeckAppends() {
+        long[] spliced = DeckSplicer.splice(5, new long[0], new int[0], new int[] { DeckSplicer.REGULAR, 1 }, 2, 0,
+                new Random(3));
+        Arrays.sort(spliced);
+        Assertions.assertArrayEquals(new long[] { 5 + DeckSplicer.GAP, 5 + 2 * DeckSplicer.GAP }, spliced);
+    }
+}
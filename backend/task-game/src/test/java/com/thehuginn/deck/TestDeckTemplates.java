@@ -0,0 +1,105 @@
+package com.thehuginn.deck;
+
+import com.thehuginn.catalog.CatalogSnapshot;
+import com.thehuginn.common.game.cache.CacheRegion;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.Task;
+import com.thehuginn.token.unresolved.PlayerUnresolvedToken;
+import com.thehuginn.token.unresolved.UnresolvedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TestDeckTemplates {
+
+    private static final List<String> PLAYERS = List.of("alice", "bob", "charlie");
+
+    @BeforeEach
+    @AfterEach
+    void clear() {
+        DeckTemplates.clear();
+    }
+
+    @Test
+    void testSameCategoriesAndPlayersShareTemplate() {
+        CatalogSnapshot snapshot = snapshot(1);
+        long hits = DeckTemplates.region().hits();
+        long misses = DeckTemplates.region().misses();
+
+        DeckTemplate first = DeckTemplates.template(snapshot, List.of(2L, 1L), context(PLAYERS));
+        DeckTemplate second = DeckTemplates.template(snapshot, List.of(1L, 2L, 1L), context(List.of("x", "y", "z")));
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, DeckTemplates.region().size());
+        Assertions.assertEquals(hits + 1, DeckTemplates.region().hits());
+        Assertions.assertEquals(misses + 1, DeckTemplates.region().misses());
+
+        Assertions.assertNotSame(first, DeckTemplates.template(snapshot, List.of(1L, 2L), context(List.of("a", "b"))));
+        Assertions.assertNotSame(first, DeckTemplates.template(snapshot, List.of(1L), context(PLAYERS)));
+    }
+
+    @Test
+    void testNewerCatalogDropsOlderTemplates() {
+        DeckTemplate old = DeckTemplates.template(snapshot(1), List.of(1L), context(PLAYERS));
+        DeckTemplates.template(snapshot(1), List.of(2L), context(PLAYERS));
+        Assertions.assertEquals(2, DeckTemplates.region().size());
+
+        DeckTemplate current = DeckTemplates.template(snapshot(2), List.of(1L), context(PLAYERS));
+        Assertions.assertNotSame(old, current);
+        Assertions.assertEquals(1, DeckTemplates.region().size());
+    }
+
+    @Test
+    void testTemplateKeepsTasksResolvableForPlayerCount() {
+        CatalogSnapshot snapshot = snapshot(1);
+        DeckTemplate threePlayers = DeckTemplates.template(snapshot, List.of(1L, 2L), context(PLAYERS));
+        DeckTemplate twoPlayers = DeckTemplates.template(snapshot, List.of(1L, 2L), context(List.of("a", "b")));
+
+        Assertions.assertEquals(3, threePlayers.entries().size());
+        Assertions.assertEquals(2, twoPlayers.entries().size());
+        Assertions.assertTrue(twoPlayers.entries().stream().noneMatch(entry -> entry.task().id() == 3L));
+        Assertions.assertFalse(threePlayers.virtual());
+        DeckTemplate.Entry perPlayer = threePlayers.entries().stream()
+                .filter(DeckTemplate.Entry::perPlayer)
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(2, perPlayer.copies());
+        Assertions.assertEquals(1, perPlayer.multiplicity());
+        Assertions.assertFalse(perPlayer.single());
+    }
+
+    @Test
+    void testHitRatio() {
+        CacheRegion<Long, String> region = new CacheRegion<>("test", 4, Duration.ofHours(1));
+        Assertions.assertEquals(0, DeckTemplateMetrics.hitRatio(region));
+        region.get(1L);
+        region.put(1L, "one");
+        region.get(1L);
+        region.get(1L);
+        region.get(2L);
+        Assertions.assertEquals(0.5, DeckTemplateMetrics.hitRatio(region));
+    }
+
+    private static CatalogSnapshot snapshot(long version) {
+        List<CatalogSnapshot.TaskView> tasks = new ArrayList<>();
+        tasks.add(task(1L, 1L, Task.Repeat.ALWAYS, 1));
+        tasks.add(task(2L, 2L, Task.Repeat.PER_PLAYER, 2));
+        tasks.add(task(3L, 2L, Task.Repeat.ALWAYS, 1, new PlayerUnresolvedToken("{player_2}")));
+        return new CatalogSnapshot(version, version, tasks, List.of());
+    }
+
+    private static CatalogSnapshot.TaskView task(Long id, Long categoryId, Task.Repeat repeat, int frequency,
+            UnresolvedToken... tokens) {
+        return new CatalogSnapshot.TaskView(id, categoryId, Task.Type.ALL, repeat, (short) frequency, null,
+                List.of(tokens), "en", Map.of("en", "task " + id));
+    }
+
+    private static ResolutionContext context(List<String> players) {
+        return ResolutionContext.builder("game").player(players.get(0)).players(players).build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.thehuginn.deck;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestFenwickSampler {
+
+    @Test
+    void testSamplesProportionallyToWeights() {
+        int[] weights = { 1, 0, 3, 6 };
+        FenwickSampler sampler = new FenwickSampler(weights);
+        Assertions.assertEquals(10, sampler.total());
+
+        Random random = new Random(42);
+        int[] counts = new int[weights.length];
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        Assertions.assertEquals(0, counts[1]);
+        for (int i = 0; i < weights.length; i++) {
+            Assertions.assertEquals(weights[i] / 10.0, counts[i] / (double) draws, 0.01);
+        }
+    }
+
+    @Test
+    void testUpdatedWeightsAreSampled() {
+        FenwickSampler sampler = new FenwickSampler(new int[] { 5, 5, 5 });
+        sampler.set(0, 0);
+        sampler.set(2, 0);
+        Assertions.assertEquals(5, sampler.total());
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(1, sampler.sample(random));
+        }
+
+        sampler.set(1, 0);
+        Assertions.assertEquals(-1, sampler.sample(random));
+        Assertions.assertEquals(-1, new FenwickSampler(new int[0]).sample(random));
+    }
+
+    @Test
+    void testRemovingDrawnItemsExhaustsAll() {
+        int size = 1000;
+        int[] weights = new int[size];
+        Arrays.fill(weights, 2);
+        FenwickSampler sampler = new FenwickSampler(weights);
+
+        Random random = new Random(1);
+        boolean[] drawn = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            int index = sampler.sample(random);
+            Assertions.assertFalse(drawn[index], "removed item drawn again");
+            drawn[index] = true;
+            sampler.set(index, 0);
+        }
+        Assertions.assertEquals(0, sampler.total());
+    }
+
+    @Test
+    void testStateRoundTrip() {
+        SamplerState state = SamplerState.empty();
+        for (long taskId : new long[] { 42, 7, 1000, 7, 13, 42, 42, 3, 99, 5, 64, 8, 21 }) {
+            state.deal(taskId);
+        }
+
+        SamplerState decoded = SamplerState.decode(state.encode());
+        Assertions.assertEquals(13, decoded.draws());
+        Assertions.assertEquals(3, decoded.dealt(42));
+        Assertions.assertEquals(2, decoded.dealt(7));
+        Assertions.assertEquals(1, decoded.dealt(1000));
+        Assertions.assertEquals(0, decoded.dealt(1));
+        Assertions.assertEquals(10 * 10, decoded.encode().length);
+        Assertions.assertEquals(0, SamplerState.decode(null).draws());
+    }
+}
@@ -0,0 +1,158 @@
+package com.thehuginn.events;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.services.hidden.CategoryService;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+@RunOnVertxContext
+public class TestFlightRecorderEvents extends AbstractResolutionTaskTest {
+
+    @Inject
+    CategoryService categoryService;
+
+    private Recording recording;
+
+    @AfterEach
+    void closeRecording() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Test
+    void testGameplayIsRecorded(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String content = "recorded task %d of {player_1}".formatted(i);
+            asserter.execute(() -> new Task.Builder(content)
+                    .repeat(Task.Repeat.ALWAYS)
+                    .type(Task.Type.ALL)
+                    .build()
+                    .<Task> persistAndFlush()
+                    .invoke(task -> taskIds.add(task.id)));
+        }
+        asserter.execute(() -> categoryService
+                .createCategory(EntityCreator.createCategory(taskIds.stream().mapToLong(Long::longValue).toArray()))
+                .invoke(category -> asserter.putData("category", category.id)));
+
+        asserter.execute(() -> {
+            recording = new Recording();
+            recording.enable(DeckGeneratedEvent.class);
+            recording.enable(TurnAdvancedEvent.class);
+            recording.enable(TokenResolutionEvent.class);
+            recording.enable("com.thehuginn.TranslationLookup");
+            recording.start();
+
+            given()
+                    .cookie(new Cookie.Builder("gameId", GAME).build())
+                    .pathParam("id", asserter.getData("category"))
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .when()
+                    .put("/task-mode/category/{id}")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK);
+            turn().put("/game/start").then().statusCode(RestResponse.StatusCode.OK);
+            for (int i = 0; i < 3; i++) {
+                turn().put("/game/task/next").then().statusCode(RestResponse.StatusCode.OK);
+            }
+
+            recording.stop();
+            List<RecordedEvent> events = events(recording);
+
+            RecordedEvent deck = single(events, "com.thehuginn.DeckGenerated");
+            Assertions.assertEquals(GAME, deck.getString("gameId"));
+            Assertions.assertEquals(PLAYERS.size(), deck.getInt("players"));
+            Assertions.assertEquals(5, deck.getInt("candidates"));
+            Assertions.assertTrue(deck.getInt("tasks") >= 5);
+
+            List<RecordedEvent> turns = named(events, "com.thehuginn.TurnAdvanced");
+            Assertions.assertEquals(3, turns.size());
+            for (RecordedEvent turn : turns) {
+                Assertions.assertTrue(taskIds.contains(turn.getLong("taskId")));
+                Assertions.assertTrue(turn.getLong("queries") > 0);
+                Assertions.assertNotNull(turn.getString("fallback"));
+            }
+
+            Assertions.assertTrue(named(events, "com.thehuginn.TokenResolution").stream()
+                    .anyMatch(event -> event.getString("phase").equals(TokenResolutionEvent.Phase.RENDER.name())));
+            Assertions.assertFalse(named(events, "com.thehuginn.TranslationLookup").isEmpty());
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    @Test
+    void testDisabledTokenEventIsNotAllocated() {
+        Assertions.assertFalse(TokenResolutionEvent.enabled());
+        Assertions.assertNull(TokenResolutionEvent.start(TokenResolutionEvent.enabled()));
+
+        recording = new Recording();
+        recording.enable(TokenResolutionEvent.class);
+        recording.start();
+        Assertions.assertTrue(TokenResolutionEvent.enabled());
+        Assertions.assertNotNull(TokenResolutionEvent.start(TokenResolutionEvent.enabled()));
+    }
+
+    private static List<RecordedEvent> events(Recording recording) {
+        try {
+            Path file = Files.createTempFile("task-game", ".jfr");
+            try {
+                recording.dump(file);
+                return RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> named = named(events, name);
+        Assertions.assertEquals(1, named.size(), name);
+        return named.get(0);
+    }
+
+    private static RequestSpecification turn() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+}
@@ -0,0 +1,162 @@
+package com.thehuginn.services.exposed;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.services.hidden.CategoryService;
+import com.thehuginn.services.hidden.GameTaskService;
+import com.thehuginn.task.GameTask;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+@QuarkusTest
+@RunOnVertxContext
+public class TestCategoryToggle extends AbstractResolutionTaskTest {
+
+    private static final int TASKS = 4;
+
+    @Inject
+    CategoryService categoryService;
+
+    @Test
+    void testCategoriesToggleOnStartedGame(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        List<Long> firstTasks = createCategory(asserter, "first");
+        List<Long> secondTasks = createCategory(asserter, "second");
+        Map<Long, Long> positions = new HashMap<>();
+        asserter.execute(() -> {
+            category().pathParam("id", asserter.getData("first"))
+                    .put("/task-mode/category/{id}")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK);
+            turn().put("/game/start").then().statusCode(RestResponse.StatusCode.OK).body(is("true"));
+            turn().put("/game/task/next").then().statusCode(RestResponse.StatusCode.OK);
+        });
+        asserter.assertThat(() -> GameTask.<GameTask> list("game.id = :game", Parameters.with("game", GAME)),
+                gameTasks -> {
+                    Assertions.assertEquals(TASKS, gameTasks.size());
+                    gameTasks.forEach(gameTask -> positions.put(gameTask.id, gameTask.ordinal));
+                });
+        asserter.assertThat(() -> GameTaskService.cursor(GAME), cursor -> asserter.putData("cursor", cursor));
+
+        // the tasks of the added category are inserted into the remaining deck, its rows stay where they are
+        asserter.execute(() -> category().pathParam("id", asserter.getData("second"))
+                .put("/task-mode/category/{id}")
+                .then()
+                .statusCode(RestResponse.StatusCode.OK)
+                .body(is("true")));
+        asserter.assertThat(() -> GameTask.<GameTask> list("game.id = :game", Parameters.with("game", GAME)),
+                gameTasks -> {
+                    Assertions.assertEquals(2 * TASKS, gameTasks.size());
+                    Assertions.assertEquals(TASKS, gameTasks.stream()
+                            .filter(gameTask -> secondTasks.contains(gameTask.unresolvedTask.id))
+                            .count());
+                    Set<Long> ordinals = new HashSet<>();
+                    for (GameTask gameTask : gameTasks) {
+                        Assertions.assertTrue(ordinals.add(gameTask.ordinal), "position taken twice");
+                        if (positions.containsKey(gameTask.id)) {
+                            Assertions.assertEquals(positions.get(gameTask.id), gameTask.ordinal);
+                        } else {
+                            Assertions.assertTrue(gameTask.ordinal > (Long) asserter.getData("cursor"));
+                        }
+                    }
+                });
+
+        // only the dealt task of the removed category stays
+        asserter.execute(() -> category().pathParam("id", asserter.getData("first"))
+                .delete("/task-mode/category/{id}")
+                .then()
+                .statusCode(RestResponse.StatusCode.OK)
+                .body(is("true")));
+        asserter.assertThat(() -> GameTask.<GameTask> list("game.id = :game", Parameters.with("game", GAME)),
+                gameTasks -> {
+                    Assertions.assertEquals(TASKS + 1, gameTasks.size());
+                    Assertions.assertEquals(1, gameTasks.stream()
+                            .filter(gameTask -> firstTasks.contains(gameTask.unresolvedTask.id))
+                            .count());
+                });
+        asserter.execute(() -> {
+            for (int i = 0; i < TASKS; i++) {
+                String task = turn().put("/game/task/next")
+                        .then()
+                        .statusCode(RestResponse.StatusCode.OK)
+                        .extract()
+                        .path("data.task");
+                Assertions.assertTrue(task.startsWith("second"), task);
+            }
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    @Test
+    void testAddingCategoryRequiresRoster(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        createCategory(asserter, "first");
+        asserter.execute(() -> given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .pathParam("id", asserter.getData("first"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when()
+                .put("/task-mode/category/{id}")
+                .then()
+                .statusCode(RestResponse.StatusCode.BAD_REQUEST));
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private List<Long> createCategory(UniAsserter asserter, String name) {
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            String content = "%s task %d".formatted(name, i);
+            asserter.execute(() -> new Task.Builder(content)
+                    .repeat(Task.Repeat.NEVER)
+                    .type(Task.Type.ALL)
+                    .build()
+                    .<Task> persistAndFlush()
+                    .invoke(task -> taskIds.add(task.id)));
+        }
+        asserter.execute(() -> categoryService
+                .createCategory(EntityCreator.createCategory(taskIds.stream().mapToLong(Long::longValue).toArray()))
+                .invoke(category -> asserter.putData(name, category.id)));
+        return taskIds;
+    }
+
+    private static RequestSpecification category() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+
+    private static RequestSpecification turn() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+}
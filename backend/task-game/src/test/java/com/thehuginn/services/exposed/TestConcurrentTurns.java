@@ -0,0 +1,148 @@
+package com.thehuginn.services.exposed;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.GameSession;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.services.hidden.GameExecutor;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.common.http.TestHTTPEndpoint;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Many devices of one party tap next at the same time, every tap has to advance the game by exactly one turn.
+ */
+@QuarkusTest
+@RunOnVertxContext
+@TestHTTPEndpoint(GameService.class)
+public class TestConcurrentTurns extends AbstractResolutionTaskTest {
+
+    private static final int TAPS = 100;
+    private static final String OTHER_GAME = "otherGame";
+
+    @Inject
+    GameExecutor gameExecutor;
+
+    @Test
+    void testConcurrentTapsAdvanceOneTurnEach(UniAsserter asserter) {
+        asserter.execute(() -> new Task.Builder("always playable task")
+                .repeat(Task.Repeat.ALWAYS)
+                .type(Task.Type.ALL)
+                .build()
+                .<Task> persistAndFlush()
+                .invoke(task -> asserter.putData("task", task)));
+        for (String gameId : List.of(GAME, OTHER_GAME)) {
+            asserter.execute(() -> EntityCreator.createGameSession(gameId).persistAndFlush());
+            asserter.execute(() -> {
+                try {
+                    return gameTaskService.generateGameTasks(List.of((Task) asserter.getData("task")),
+                            ResolutionContext.builder(gameId).player(PLAYER).players(PLAYERS).locale(LOCALE).build());
+                } catch (CloneNotSupportedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+
+        asserter.assertThat(() -> Uni.createFrom().item(this::tapConcurrently)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool()),
+                statusCodes -> statusCodes.forEach(statusCode -> Assertions.assertEquals(RestResponse.StatusCode.OK,
+                        statusCode, "tap was lost")));
+
+        // the first tap starts with the first player, every other tap moves to the next one
+        for (String gameId : List.of(GAME, OTHER_GAME)) {
+            asserter.assertThat(() -> GameSession.<GameSession> findById(gameId),
+                    gameSession -> Assertions.assertEquals(PLAYERS.get((TAPS - 1) % PLAYERS.size()),
+                            gameSession.currentPlayer));
+        }
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    @Test
+    void testCancelledWaitingMutationKeepsOrder(UniAsserter asserter) {
+        CompletableFuture<Void> firstDone = new CompletableFuture<>();
+        CompletableFuture<Void> thirdStarted = new CompletableFuture<>();
+        asserter.execute(() -> {
+            gameExecutor.execute(GAME, () -> Uni.createFrom().completionStage(firstDone)).subscribe().with(ignored -> {
+            });
+            // e.g. a client which gave up while its tap was queued
+            Cancellable waiting = gameExecutor.execute(GAME, () -> Uni.createFrom().voidItem())
+                    .subscribe().with(ignored -> {
+                    });
+            waiting.cancel();
+            gameExecutor.execute(GAME, () -> Uni.createFrom().voidItem().invoke(() -> thirdStarted.complete(null)))
+                    .subscribe().with(ignored -> {
+                    });
+        });
+        asserter.assertThat(() -> Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofMillis(200)),
+                ignored -> Assertions.assertFalse(thirdStarted.isDone(), "mutation overtook a running one"));
+        asserter.execute(() -> {
+            firstDone.complete(null);
+        });
+        asserter.assertThat(() -> Uni.createFrom().completionStage(thirdStarted),
+                ignored -> Assertions.assertTrue(thirdStarted.isDone()));
+        asserter.assertThat(() -> Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofMillis(50)),
+                ignored -> Assertions.assertEquals(0, gameExecutor.activeGames()));
+    }
+
+    /**
+     * @return status codes of all taps of both games
+     */
+    private List<Integer> tapConcurrently() {
+        ExecutorService devices = Executors.newFixedThreadPool(2 * TAPS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> taps = new ArrayList<>();
+            for (int tap = 0; tap < TAPS; tap++) {
+                for (String gameId : List.of(GAME, OTHER_GAME)) {
+                    taps.add(devices.submit(() -> {
+                        start.await();
+                        return given()
+                                .cookie(new Cookie.Builder("gameId", gameId).build())
+                                .cookie(new Cookie.Builder("locale", "en").build())
+                                .body(new Roster(resolutionContext.getPlayers()))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .when()
+                                .put("/task/next")
+                                .statusCode();
+                    }));
+                }
+            }
+            start.countDown();
+
+            List<Integer> statusCodes = new ArrayList<>();
+            for (Future<Integer> tap : taps) {
+                statusCodes.add(tap.get());
+            }
+            return statusCodes;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            devices.shutdownNow();
+        }
+    }
+}
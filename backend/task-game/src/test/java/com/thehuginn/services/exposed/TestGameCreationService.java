@@ -3,6 +3,7 @@ package com.thehuginn.services.exposed;
 import com.thehuginn.AbstractTest;
 import com.thehuginn.category.Category;
 import com.thehuginn.common.game.translation.LocaleCategoryText;
+import com.thehuginn.common.services.exposed.Roster;
 import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
 import com.thehuginn.services.hidden.CategoryService;
 import com.thehuginn.task.GameTask;
@@ -14,6 +15,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.vertx.RunOnVertxContext;
 import io.quarkus.test.vertx.UniAsserter;
 import io.restassured.http.Cookie;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.Assertions;
@@ -42,6 +44,9 @@ public class TestGameCreationService extends AbstractTest {
             .players(PLAYERS)
             .locale(LOCALE).build();
 
+    @Inject
+    CategoryService categoryService;
+
     @Test
     @Order(1)
     void testGettingGameSession(UniAsserter asserter) {
@@ -76,6 +81,8 @@ public class TestGameCreationService extends AbstractTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .pathParam("id", 0)
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task-mode/category/{id}")
                     .then()
@@ -85,6 +92,8 @@ public class TestGameCreationService extends AbstractTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .pathParam("id", asserter.getData("id1"))
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task-mode/category/{id}")
                     .then()
@@ -94,6 +103,8 @@ public class TestGameCreationService extends AbstractTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .pathParam("id", asserter.getData("id2"))
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task-mode/category/{id}")
                     .then()
@@ -157,13 +168,13 @@ public class TestGameCreationService extends AbstractTest {
                 .onItem()
                 .invoke(task -> asserter.putData("task4", task.id)));
 
-        asserter.execute(() -> new CategoryService()
+        asserter.execute(() -> categoryService
                 .createCategory(
                         EntityCreator.createCategory((long) asserter.getData("task1"), (long) asserter.getData("task2")))
                 .onItem()
                 .invoke(category -> asserter.putData("id1", category.id)));
         asserter.execute(
-                () -> new CategoryService().createCategory(EntityCreator.createCategory((long) asserter.getData("task3")))
+                () -> categoryService.createCategory(EntityCreator.createCategory((long) asserter.getData("task3")))
                         .onItem()
                         .invoke(category -> asserter.putData("id2", category.id)));
 
@@ -171,6 +182,8 @@ public class TestGameCreationService extends AbstractTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .pathParam("id", 0)
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task-mode/category/{id}")
                     .then()
@@ -180,6 +193,8 @@ public class TestGameCreationService extends AbstractTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .pathParam("id", asserter.getData("id2"))
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task-mode/category/{id}")
                     .then()
@@ -190,7 +205,7 @@ public class TestGameCreationService extends AbstractTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
                 .put("/game/start")
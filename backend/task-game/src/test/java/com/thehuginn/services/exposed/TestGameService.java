@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.common.services.exposed.Roster;
 import com.thehuginn.task.GameTask;
 import com.thehuginn.task.Task;
 import com.thehuginn.util.EntityCreator;
@@ -60,10 +61,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.NO_CONTENT));
 
@@ -94,10 +95,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((Task) asserter.getData("task")).getKey(), is("simple task")));
@@ -128,10 +129,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((Task) asserter.getData("task")).getKey(),
@@ -164,10 +165,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((Task) asserter.getData("task")).getKey(), is("simple task for 30s")));
@@ -199,10 +200,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((Task) asserter.getData("task")).getKey(),
@@ -236,10 +237,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((Task) asserter.getData("task")).getKey(),
@@ -277,10 +278,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "sk").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .body("data." + ((Task) asserter.getData("task")).getKey(),
@@ -314,10 +315,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
         asserter.execute(() -> asserter.putData("resolvedTask", given()
                 .cookie(new Cookie.Builder("gameId", GAME).build())
                 .cookie(new Cookie.Builder("locale", "en").build())
-                .queryParam("resolutionContext", resolutionContext)
+                .body(new Roster(resolutionContext.getPlayers()))
                 .contentType(MediaType.APPLICATION_JSON)
                 .when()
-                .get("/task/current")
+                .put("/task/current")
                 .then()
                 .statusCode(RestResponse.StatusCode.OK)
                 .extract()
@@ -327,10 +328,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
                 given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
-                        .get("/task/current")
+                        .put("/task/current")
                         .then()
                         .statusCode(RestResponse.StatusCode.OK)
                         .extract()
@@ -340,10 +341,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
                 given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
-                        .get("/task/current")
+                        .put("/task/current")
                         .then()
                         .statusCode(RestResponse.StatusCode.OK)
                         .extract()
@@ -384,7 +385,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             String task = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
@@ -408,7 +409,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             String task = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
@@ -455,7 +456,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             String task = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
@@ -470,10 +471,10 @@ public class TestGameService extends AbstractResolutionTaskTest {
             JsonAsserter.assertEquals(asserter.getData("task"), given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("/task/current")
+                    .put("/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .extract()
@@ -512,7 +513,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             String task = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
@@ -526,7 +527,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
                 String nextTask = given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
                         .put("/task/next")
@@ -577,7 +578,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
                 String result = given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
                         .put("/task/next")
@@ -622,7 +623,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             String first = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
@@ -635,7 +636,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             String second = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
@@ -648,7 +649,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
                 String receivedTask = given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
                         .put("/task/next")
@@ -729,7 +730,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
                 String task = given()
                         .cookie(new Cookie.Builder("gameId", GAME).build())
                         .cookie(new Cookie.Builder("locale", "en").build())
-                        .queryParam("resolutionContext", resolutionContext)
+                        .body(new Roster(resolutionContext.getPlayers()))
                         .contentType(MediaType.APPLICATION_JSON)
                         .when()
                         .put("/task/next")
@@ -750,7 +751,7 @@ public class TestGameService extends AbstractResolutionTaskTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("/task/next")
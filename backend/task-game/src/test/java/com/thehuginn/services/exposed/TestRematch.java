@@ -0,0 +1,155 @@
+package com.thehuginn.services.exposed;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.services.hidden.CategoryService;
+import com.thehuginn.task.GameTask;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import com.thehuginn.util.StatementCounter;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+@QuarkusTest
+@RunOnVertxContext
+public class TestRematch extends AbstractResolutionTaskTest {
+
+    private static final int TASKS = 4;
+
+    private static final int DECK = 40;
+
+    @Inject
+    CategoryService categoryService;
+
+    @Test
+    void testRematchRestoresDealtTasksOnTheSameRows(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            String content = "never again %d".formatted(i);
+            asserter.execute(() -> new Task.Builder(content)
+                    .repeat(Task.Repeat.NEVER)
+                    .type(Task.Type.ALL)
+                    .build()
+                    .<Task> persistAndFlush()
+                    .invoke(task -> taskIds.add(task.id)));
+        }
+        asserter.execute(() -> categoryService
+                .createCategory(EntityCreator.createCategory(taskIds.stream().mapToLong(Long::longValue).toArray()))
+                .invoke(category -> asserter.putData("category", category.id)));
+        asserter.execute(() -> {
+            given()
+                    .cookie(new Cookie.Builder("gameId", GAME).build())
+                    .pathParam("id", asserter.getData("category"))
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .when()
+                    .put("/task-mode/category/{id}")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK);
+            turn().put("/game/start").then().statusCode(RestResponse.StatusCode.OK).body(is("true"));
+            for (int i = 0; i < TASKS; i++) {
+                turn().put("/game/task/next").then().statusCode(RestResponse.StatusCode.OK);
+            }
+        });
+        // every task but the current one was dealt and deleted
+        asserter.assertThat(() -> GameTask.<GameTask> list("game.id = :game", Parameters.with("game", GAME)),
+                gameTasks -> {
+                    Assertions.assertEquals(1, gameTasks.size());
+                    asserter.putData("remaining", gameTasks.get(0).id);
+                });
+
+        asserter.execute(() -> turn().put("/game/rematch").then().statusCode(RestResponse.StatusCode.OK).body(is("true")));
+        asserter.assertThat(() -> GameTask.<GameTask> list("game.id = :game", Parameters.with("game", GAME)),
+                gameTasks -> {
+                    Assertions.assertEquals(TASKS, gameTasks.size());
+                    Assertions.assertTrue(gameTasks.stream().anyMatch(gameTask -> gameTask.id.equals(asserter.getData(
+                            "remaining"))));
+                });
+        asserter.execute(() -> {
+            Set<String> dealt = new HashSet<>();
+            for (int i = 0; i < TASKS; i++) {
+                dealt.add(turn().put("/game/task/next")
+                        .then()
+                        .statusCode(RestResponse.StatusCode.OK)
+                        .extract()
+                        .path("data.task"));
+            }
+            Assertions.assertEquals(TASKS, dealt.size());
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    @Test
+    void testRematchWritesOnlyTheDealtTasks(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < DECK; i++) {
+            String content = "never again %d".formatted(i);
+            asserter.execute(() -> new Task.Builder(content)
+                    .repeat(Task.Repeat.NEVER)
+                    .type(Task.Type.ALL)
+                    .build()
+                    .<Task> persistAndFlush()
+                    .invoke(task -> taskIds.add(task.id)));
+        }
+        asserter.execute(() -> categoryService
+                .createCategory(EntityCreator.createCategory(taskIds.stream().mapToLong(Long::longValue).toArray()))
+                .invoke(category -> asserter.putData("category", category.id)));
+        asserter.execute(() -> {
+            given()
+                    .cookie(new Cookie.Builder("gameId", GAME).build())
+                    .pathParam("id", asserter.getData("category"))
+                    .body(new Roster(PLAYERS))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .when()
+                    .put("/task-mode/category/{id}")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK);
+            turn().put("/game/start").then().statusCode(RestResponse.StatusCode.OK).body(is("true"));
+            for (int i = 0; i < TASKS; i++) {
+                turn().put("/game/task/next").then().statusCode(RestResponse.StatusCode.OK);
+            }
+        });
+
+        // the dealt tasks are restored, the rest of the deck is neither read as entities nor written
+        asserter.execute(() -> {
+            long statements = StatementCounter.count(() -> turn().put("/game/rematch")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK)
+                    .body(is("true")));
+            Assertions.assertTrue(statements < DECK / 2, "rematch issued %d statements".formatted(statements));
+        });
+        asserter.assertThat(() -> GameTask.count("game.id", GAME), count -> Assertions.assertEquals(DECK, count.intValue()));
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private static RequestSpecification turn() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+}
@@ -0,0 +1,163 @@
+package com.thehuginn.services.exposed;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.profiling.SqlProfilerFilter;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.services.hidden.CategoryService;
+import com.thehuginn.task.GameTask;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Plays a whole game of {@link #PLAYER_COUNT} players over {@link #CATEGORY_COUNT} categories and holds every
+ * gameplay endpoint to a budget of statements and loaded rows, read from the headers of the SQL profiler.
+ * <p>
+ * Only the inserts of {@code PUT /game/start} may follow the deck, the budgets of a turn stay below the deck size,
+ * so an N+1 or a fetch of the whole deck fails here.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class TestStatementBudgets extends AbstractResolutionTaskTest {
+
+    private static final int PLAYER_COUNT = 6;
+    private static final int CATEGORY_COUNT = 3;
+    private static final int TASKS_PER_CATEGORY = 10;
+    private static final int TURNS = 10;
+
+    private static final List<String> GAME_PLAYERS = IntStream.rangeClosed(1, PLAYER_COUNT)
+            .mapToObj(i -> "player" + i)
+            .toList();
+    private static final ResolutionContext gameContext = ResolutionContext.builder(GAME)
+            .player(GAME_PLAYERS.get(0))
+            .players(GAME_PLAYERS)
+            .locale(LOCALE).build();
+
+    @Inject
+    CategoryService categoryService;
+
+    @Test
+    void testGameplayStaysWithinItsBudget(UniAsserter asserter) {
+        List<Long> categoryIds = new ArrayList<>();
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            List<Long> taskIds = new ArrayList<>();
+            for (int t = 0; t < TASKS_PER_CATEGORY; t++) {
+                String content = "task %d of category %d".formatted(t, c);
+                asserter.execute(() -> new Task.Builder(content)
+                        .repeat(Task.Repeat.ALWAYS)
+                        .type(Task.Type.ALL)
+                        .build()
+                        .<Task> persistAndFlush()
+                        .invoke(task -> taskIds.add(task.id)));
+            }
+            asserter.execute(() -> categoryService
+                    .createCategory(EntityCreator.createCategory(taskIds.stream().mapToLong(Long::longValue).toArray()))
+                    .invoke(category -> categoryIds.add(category.id)));
+        }
+
+        asserter.execute(() -> {
+            game().post("/game").then().statusCode(RestResponse.StatusCode.OK);
+            for (Long categoryId : categoryIds) {
+                assertBudget("PUT /task-mode/category", 4, 4 + 2 * CATEGORY_COUNT, () -> turn()
+                        .pathParam("id", categoryId)
+                        .put("/task-mode/category/{id}"));
+            }
+        });
+        // the snapshot is built once per catalog version, not by a game
+        asserter.execute(() -> Catalog.snapshot());
+        asserter.execute(() -> GameTask.count("game.id", GAME)
+                .invoke(count -> Assertions.assertEquals(0L, count)));
+
+        List<Long> startStatements = new ArrayList<>();
+        asserter.execute(() -> {
+            Response start = turn().put("/game/start");
+            start.then().statusCode(RestResponse.StatusCode.OK);
+            startStatements.add(measured(start, SqlProfilerFilter.STATEMENTS_HEADER));
+            assertRows("PUT /game/start", 2 * CATEGORY_COUNT + 10, start);
+        });
+        asserter.execute(() -> GameTask.count("game.id", GAME)
+                .invoke(deck -> {
+                    // a deck larger than any turn budget, fetching it would show
+                    Assertions.assertTrue(deck >= CATEGORY_COUNT * TASKS_PER_CATEGORY);
+                    // one insert per game task, the reads stay constant
+                    Assertions.assertTrue(startStatements.get(0) <= deck + 15,
+                            () -> "PUT /game/start issued %d statements for a deck of %d"
+                                    .formatted(startStatements.get(0), deck));
+                }));
+
+        asserter.execute(() -> {
+            // the first call deals the first task
+            turn().put("/game/task/current").then().statusCode(RestResponse.StatusCode.OK);
+            assertBudget("PUT /game/task/current", 3, 2 * CATEGORY_COUNT + 12, () -> turn()
+                    .put("/game/task/current"));
+            for (int i = 0; i < TURNS; i++) {
+                assertBudget("PUT /game/task/next", 12, 2 * CATEGORY_COUNT + 12, () -> turn()
+                        .put("/game/task/next"));
+            }
+            assertBudget("GET /game", 1, 1 + 2 * CATEGORY_COUNT, () -> game().get("/game"));
+            assertBudget("GET /task-mode/category", 1, CATEGORY_COUNT * 2, () -> game().get("/task-mode/category"));
+            assertBudget("GET /task-mode/category/selected", 1, 1 + 2 * CATEGORY_COUNT, () -> game()
+                    .get("/task-mode/category/selected"));
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private static void assertBudget(String endpoint, long statements, long rows, Supplier<Response> call) {
+        Response response = call.get();
+        response.then().statusCode(RestResponse.StatusCode.OK);
+        long issued = measured(response, SqlProfilerFilter.STATEMENTS_HEADER);
+        Assertions.assertTrue(issued <= statements,
+                () -> "%s issued %d statements, its budget is %d".formatted(endpoint, issued, statements));
+        assertRows(endpoint, rows, response);
+    }
+
+    private static void assertRows(String endpoint, long rows, Response response) {
+        long loaded = measured(response, SqlProfilerFilter.ROWS_HEADER);
+        Assertions.assertTrue(loaded <= rows,
+                () -> "%s loaded %d rows, its budget is %d".formatted(endpoint, loaded, rows));
+    }
+
+    /**
+     * The profiler leaves out its headers when the request issued no statement.
+     */
+    private static long measured(Response response, String header) {
+        String value = response.header(header);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static RequestSpecification game() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .when();
+    }
+
+    private static RequestSpecification turn() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(gameContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+}
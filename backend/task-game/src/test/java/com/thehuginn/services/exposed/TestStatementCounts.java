@@ -0,0 +1,144 @@
+package com.thehuginn.services.exposed;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.category.Category;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.profiling.EndpointProfiles;
+import com.thehuginn.common.services.exposed.profiling.SqlProfilerFilter;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import com.thehuginn.util.StatementCounter;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+/**
+ * Pins the statements documented on {@link GameService} and {@link GameCreationService}, none of them may grow
+ * with the size of the deck.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class TestStatementCounts extends AbstractResolutionTaskTest {
+
+    private static final int DECK_SIZE = 30;
+
+    @Test
+    void testEndpointsStayWithinTheirStatementBudget(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            asserter.execute(() -> EntityCreator.createCategory()
+                    .<Category> persistAndFlush()
+                    .invoke(category -> categoryIds.add(category.id)));
+        }
+        List<Task> deck = new ArrayList<>();
+        for (int i = 0; i < DECK_SIZE; i++) {
+            asserter.execute(() -> new Task.Builder("always playable task")
+                    .repeat(Task.Repeat.ALWAYS)
+                    .type(Task.Type.ALL)
+                    .build()
+                    .<Task> persistAndFlush()
+                    .invoke(deck::add));
+        }
+        asserter.execute(() -> {
+            try {
+                return gameTaskService.generateGameTasks(deck, resolutionContext);
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        // rendering reads templates from the snapshot, building it is not the cost of a turn
+        asserter.execute(() -> Catalog.snapshot());
+
+        asserter.execute(() -> {
+            for (Long categoryId : categoryIds) {
+                assertBudget("PUT /task-mode/category", 4, () -> turn()
+                        .pathParam("id", categoryId)
+                        .put("/task-mode/category/{id}")
+                        .then()
+                        .statusCode(RestResponse.StatusCode.OK));
+            }
+            assertBudget("GET /game", 1, () -> game()
+                    .get("/game")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK));
+            assertBudget("GET /task-mode/category/selected", 1, () -> game()
+                    .get("/task-mode/category/selected")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK));
+
+            // the first call deals the first task
+            turn().put("/game/task/current").then().statusCode(RestResponse.StatusCode.OK);
+            assertBudget("PUT /game/task/current", 3, () -> turn()
+                    .put("/game/task/current")
+                    .then()
+                    .statusCode(RestResponse.StatusCode.OK));
+            for (int i = 0; i < 3; i++) {
+                assertBudget("PUT /game/task/next", 12, () -> turn()
+                        .put("/game/task/next")
+                        .then()
+                        .statusCode(RestResponse.StatusCode.OK));
+            }
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    @Test
+    void testProfilerHeadersReportStatementsOfTheRequest(UniAsserter asserter) {
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        asserter.execute(EndpointProfiles::clear);
+
+        asserter.execute(() -> {
+            List<Response> responses = new ArrayList<>();
+            long statements = StatementCounter.count(() -> responses.add(game().get("/game")));
+            Response response = responses.get(0);
+            response.then()
+                    .statusCode(RestResponse.StatusCode.OK)
+                    .header(SqlProfilerFilter.STATEMENTS_HEADER, String.valueOf(statements))
+                    .header(SqlProfilerFilter.ROWS_HEADER, notNullValue())
+                    .header(SqlProfilerFilter.TIME_HEADER, endsWith("ms"));
+            Assertions.assertTrue(EndpointProfiles.worst(10).stream()
+                    .anyMatch(profile -> profile.endpoint().equals("GET GameService#getGame") && profile.requests() == 1));
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private static void assertBudget(String endpoint, long budget, Runnable call) {
+        long statements = StatementCounter.count(call);
+        Assertions.assertTrue(statements <= budget,
+                () -> "%s issued %d statements, its budget is %d".formatted(endpoint, statements, budget));
+    }
+
+    private static RequestSpecification game() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .when();
+    }
+
+    private static RequestSpecification turn() {
+        return given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when();
+    }
+}
@@ -9,6 +9,7 @@ import io.quarkus.hibernate.reactive.panache.Panache;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.vertx.RunOnVertxContext;
 import io.quarkus.test.vertx.UniAsserter;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.AfterEach;
@@ -31,6 +32,9 @@ import static org.hamcrest.CoreMatchers.startsWith;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class TestCategoryService extends AbstractTest {
 
+    @Inject
+    CategoryService categoryService;
+
     String categoryBody = """
             {
                 "name": "%s",
@@ -237,7 +241,7 @@ public class TestCategoryService extends AbstractTest {
         asserter.execute(() -> EntityCreator.createTask("<player_1>").<Task> persistAndFlush()
                 .onItem()
                 .invoke(task -> asserter.putData("task2", task.id)));
-        asserter.execute(() -> new CategoryService()
+        asserter.execute(() -> categoryService
                 .createCategory(
                         EntityCreator.createCategory((long) asserter.getData("task1"), (long) asserter.getData("task2")))
                 .onItem()
@@ -437,7 +441,7 @@ public class TestCategoryService extends AbstractTest {
                 .onItem()
                 .invoke(task -> asserter.putData("task3", task.id)));
 
-        asserter.execute(() -> new CategoryService()
+        asserter.execute(() -> categoryService
                 .createCategory(
                         EntityCreator.createCategory((long) asserter.getData("task1"), (long) asserter.getData("task2")))
                 .onItem()
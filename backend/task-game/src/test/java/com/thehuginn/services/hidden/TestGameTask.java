@@ -139,19 +139,19 @@ public class TestGameTask extends AbstractTest {
                 .list(), gameTasks -> {
                     Assertions.assertEquals(gameTasks.size(), 11);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(0)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(0).id))
                             .count(), 1);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(1)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(1).id))
                             .count(), 3);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(2)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(2).id))
                             .count(), 1);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(3)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(3).id))
                             .count(), 6);
                     List<GameTask> task4 = gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(3)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(3).id))
                             .toList();
                     Assertions.assertEquals(task4.size(), 6);
                     Assertions.assertEquals(task4.stream()
@@ -228,13 +228,13 @@ public class TestGameTask extends AbstractTest {
                 .list(), gameTasks -> {
                     Assertions.assertEquals(gameTasks.size(), 5);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(0)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(0).id))
                             .count(), 1);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(1)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(1).id))
                             .count(), 1);
                     Assertions.assertEquals(gameTasks.stream()
-                            .filter(gameTask -> gameTask.unresolvedTask.equals(tasks.get(2)))
+                            .filter(gameTask -> gameTask.unresolvedTask.id.equals(tasks.get(2).id))
                             .count(), 3);
                 });
 
@@ -2,6 +2,7 @@ package com.thehuginn.tasks;
 
 import com.thehuginn.AbstractResolutionTaskTest;
 import com.thehuginn.GameSession;
+import com.thehuginn.common.services.exposed.Roster;
 import com.thehuginn.task.ResolvedTask;
 import com.thehuginn.task.Task;
 import com.thehuginn.util.EntityCreator;
@@ -63,10 +64,10 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             String currentTask = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("game/task/current")
+                    .put("game/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .extract()
@@ -86,10 +87,10 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
                     String currentTask = given()
                             .cookie(new Cookie.Builder("gameId", GAME).build())
                             .cookie(new Cookie.Builder("locale", "en").build())
-                            .queryParam("resolutionContext", resolutionContext)
+                            .body(new Roster(resolutionContext.getPlayers()))
                             .contentType(MediaType.APPLICATION_JSON)
                             .when()
-                            .get("game/task/current")
+                            .put("game/task/current")
                             .then()
                             .statusCode(RestResponse.StatusCode.OK)
                             .extract()
@@ -138,10 +139,10 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             String currentTask = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("game/task/current")
+                    .put("game/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .extract()
@@ -161,10 +162,10 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
                     String currentTask = given()
                             .cookie(new Cookie.Builder("gameId", GAME).build())
                             .cookie(new Cookie.Builder("locale", "en").build())
-                            .queryParam("resolutionContext", resolutionContext)
+                            .body(new Roster(resolutionContext.getPlayers()))
                             .contentType(MediaType.APPLICATION_JSON)
                             .when()
-                            .get("game/task/next")
+                            .put("game/task/next")
                             .then()
                             .statusCode(RestResponse.StatusCode.OK)
                             .extract()
@@ -211,7 +212,7 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             String currentTask = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("game/task/next")
@@ -233,7 +234,7 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             String currentTask = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("game/task/next")
@@ -283,7 +284,7 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("game/task/next")
@@ -293,7 +294,7 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             String currentTask = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("game/task/next")
@@ -312,7 +313,7 @@ public class ResolvedTaskTest extends AbstractResolutionTaskTest {
             String currentTask = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
                     .put("game/task/next")
@@ -0,0 +1,41 @@
+package com.thehuginn.tasks;
+
+import com.thehuginn.AbstractTest;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+/**
+ * The deck cursor queries of {@code GameSession#nextTask} have to be answerable from an index. Sequential scans
+ * are disabled, as on the small test tables the planner would prefer them anyway.
+ */
+@QuarkusTest
+@RunOnVertxContext
+public class TestGameTaskQueryPlans extends AbstractTest {
+
+    @Test
+    void testNextTaskUsesGameIndex(UniAsserter asserter) {
+        asserter.assertThat(() -> plan("select * from GameTask where game = 'game' and ordinal > 0 order by ordinal limit 1"),
+                plan -> Assertions.assertTrue(plan.contains("gametask_game_ordinal_idx"), plan));
+    }
+
+    @Test
+    void testAssignedTaskUsesPlayerIndex(UniAsserter asserter) {
+        asserter.assertThat(() -> plan("select * from GameTask where game = 'game' and assignedPlayer = 'player1'"
+                + " and ordinal > 0 order by ordinal limit 1"),
+                plan -> Assertions.assertTrue(plan.contains("gametask_game_player_ordinal_idx"), plan));
+    }
+
+    private static Uni<String> plan(String query) {
+        return Panache.withTransaction(() -> Panache.getSession()
+                .chain(session -> session.createNativeQuery("set local enable_seqscan = off").executeUpdate()
+                        .chain(() -> session.createNativeQuery("explain " + query, String.class).getResultList()))
+                .map(rows -> rows.stream().collect(Collectors.joining("\n"))));
+    }
+}
@@ -0,0 +1,73 @@
+package com.thehuginn.tasks;
+
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import com.thehuginn.task.GameTask;
+import com.thehuginn.task.Task;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TestVirtualGameTask {
+
+    private static final List<String> PLAYERS = List.of("player1", "player2", "player3");
+
+    private static ResolutionContext turnOf(String player) {
+        return ResolutionContext.builder("game").player(player).players(PLAYERS).build();
+    }
+
+    @Test
+    void testMultiplicityIsDealtOneByOne() {
+        GameTask gameTask = new GameTask();
+        gameTask.multiplicity = 3;
+
+        for (int copy = 0; copy < 3; copy++) {
+            Assertions.assertFalse(gameTask.isExhausted());
+            Assertions.assertTrue(gameTask.isResolvable(turnOf(PLAYERS.get(copy))));
+            gameTask.deal(turnOf(PLAYERS.get(copy)));
+        }
+        Assertions.assertTrue(gameTask.isExhausted());
+    }
+
+    @Test
+    void testPerPlayerEntryIsDealtToEveryPlayer() {
+        GameTask gameTask = new GameTask();
+        gameTask.perPlayer = true;
+        gameTask.multiplicity = 2;
+
+        gameTask.deal(turnOf("player2"));
+        Assertions.assertFalse(gameTask.isResolvable(turnOf("player2")));
+        Assertions.assertTrue(gameTask.isResolvable(turnOf("player1")));
+
+        gameTask.deal(turnOf("player1"));
+        gameTask.deal(turnOf("player3"));
+        // every player received the first copy, the second one is open to everyone again
+        Assertions.assertEquals(1, gameTask.multiplicity);
+        Assertions.assertTrue(gameTask.isResolvable(turnOf("player2")));
+
+        PLAYERS.forEach(player -> gameTask.deal(turnOf(player)));
+        Assertions.assertTrue(gameTask.isExhausted());
+    }
+
+    @Test
+    void testAlwaysTaskIsNeverExhausted() {
+        GameTask gameTask = new GameTask();
+        gameTask.unresolvedTask = new Task.Builder("always").repeat(Task.Repeat.ALWAYS).build();
+
+        for (int turn = 0; turn < 3; turn++) {
+            gameTask.deal(turnOf(PLAYERS.get(turn)));
+        }
+        Assertions.assertEquals(1, gameTask.multiplicity);
+        Assertions.assertFalse(gameTask.isExhausted());
+    }
+
+    @Test
+    void testMaterializedTaskIsExhaustedAfterOneDeal() {
+        GameTask gameTask = new GameTask();
+        gameTask.assignedPlayer = "player1";
+
+        Assertions.assertFalse(gameTask.isResolvable(turnOf("player2")));
+        gameTask.deal(turnOf("player1"));
+        Assertions.assertTrue(gameTask.isExhausted());
+    }
+}
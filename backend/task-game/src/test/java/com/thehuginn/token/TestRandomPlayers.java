@@ -0,0 +1,43 @@
+package com.thehuginn.token;
+
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestRandomPlayers {
+
+    private static final List<String> PLAYERS = List.of("player1", "player2", "player3", "player4", "player5");
+
+    @Test
+    void testRandomPlayersAreDistinctOthers() {
+        for (int round = 0; round < 100; round++) {
+            ResolutionContext context = ResolutionContext.builder("game").player("player3").players(PLAYERS).build();
+            Set<String> randomPlayers = new HashSet<>();
+            for (int index = 0; index < PLAYERS.size() - 1; index++) {
+                randomPlayers.add(context.getRandomPlayer(index));
+            }
+            Assertions.assertEquals(Set.of("player1", "player2", "player4", "player5"), randomPlayers);
+        }
+    }
+
+    @Test
+    void testRandomPlayerIsStableForIndex() {
+        ResolutionContext context = ResolutionContext.builder("game").player("player1").players(PLAYERS).build();
+        String second = context.getRandomPlayer(1);
+        String first = context.getRandomPlayer(0);
+        Assertions.assertEquals(second, context.getRandomPlayer(1));
+        Assertions.assertEquals(first, context.getRandomPlayer(0));
+        Assertions.assertEquals(first, context.getRandomPlayer(0));
+        Assertions.assertNotEquals(first, second);
+    }
+
+    @Test
+    void testNotEnoughPlayers() {
+        ResolutionContext context = ResolutionContext.builder("game").player("player1").players(PLAYERS).build();
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> context.getRandomPlayer(PLAYERS.size() - 1));
+    }
+}
@@ -0,0 +1,66 @@
+package com.thehuginn.token;
+
+import com.sun.management.ThreadMXBean;
+import com.thehuginn.common.services.exposed.resolution.ResolutionContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Counts the bytes the current thread allocates while building resolution contexts, once with a builder per
+ * render and once with the builder of the request, which indexes the players once and reuses its context.
+ */
+public class TestResolutionContextAllocations {
+
+    private static final List<String> PLAYERS = List.of("player1", "player2", "player3", "player4", "player5",
+            "player6", "player7", "player8");
+
+    private static final int BUILDS = 100_000;
+
+    private static ResolutionContext sink;
+
+    @Test
+    void testBuilderReusesItsContext() {
+        ResolutionContext.Builder builder = ResolutionContext.builder("game").players(PLAYERS);
+        ResolutionContext context = builder.player("player3").build();
+        Assertions.assertSame(context, builder.player("player3").build());
+        Assertions.assertEquals(2, context.getPlayerIndex());
+
+        ResolutionContext next = builder.player("player4").build();
+        Assertions.assertNotSame(context, next);
+        Assertions.assertEquals(3, next.getPlayerIndex());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> builder.player("nobody").build());
+    }
+
+    @Test
+    void testRequestBuilderAllocatesLessThanBuilderPerRender() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        ResolutionContext.Builder request = ResolutionContext.builder("game").players(PLAYERS);
+        Supplier<ResolutionContext> perRender = () -> ResolutionContext.builder("game").players(PLAYERS)
+                .player(PLAYERS.get(5)).build();
+        Supplier<ResolutionContext> perRequest = () -> request.player(PLAYERS.get(5)).build();
+        // warm up, so both are measured compiled
+        allocated(threads, perRender);
+        allocated(threads, perRequest);
+
+        long perRenderBytes = allocated(threads, perRender);
+        long perRequestBytes = allocated(threads, perRequest);
+        Assertions.assertTrue(perRequestBytes * 10 < perRenderBytes,
+                "%d builds allocated %d bytes with a builder per render and %d with one per request"
+                        .formatted(BUILDS, perRenderBytes, perRequestBytes));
+    }
+
+    private static long allocated(ThreadMXBean threads, Supplier<ResolutionContext> build) {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < BUILDS; i++) {
+            sink = build.get();
+        }
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
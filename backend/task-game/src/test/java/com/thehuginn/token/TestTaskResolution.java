@@ -1,6 +1,7 @@
 package com.thehuginn.token;
 
 import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.common.services.exposed.Roster;
 import com.thehuginn.services.exposed.GameService;
 import com.thehuginn.task.Task;
 import com.thehuginn.token.resolved.PairsResolvedToken;
@@ -56,10 +57,10 @@ public class TestTaskResolution extends AbstractResolutionTaskTest {
             PairsResolvedToken.Pair pair = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("/task/current")
+                    .put("/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .body("data.pairs.size()", is(1))
@@ -79,10 +80,10 @@ public class TestTaskResolution extends AbstractResolutionTaskTest {
             PairsResolvedToken.Pair pair = given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("/task/current")
+                    .put("/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .body("data.pairs.size()", is(1))
@@ -121,10 +122,10 @@ public class TestTaskResolution extends AbstractResolutionTaskTest {
             asserter.execute(() -> given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("/task/current")
+                    .put("/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .body("data.pairs.size()", is(3)));
@@ -156,10 +157,10 @@ public class TestTaskResolution extends AbstractResolutionTaskTest {
             asserter.execute(() -> given()
                     .cookie(new Cookie.Builder("gameId", GAME).build())
                     .cookie(new Cookie.Builder("locale", "en").build())
-                    .queryParam("resolutionContext", resolutionContext)
+                    .body(new Roster(resolutionContext.getPlayers()))
                     .contentType(MediaType.APPLICATION_JSON)
                     .when()
-                    .get("/task/current")
+                    .put("/task/current")
                     .then()
                     .statusCode(RestResponse.StatusCode.OK)
                     .body("data.player", is(ITALIC.formatted(PLAYER))));
@@ -0,0 +1,98 @@
+package com.thehuginn.tracing;
+
+import com.thehuginn.AbstractResolutionTaskTest;
+import com.thehuginn.common.services.exposed.Roster;
+import com.thehuginn.common.services.exposed.tracing.Tracing;
+import com.thehuginn.task.Task;
+import com.thehuginn.util.EntityCreator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import io.restassured.http.Cookie;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+@RunOnVertxContext
+public class TestTracing extends AbstractResolutionTaskTest {
+
+    private static final long EXPORT_TIMEOUT_MILLIS = 10_000;
+
+    @Inject
+    InMemorySpanExporter spanExporter;
+
+    @Test
+    void testTurnIsTraced(UniAsserter asserter) {
+        asserter.execute(spanExporter::reset);
+        asserter.execute(() -> new Task.Builder("always playable task")
+                .repeat(Task.Repeat.ALWAYS)
+                .type(Task.Type.ALL)
+                .build()
+                .<Task> persistAndFlush()
+                .invoke(task -> asserter.putData("task", task)));
+        asserter.execute(() -> EntityCreator.createGameSession(GAME).persistAndFlush());
+        asserter.execute(() -> {
+            try {
+                return gameTaskService.generateGameTasks(List.of((Task) asserter.getData("task")), resolutionContext);
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        asserter.execute(() -> given()
+                .cookie(new Cookie.Builder("gameId", GAME).build())
+                .cookie(new Cookie.Builder("locale", LOCALE).build())
+                .body(new Roster(resolutionContext.getPlayers()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .when()
+                .put("/game/task/next")
+                .then()
+                .statusCode(RestResponse.StatusCode.OK));
+
+        asserter.execute(() -> {
+            SpanData deck = awaitSpan("GameTaskService.generateGameTasks");
+            Assertions.assertEquals(GAME, deck.getAttributes().get(AttributeKey.stringKey(Tracing.GAME_ID)));
+            Assertions.assertEquals(1L, deck.getAttributes().get(AttributeKey.longKey(Tracing.DECK_SIZE)));
+
+            SpanData nextTask = awaitSpan("GameSession.nextTask");
+            Assertions.assertEquals(GAME, nextTask.getAttributes().get(AttributeKey.stringKey(Tracing.GAME_ID)));
+            Assertions.assertEquals(1L, nextTask.getAttributes().get(AttributeKey.longKey(Tracing.DECK_SIZE)));
+            Assertions.assertTrue(nextTask.getAttributes().get(AttributeKey.longKey(Tracing.STATEMENTS)) > 0,
+                    "statements of the turn are not counted");
+
+            SpanData nextTaskUni = awaitSpan("GameSession.nextTaskUni");
+            Assertions.assertEquals(nextTask.getTraceId(), nextTaskUni.getTraceId());
+        });
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+
+    private SpanData awaitSpan(String name) {
+        long deadline = System.currentTimeMillis() + EXPORT_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            for (SpanData span : spanExporter.getFinishedSpanItems()) {
+                if (span.getName().equals(name)) {
+                    return span;
+                }
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Assertions.fail("Span " + name + " was not exported");
+    }
+}
@@ -0,0 +1,37 @@
+package com.thehuginn.util;
+
+import com.thehuginn.common.services.exposed.tracing.QueryCounter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every SQL statement Hibernate sends, registered for the test profile in application.properties
+ * in place of {@link QueryCounter}, which keeps counting per request.
+ */
+public class StatementCounter extends QueryCounter {
+
+    private static final AtomicLong statements = new AtomicLong();
+
+    public static void reset() {
+        statements.set(0);
+    }
+
+    public static long count() {
+        return statements.get();
+    }
+
+    /**
+     * @return statements issued by the call
+     */
+    public static long count(Runnable call) {
+        reset();
+        call.run();
+        return count();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.incrementAndGet();
+        return super.inspect(sql);
+    }
+}
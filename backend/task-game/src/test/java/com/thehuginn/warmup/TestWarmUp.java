@@ -0,0 +1,53 @@
+package com.thehuginn.warmup;
+
+import com.thehuginn.AbstractTest;
+import com.thehuginn.catalog.Catalog;
+import com.thehuginn.common.game.translation.TranslationCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.vertx.RunOnVertxContext;
+import io.quarkus.test.vertx.UniAsserter;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.hasItem;
+
+@QuarkusTest
+@RunOnVertxContext
+public class TestWarmUp extends AbstractTest {
+
+    @Inject
+    WarmUp warmUp;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void testWarmUpLoadsCatalogAndRecordsItsDuration(UniAsserter asserter) {
+        asserter.execute(Catalog::invalidate);
+        asserter.assertThat(() -> warmUp.run(), duration -> {
+            Assertions.assertFalse(duration.isNegative());
+            Assertions.assertTrue(warmUp.isDone());
+            Assertions.assertEquals(duration, warmUp.duration());
+            Assertions.assertNotNull(Catalog.current());
+            // the synthetic task leaves nothing behind
+            Assertions.assertNull(TranslationCache.tasks().get(new TranslationCache.Key(WarmUp.SYNTHETIC_TASK, "en")));
+
+            Timer timer = registry.find(WarmUp.METRIC).tag("outcome", "success").timer();
+            Assertions.assertNotNull(timer);
+            Assertions.assertTrue(timer.count() > 0);
+        });
+        asserter.execute(() -> given()
+                .when()
+                .get("/q/health/ready")
+                .then()
+                .statusCode(200)
+                .body("checks.name", hasItem("warm-up")));
+
+        asserter.surroundWith(uni -> Panache.withSession(() -> uni));
+    }
+}